@@ -0,0 +1,114 @@
+package com.martinandersson.money.benchmark;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.serializer.SerializationFramework;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static java.util.stream.Collectors.toList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares serializing all {@code AppleData} one price at a time with
+ * serializing all of it as one batch ({@code Serializer.serializeAll()}), and
+ * the same for deserialization.<p>
+ * 
+ * Each invocation process all {@value #ROWS} prices and JMH is told so using
+ * {@code OperationsPerInvocation}. Hence, the time reported is nanoseconds per
+ * price. {@code PriceSerializationTest.test_all()} print the bytes.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BatchSerializationBenchmark
+{
+    /**
+     * Number of rows in {@code AppleData}.
+     */
+    public static final int ROWS = QuandlReaderBenchmark.ROWS;
+    
+    
+    
+    @Param
+    private SerializationFramework serializer;
+    
+    private List<FastMoneyPrice> prices;
+    
+    private ByteArrayOutputStream sink;
+    
+    /**
+     * All prices, serialized one by one.
+     */
+    private byte[][] separately;
+    
+    /**
+     * All prices, serialized as a batch.
+     */
+    private byte[] batch;
+    
+    
+    
+    @Setup
+    public void serializeOnce() {
+        prices = AppleData.rowsAs(FastMoneyPrice::ofJson).collect(toList());
+        
+        assert prices.size() == ROWS;
+        
+        separately = prices.stream()
+                .map(serializer::serialize)
+                .toArray(byte[][]::new);
+        
+        sink = new ByteArrayOutputStream();
+        serializer.serializeAll(prices, sink);
+        batch = sink.toByteArray();
+    }
+    
+    
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int serializeOneByOne() {
+        sink.reset();
+        
+        for (FastMoneyPrice p : prices) {
+            serializer.serialize(p, sink);
+        }
+        
+        return sink.size();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int serializeAll() {
+        sink.reset();
+        serializer.serializeAll(prices, sink);
+        return sink.size();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void deserializeOneByOne(Blackhole hole) {
+        for (byte[] bytes : separately) {
+            hole.consume(serializer.<FastMoneyPrice>deserialize(bytes));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<FastMoneyPrice> deserializeAll() {
+        return serializer.deserializeAll(new ByteArrayInputStream(batch));
+    }
+}
\ No newline at end of file
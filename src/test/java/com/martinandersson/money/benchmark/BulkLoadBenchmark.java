@@ -0,0 +1,149 @@
+package com.martinandersson.money.benchmark;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.chroniclemap.BulkLoader;
+import com.martinandersson.money.lib.chroniclemap.ChronicleMapMarshaller;
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.serializer.SerializationFramework;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static java.util.stream.Collectors.toList;
+import net.openhft.chronicle.map.ChronicleMap;
+import net.openhft.chronicle.map.ChronicleMapBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares loading all {@code AppleData} into a new Chronicle Map using a loop
+ * of {@code put()} with loading the same prices using {@link BulkLoader}.<p>
+ * 
+ * Each invocation create a map, load all {@value #ROWS} prices and close the
+ * map. All benchmarks pay for the creation of the map. {@link #perPut()} size
+ * the map for a tenth of the prices, so the map has to grow while being
+ * loaded. (An entry count of one, which the other Chronicle Map benchmarks use,
+ * can not grow to hold all prices.) {@link #perPut_presized()} and {@link
+ * #bulk(Parallelism)} size the map for all prices.<p>
+ * 
+ * {@code bulk()} is also parameterized by the number of threads inserting. A
+ * parallelism of 1 means that all prices are inserted by the benchmark thread,
+ * and is the one to compare with {@code perPut_presized()}.<p>
+ * 
+ * The throughput reported is prices loaded per second. Results on my machine
+ * (JDK 8, one CPU, 2 forks, 8 iterations each):
+ * <pre>
+ *   Benchmark        (parallelism)  (serializer)  Score      Error  Units
+ *   bulk                         1   KRYO_CUSTOM  713371 &plusmn;  57408  ops/s
+ *   bulk                         1    FST_CUSTOM  612427 &plusmn;  24125  ops/s
+ *   bulk                         4   KRYO_CUSTOM  265782 &plusmn; 112372  ops/s
+ *   bulk                         4    FST_CUSTOM  336462 &plusmn; 134464  ops/s
+ *   perPut                     N/A   KRYO_CUSTOM  416600 &plusmn;  21269  ops/s
+ *   perPut                     N/A    FST_CUSTOM  436807 &plusmn;  77196  ops/s
+ *   perPut_presized            N/A   KRYO_CUSTOM  710895 &plusmn; 124616  ops/s
+ *   perPut_presized            N/A    FST_CUSTOM  592328 &plusmn; 125052  ops/s
+ * </pre>
+ * 
+ * Sizing the map up front is what pays off. With the map sized, {@code
+ * BulkLoader}'s insert through a query context is no faster than {@code put()}
+ * (the map is built with {@code putReturnsNull(true)}, so put() doesn't read
+ * the previous value either). More threads than CPUs only add contention.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BulkLoadBenchmark
+{
+    /**
+     * Number of rows in {@code AppleData}.
+     */
+    public static final int ROWS = QuandlReaderBenchmark.ROWS;
+    
+    
+    
+    @Param
+    private SerializationFramework serializer;
+    
+    private List<FastMoneyPrice> prices;
+    
+    
+    
+    @Setup
+    public void readPrices() {
+        prices = AppleData.rowsAs(FastMoneyPrice::ofJson).collect(toList());
+        
+        assert prices.size() == ROWS;
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Parallelism
+    {
+        @Param({"1", "4", "16"})
+        int parallelism;
+    }
+    
+    
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int perPut() {
+        try (ChronicleMap<LocalDate, FastMoneyPrice> map = builder()
+                .entries(ROWS / 10)
+                .maxBloatFactor(20)
+                .create())
+        {
+            for (FastMoneyPrice p : prices) {
+                map.put(p.getDate(), p);
+            }
+            
+            return map.size();
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int perPut_presized() {
+        try (ChronicleMap<LocalDate, FastMoneyPrice> map = builder().entries(ROWS).create()) {
+            for (FastMoneyPrice p : prices) {
+                map.put(p.getDate(), p);
+            }
+            
+            return map.size();
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int bulk(Parallelism p) {
+        try (ChronicleMap<LocalDate, FastMoneyPrice> map
+                = BulkLoader.createAndLoad(builder(), prices, p.parallelism))
+        {
+            return map.size();
+        }
+    }
+    
+    
+    
+    private ChronicleMapBuilder<LocalDate, FastMoneyPrice> builder() {
+        ChronicleMapMarshaller<LocalDate> keyMarshaller = new ChronicleMapMarshaller<>(serializer);
+        
+        @SuppressWarnings("unchecked")
+        ChronicleMapMarshaller<FastMoneyPrice> valueMarshaller
+                = (ChronicleMapMarshaller<FastMoneyPrice>) (ChronicleMapMarshaller) keyMarshaller;
+        
+        return ChronicleMapBuilder.of(LocalDate.class, FastMoneyPrice.class)
+                .keyMarshaller(keyMarshaller)
+                .valueMarshaller(valueMarshaller)
+                .constantKeySizeBySample(LocalDate.now())
+                .averageValue(FastMoneyPrice.EXACT_SIZE)
+                .putReturnsNull(true);
+    }
+}
\ No newline at end of file
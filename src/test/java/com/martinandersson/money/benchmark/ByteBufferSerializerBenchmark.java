@@ -0,0 +1,106 @@
+package com.martinandersson.money.benchmark;
+
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.serializer.SerializationFramework;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Serialize and deserialize one {@code FastMoneyPrice} to/from a heap or a
+ * direct {@code ByteBuffer}, using each {@code SerializationFramework}.<p>
+ * 
+ * {@link #serialize()} and {@link #deserialize()} use the {@code ByteBuffer}
+ * methods of the serializer. {@link #serializeViaArray()} and {@link
+ * #deserializeViaArray()} is what a client had to do before these methods
+ * existed; go through a {@code byte[]} and copy it to/from the buffer.<p>
+ * 
+ * Compare the time as well as "gc.alloc.rate.norm" reported by the GC profiler.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ByteBufferSerializerBenchmark
+{
+    @Param
+    private SerializationFramework serializer;
+    
+    /**
+     * "HEAP" or "DIRECT".
+     */
+    @Param({"HEAP", "DIRECT"})
+    private String buffer;
+    
+    private FastMoneyPrice price;
+    
+    /**
+     * Target of the serialize benchmarks.
+     */
+    private ByteBuffer target;
+    
+    /**
+     * Holds one serialized price, source of the deserialize benchmarks.
+     */
+    private ByteBuffer source;
+    
+    
+    
+    @Setup
+    public void allocateBuffers() {
+        price = FastMoneyPrice.EXACT_SIZE;
+        
+        target = allocate(1024);
+        source = allocate(1024);
+        
+        serializer.serialize(price, source);
+        source.flip();
+    }
+    
+    
+    
+    @Benchmark
+    public int serialize() {
+        target.clear();
+        return serializer.serialize(price, target);
+    }
+    
+    @Benchmark
+    public int serializeViaArray() {
+        target.clear();
+        target.put(serializer.serialize(price));
+        return target.position();
+    }
+    
+    @Benchmark
+    public FastMoneyPrice deserialize() {
+        source.rewind();
+        return serializer.deserialize(source);
+    }
+    
+    @Benchmark
+    public FastMoneyPrice deserializeViaArray() {
+        source.rewind();
+        
+        byte[] bytes = new byte[source.remaining()];
+        source.get(bytes);
+        
+        return serializer.deserialize(bytes);
+    }
+    
+    
+    
+    private ByteBuffer allocate(int capacity) {
+        return buffer.equals("DIRECT") ?
+                ByteBuffer.allocateDirect(capacity) :
+                ByteBuffer.allocate(capacity);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,320 @@
+package com.martinandersson.money.benchmark;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.chroniclemap.ChronicleMapMarshaller;
+import com.martinandersson.money.lib.chroniclemap.FastMoneyPriceMarshaller;
+import com.martinandersson.money.lib.chroniclemap.LocalDateMarshaller;
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.serializer.SerializationFramework;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.openhft.chronicle.map.ChronicleMap;
+import net.openhft.chronicle.map.ChronicleMapBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Benchmarks concurrent reads and writes of prices against different {@code
+ * Map} implementations.<p>
+ * 
+ * {@link ChronicleMapBaselineBenchmark} and {@link ChronicleMapRealBenchmark}
+ * use one thread. This class measure what happens when many threads hit the
+ * same map. The maps compared are ({@link #map}):
+ * 
+ * <ul>
+ *   <li>{@value #LOCKED_HASH_MAP}, a {@code HashMap} wrapped by {@code
+ *       Collections.synchronizedMap()}; one lock for the whole map</li>
+ *   <li>{@value #CONCURRENT_HASH_MAP}</li>
+ *   <li>Chronicle Map, using a {@code SerializationFramework} literal or
+ *       {@value ChronicleMapRealBenchmark#NATIVE}. Chronicle Map has one lock
+ *       per segment.</li>
+ * </ul>
+ * 
+ * All maps are prefilled with all {@code AppleData} and no benchmark change
+ * the size of a map; a write put a price for a key already present. Each
+ * thread walk through its own precomputed sequence of keys, drawn using
+ * {@link Keys#distribution}:
+ * 
+ * <ul>
+ *   <li>{@value #UNIFORM}, any date equally likely</li>
+ *   <li>{@value #HOT}, {@value #HOT_PERCENT}% of the accesses go to the last
+ *       {@value #HOT_DAYS} dates (about a year of trading days), the rest is
+ *       uniform. Recent prices is what most applications look at.</li>
+ * </ul>
+ * 
+ * There are two kinds of benchmarks. {@link #mixed(Ratio, Keys) mixed()} let
+ * each thread read or write in the proportion given by {@link
+ * Ratio#writePercent}. It run with one thread by default; use JMH's thread
+ * count, or property "t" with {@code StartJmh}, to find at what thread count
+ * one map starts to win over another. For example:
+ * <pre>
+ *   gradlew bench -Pr=CMCB -Pt=8
+ * </pre>
+ * 
+ * The "readWrite" group on the other hand dedicate threads to either reading
+ * ({@link #get(Keys) get()}) or writing ({@link #put(Keys) put()}), three
+ * readers per writer. JMH report the latency of each method separately, which
+ * show how much the readers suffer from the writer and vice versa. Use JMH's
+ * "-tg" option to change the number of threads in the group.<p>
+ * 
+ * The setup of {@code Keys} must not take any argument. JMH 1.12 fail to
+ * generate code for a group benchmark whose thread state take the benchmark
+ * state or {@code ThreadParams} as an argument. That is why the dates and
+ * prices are static and each thread's sequence is seeded by a static
+ * counter.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChronicleMapContentionBenchmark
+{
+    /**
+     * Parameter value for a {@code HashMap} guarded by one lock.
+     */
+    public static final String LOCKED_HASH_MAP = "LOCKED_HASH_MAP";
+    
+    /**
+     * Parameter value for a {@code ConcurrentHashMap}.
+     */
+    public static final String CONCURRENT_HASH_MAP = "CONCURRENT_HASH_MAP";
+    
+    /**
+     * Parameter value for uniformly distributed keys.
+     */
+    public static final String UNIFORM = "UNIFORM";
+    
+    /**
+     * Parameter value for keys concentrated on recent dates.
+     */
+    public static final String HOT = "HOT";
+    
+    /**
+     * Percentage of accesses that go to the {@value #HOT_DAYS} most recent
+     * dates, given a {@value #HOT} distribution.
+     */
+    public static final int HOT_PERCENT = 90;
+    
+    /**
+     * Number of recent dates that are hot.
+     */
+    public static final int HOT_DAYS = 252;
+    
+    /**
+     * Number of keys in each thread's sequence. Must be a power of two.
+     */
+    private static final int SEQUENCE = 1 << 14;
+    
+    private static final FastMoneyPrice[] PRICES
+            = AppleData.rowsAs(FastMoneyPrice::ofJson).toArray(FastMoneyPrice[]::new);
+    
+    private static final LocalDate[] DATES
+            = Arrays.stream(PRICES).map(FastMoneyPrice::getDate).toArray(LocalDate[]::new);
+    
+    /**
+     * Seed of the next thread's sequence.
+     */
+    private static final AtomicInteger SEED = new AtomicInteger();
+    
+    
+    
+    /**
+     * Map implementation: {@value #LOCKED_HASH_MAP}, {@value
+     * #CONCURRENT_HASH_MAP}, name of a {@code SerializationFramework} literal
+     * or {@value ChronicleMapRealBenchmark#NATIVE}.
+     */
+    @Param({LOCKED_HASH_MAP, CONCURRENT_HASH_MAP,
+            "JAVA", "KRYO_VANILLA", "KRYO_CUSTOM", "FST_VANILLA", "FST_CUSTOM",
+            ChronicleMapRealBenchmark.NATIVE})
+    private String map;
+    
+    private Map<LocalDate, FastMoneyPrice> target;
+    
+    
+    
+    @Setup
+    public void createMap() {
+        switch (map) {
+            case LOCKED_HASH_MAP:
+                target = Collections.synchronizedMap(new HashMap<>());
+                break;
+            case CONCURRENT_HASH_MAP:
+                target = new ConcurrentHashMap<>();
+                break;
+            default:
+                target = chronicleMap();
+        }
+        
+        for (FastMoneyPrice p : PRICES) {
+            target.put(p.getDate(), p);
+        }
+    }
+    
+    @TearDown
+    public void closeMap() {
+        if (target instanceof ChronicleMap) {
+            ((ChronicleMap<?, ?>) target).close();
+        }
+    }
+    
+    /**
+     * Proportion of writes used by {@link #mixed(Ratio, Keys) mixed()}.
+     */
+    @State(Scope.Benchmark)
+    public static class Ratio
+    {
+        @Param({"5", "50"})
+        int writePercent;
+    }
+    
+    /**
+     * Per-thread sequence of key indices and of dice rolls (0 - 99) that
+     * decide whether {@code mixed()} read or write.
+     */
+    @State(Scope.Thread)
+    public static class Keys
+    {
+        /**
+         * Key distribution: {@value #UNIFORM} or {@value #HOT}.
+         */
+        @Param({UNIFORM, HOT})
+        String distribution;
+        
+        private int[] indices, rolls;
+        
+        private int next;
+        
+        @Setup
+        public void createSequence() {
+            final Random r = new Random(SEED.incrementAndGet());
+            final int n = DATES.length;
+            
+            indices = new int[SEQUENCE];
+            rolls = new int[SEQUENCE];
+            
+            for (int i = 0; i < SEQUENCE; ++i) {
+                indices[i] = distribution.equals(HOT) && r.nextInt(100) < HOT_PERCENT ?
+                        n - 1 - r.nextInt(Math.min(HOT_DAYS, n)) :
+                        r.nextInt(n);
+                
+                rolls[i] = r.nextInt(100);
+            }
+        }
+        
+        int next() {
+            return next = (next + 1) & (SEQUENCE - 1);
+        }
+    }
+    
+    
+    
+    /**
+     * Read or write one price.
+     * 
+     * @param ratio  proportion of writes
+     * @param keys   this thread's sequence
+     * 
+     * @return the price read, or {@code null} if a price was written
+     */
+    @Benchmark
+    public FastMoneyPrice mixed(Ratio ratio, Keys keys) {
+        final int i = keys.next(),
+                  k = keys.indices[i];
+        
+        if (keys.rolls[i] < ratio.writePercent) {
+            target.put(DATES[k], PRICES[k]);
+            return null;
+        }
+        
+        return target.get(DATES[k]);
+    }
+    
+    /**
+     * Same as {@link #mixed(Ratio, Keys) mixed()}, using as many threads as
+     * there are cores.
+     * 
+     * @param ratio  proportion of writes
+     * @param keys   this thread's sequence
+     * 
+     * @return the price read, or {@code null} if a price was written
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    public FastMoneyPrice mixed_mt(Ratio ratio, Keys keys) {
+        return mixed(ratio, keys);
+    }
+    
+    /**
+     * Read one price, in a group with one writer.
+     * 
+     * @param keys  this thread's sequence
+     * 
+     * @return the price read
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public FastMoneyPrice get(Keys keys) {
+        return target.get(DATES[keys.indices[keys.next()]]);
+    }
+    
+    /**
+     * Write one price, in a group with three readers.
+     * 
+     * @param keys  this thread's sequence
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void put(Keys keys) {
+        final int k = keys.indices[keys.next()];
+        target.put(DATES[k], PRICES[k]);
+    }
+    
+    
+    
+    private ChronicleMap<LocalDate, FastMoneyPrice> chronicleMap() {
+        ChronicleMapBuilder<LocalDate, FastMoneyPrice> b
+                = ChronicleMapBuilder.of(LocalDate.class, FastMoneyPrice.class);
+        
+        if (map.equals(ChronicleMapRealBenchmark.NATIVE)) {
+            b.keyMarshaller(LocalDateMarshaller.INSTANCE)
+             .valueMarshaller(FastMoneyPriceMarshaller.INSTANCE);
+        }
+        else {
+            ChronicleMapMarshaller<LocalDate> keyMarshaller = new ChronicleMapMarshaller<>(
+                    SerializationFramework.valueOf(map));
+            
+            @SuppressWarnings("unchecked")
+            ChronicleMapMarshaller<FastMoneyPrice> valueMarshaller
+                    = (ChronicleMapMarshaller<FastMoneyPrice>) (ChronicleMapMarshaller) keyMarshaller;
+            
+            b.keyMarshaller(keyMarshaller)
+             .valueMarshaller(valueMarshaller);
+        }
+        
+        return b.constantKeySizeBySample(LocalDate.now())
+                .averageValue(FastMoneyPrice.EXACT_SIZE)
+                .entries(PRICES.length)
+                .putReturnsNull(true)
+                .create();
+    }
+}
\ No newline at end of file
@@ -1,12 +1,20 @@
 package com.martinandersson.money.benchmark;
 
+import com.martinandersson.money.lib.AppleData;
 import com.martinandersson.money.lib.LocalDates;
 import com.martinandersson.money.lib.NumberFactory;
 import com.martinandersson.money.lib.chroniclemap.ChronicleMapMarshaller;
+import com.martinandersson.money.lib.chroniclemap.FastMoneyPriceMarshaller;
+import com.martinandersson.money.lib.chroniclemap.LocalDateMarshaller;
+import com.martinandersson.money.lib.chroniclemap.MutableLongPriceMarshaller;
 import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.model.MutableLongPrice;
 import com.martinandersson.money.lib.serializer.SerializationFramework;
+import com.martinandersson.money.lib.series.PriceSeries;
 import java.time.LocalDate;
 import java.util.concurrent.TimeUnit;
+import net.openhft.chronicle.hash.serialization.BytesReader;
+import net.openhft.chronicle.hash.serialization.BytesWriter;
 import net.openhft.chronicle.map.ChronicleMap;
 import net.openhft.chronicle.map.ChronicleMapBuilder;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -38,7 +46,21 @@ import org.openjdk.jmh.infra.Blackhole;
  * However, the other serialization frameworks vastly reduced the time cost.
  * {@link SerializationFramework#KRYO_CUSTOM} was the fastest one and "only" 3.8
  * times slower than {@link
- * ChronicleMapBaselineBenchmark#concurrentHashMap(org.openjdk.jmh.infra.Blackhole) ChronicleMapBaselineBenchmark.concurrentHashMap(Blackhole)}.
+ * ChronicleMapBaselineBenchmark#concurrentHashMap(org.openjdk.jmh.infra.Blackhole) ChronicleMapBaselineBenchmark.concurrentHashMap(Blackhole)}.<p>
+ * 
+ * Apart from the serialization frameworks, the parameter space also include
+ * {@value #NATIVE}, which use {@link LocalDateMarshaller} and {@link
+ * FastMoneyPriceMarshaller}. These write primitives straight into Chronicle's
+ * {@code Bytes} without a stream in between and is the closest we get to
+ * {@code ConcurrentHashMap} without changing the value type.<p>
+ * 
+ * {@link #get()} and {@link #getUsing()} look up prices in a map prefilled with
+ * all {@code AppleData}, using {@code MutableLongPrice} as value type. The
+ * latter give Chronicle Map an instance to read into. For the {@code
+ * SerializationFramework}s, only the custom variants actually reuse the
+ * instance and only {@value #NATIVE} has no stream objects in between. Run
+ * with the GC profiler ({@code StartJmh} add it) and compare
+ * "gc.alloc.rate.norm" to see the difference in bytes allocated per lookup.
  * 
  * @author Martin Andersson (webmaster at martinandersson.com)
  */
@@ -47,13 +69,32 @@ import org.openjdk.jmh.infra.Blackhole;
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
 public class ChronicleMapRealBenchmark
 {
-    @Param
-    private SerializationFramework serializer;
+    /**
+     * Parameter value for the native marshallers.
+     */
+    public static final String NATIVE = "NATIVE";
+    
+    /**
+     * Name of a {@code SerializationFramework} literal, or {@value #NATIVE}.
+     */
+    @Param({"JAVA", "KRYO_VANILLA", "KRYO_CUSTOM", "FST_VANILLA", "FST_CUSTOM", NATIVE})
+    private String serializer;
     
     private LocalDate start;
     
     private ChronicleMap<LocalDate, FastMoneyPrice> map;
     
+    /**
+     * Prefilled with all {@code AppleData}, used by the lookup benchmarks.
+     */
+    private ChronicleMap<LocalDate, MutableLongPrice> lookupMap;
+    
+    private LocalDate[] lookupKeys;
+    
+    private int nextKey;
+    
+    private MutableLongPrice using;
+    
     
     
     @Setup
@@ -63,15 +104,7 @@ public class ChronicleMapRealBenchmark
         FastMoneyPrice avg = FastMoneyPrice.ofJson(
                 LocalDate.now(), NumberFactory.DOUBLE.newNumber());
         
-        ChronicleMapMarshaller<LocalDate> keyMarshaller = new ChronicleMapMarshaller<>(serializer);
-        
-        @SuppressWarnings("unchecked")
-        ChronicleMapMarshaller<FastMoneyPrice> valueMarshaller
-                = (ChronicleMapMarshaller<FastMoneyPrice>) (ChronicleMapMarshaller) keyMarshaller;
-        
-        map = ChronicleMapBuilder.of(LocalDate.class, FastMoneyPrice.class)
-                .keyMarshaller(keyMarshaller)
-                .valueMarshaller(valueMarshaller)
+        map = builder(FastMoneyPrice.class, FastMoneyPriceMarshaller.INSTANCE)
                 .constantKeySizeBySample(LocalDate.now())
                 .averageValue(avg)
                 .entries(1)
@@ -80,9 +113,32 @@ public class ChronicleMapRealBenchmark
                 .create();
     }
     
+    @Setup
+    public void createLookupMap() {
+        lookupMap = builder(MutableLongPrice.class, MutableLongPriceMarshaller.INSTANCE)
+                .constantKeySizeBySample(LocalDate.now())
+                .averageValue(MutableLongPrice.EXACT_SIZE)
+                .entries(AppleData.count())
+                .putReturnsNull(true)
+                .removeReturnsNull(true)
+                .create();
+        
+        PriceSeries series = AppleData.series();
+        
+        lookupKeys = new LocalDate[series.size()];
+        
+        for (int i = 0; i < lookupKeys.length; ++i) {
+            lookupKeys[i] = series.localDateAt(i);
+            lookupMap.put(lookupKeys[i], new MutableLongPrice().set(series.dateAt(i), series.amountAt(i)));
+        }
+        
+        using = new MutableLongPrice();
+    }
+    
     @TearDown
     public void closeMap() {
         map.close();
+        lookupMap.close();
     }
     
     
@@ -104,7 +160,54 @@ public class ChronicleMapRealBenchmark
         map.remove(date);
     }
     
+    /**
+     * Look up a price, Chronicle Map will create a new price for each call.
+     * 
+     * @return the price
+     */
+    @Benchmark
+    public MutableLongPrice get() {
+        return lookupMap.get(nextKey());
+    }
+    
+    /**
+     * Look up a price, reading into the same instance every time.
+     * 
+     * @return the price
+     */
+    @Benchmark
+    public MutableLongPrice getUsing() {
+        return lookupMap.getUsing(nextKey(), using);
+    }
+    
+    
     
+    private <V, M extends BytesReader<V> & BytesWriter<? super V>> ChronicleMapBuilder<LocalDate, V> builder(
+            Class<V> valueType, M nativeMarshaller)
+    {
+        ChronicleMapBuilder<LocalDate, V> b = ChronicleMapBuilder.of(LocalDate.class, valueType);
+        
+        if (serializer.equals(NATIVE)) {
+            return b.keyMarshaller(LocalDateMarshaller.INSTANCE)
+                    .valueMarshaller(nativeMarshaller);
+        }
+        
+        ChronicleMapMarshaller<LocalDate> keyMarshaller = new ChronicleMapMarshaller<>(
+                SerializationFramework.valueOf(serializer));
+        
+        @SuppressWarnings("unchecked")
+        ChronicleMapMarshaller<V> valueMarshaller
+                = (ChronicleMapMarshaller<V>) (ChronicleMapMarshaller) keyMarshaller;
+        
+        return b.keyMarshaller(keyMarshaller)
+                .valueMarshaller(valueMarshaller);
+    }
+    
+    private LocalDate nextKey() {
+        final int i = nextKey;
+        nextKey = i + 1 == lookupKeys.length ? 0 : i + 1;
+        return lookupKeys[i];
+    }
     
     private LocalDate next() {
         try {
@@ -1,5 +1,8 @@
 package com.martinandersson.money.benchmark;
 
+import com.martinandersson.money.lib.MonetaHack;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.math.BigDecimal;
 import java.util.concurrent.TimeUnit;
@@ -20,7 +23,13 @@ import org.openjdk.jmh.annotations.State;
  * an instance of FastMoney?<p>
  * 
  * Answer: Reflection is even faster than baseline and about twice as fast as
- * API.
+ * API.<p>
+ * 
+ * {@link #methodhandle() methodhandle()} invoke the constructor using a {@code
+ * MethodHandle} stored in a {@code static final} field. Unlike {@code
+ * Constructor.newInstance()}, no {@code Object[]} is created and the long is
+ * not boxed. {@link #monetaHack() monetaHack()} use whatever backend {@code
+ * MonetaHack} was configured with, and includes the currency lookup.
  * 
  * @author Martin Andersson (webmaster at martinandersson.com)
  */
@@ -29,6 +38,21 @@ import org.openjdk.jmh.annotations.State;
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
 public class ConstructFastMoneyBenchmark
 {
+    private static final MethodHandle CTOR;
+    
+    static {
+        try {
+            Constructor<FastMoney> c = FastMoney.class.getDeclaredConstructor(
+                    long.class, CurrencyUnit.class);
+            
+            c.setAccessible(true);
+            CTOR = MethodHandles.lookup().unreflectConstructor(c);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+    
     private Constructor<FastMoney> ctor;
     
     private long val;
@@ -74,4 +98,14 @@ public class ConstructFastMoneyBenchmark
     public FastMoney reflection() throws ReflectiveOperationException {
         return ctor.newInstance(val, currency);
     }
+    
+    @Benchmark
+    public FastMoney methodhandle() throws Throwable {
+        return (FastMoney) CTOR.invokeExact(val, currency);
+    }
+    
+    @Benchmark
+    public FastMoney monetaHack() {
+        return MonetaHack.newFastMoney(val, "USD");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.martinandersson.money.benchmark;
+
+import com.martinandersson.money.lib.Currencies;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.money.CurrencyUnit;
+import javax.money.Monetary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Isolates the cost of looking up a {@code CurrencyUnit} by its code.<p>
+ * 
+ * Three alternatives are compared:
+ * 
+ * <ul>
+ *   <li>{@code Monetary.getCurrency()}, what Moneta offer</li>
+ *   <li>a {@code ConcurrentHashMap<String, CurrencyUnit>}, the obvious
+ *       cache</li>
+ *   <li>{@link Currencies}, our open-addressing cache</li>
+ * </ul>
+ * 
+ * Each alternative is benchmarked using one thread and using as many threads
+ * as there are cores ({@code Threads.MAX}, suffix "_mt"). If a lookup scale,
+ * then the average time of the multi-threaded variant should be close to the
+ * single-threaded variant.<p>
+ * 
+ * Every invocation look up the next code of {@link #CODES}. Each thread has its
+ * own cursor.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CurrencyLookupBenchmark
+{
+    private static final String[] CODES = {"USD", "EUR", "JPY", "GBP", "SEK"};
+    
+    private Map<String, CurrencyUnit> chm;
+    
+    
+    
+    @Setup
+    public void init() {
+        chm = new ConcurrentHashMap<>();
+        
+        for (String c : CODES) {
+            chm.put(c, Monetary.getCurrency(c));
+            
+            // Warm the cache so that no benchmark measure a miss:
+            Currencies.get(c);
+        }
+    }
+    
+    /**
+     * Per-thread cursor into {@code CODES}.
+     */
+    @State(Scope.Thread)
+    public static class Cursor
+    {
+        private int next;
+        
+        String next() {
+            int i = next;
+            next = i + 1 == CODES.length ? 0 : i + 1;
+            return CODES[i];
+        }
+    }
+    
+    
+    
+    @Benchmark
+    public CurrencyUnit monetary(Cursor c) {
+        return Monetary.getCurrency(c.next());
+    }
+    
+    @Benchmark
+    public CurrencyUnit concurrentHashMap(Cursor c) {
+        return chm.get(c.next());
+    }
+    
+    @Benchmark
+    public CurrencyUnit currencies(Cursor c) {
+        return Currencies.get(c.next());
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public CurrencyUnit monetary_mt(Cursor c) {
+        return Monetary.getCurrency(c.next());
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public CurrencyUnit concurrentHashMap_mt(Cursor c) {
+        return chm.get(c.next());
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public CurrencyUnit currencies_mt(Cursor c) {
+        return Currencies.get(c.next());
+    }
+}
\ No newline at end of file
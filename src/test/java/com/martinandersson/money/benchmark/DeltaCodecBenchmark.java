@@ -0,0 +1,99 @@
+package com.martinandersson.money.benchmark;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.series.DeltaCodec;
+import com.martinandersson.money.lib.series.PriceSeries;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the throughput of {@link DeltaCodec}, encoding and decoding all
+ * {@code AppleData}.<p>
+ * 
+ * Each invocation process all {@value #ROWS} prices and JMH is told so using
+ * {@code OperationsPerInvocation}. Hence, the throughput reported is prices per
+ * second. {@link #range()} decode the last {@value #RANGE} prices (about a year)
+ * and is reported per price decoded as well.<p>
+ * 
+ * The checkpoint interval is a parameter. It has a small effect on size,
+ * printed by {@code DeltaCodecTest}, and a large effect on {@code range()}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DeltaCodecBenchmark
+{
+    /**
+     * Number of rows in {@code AppleData}.
+     */
+    public static final int ROWS = QuandlReaderBenchmark.ROWS;
+    
+    /**
+     * Number of prices decoded by {@link #range()}.
+     */
+    public static final int RANGE = 252;
+    
+    
+    
+    @Param({"16", "128", "1024"})
+    private int interval;
+    
+    private PriceSeries series;
+    
+    private byte[] encoded;
+    
+    
+    
+    @Setup
+    public void encodeOnce() {
+        series = AppleData.series();
+        encoded = DeltaCodec.encode(series, interval);
+        
+        assert series.size() == ROWS;
+    }
+    
+    
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public byte[] encode() {
+        return DeltaCodec.encode(series, interval);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public PriceSeries decode() {
+        return DeltaCodec.decode(encoded);
+    }
+    
+    /**
+     * Decode all prices without building a series.
+     * 
+     * @return the sum of all amounts
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long sum() {
+        final long[] sum = {0};
+        DeltaCodec.forEach(encoded, (date, amount) -> sum[0] += amount);
+        return sum[0];
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(RANGE)
+    public long range() {
+        final long[] sum = {0};
+        DeltaCodec.forEach(encoded, ROWS - RANGE, ROWS, (date, amount) -> sum[0] += amount);
+        return sum[0];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.martinandersson.money.benchmark;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.model.DoublePrice;
+import com.martinandersson.money.lib.series.GorillaCodec;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static java.util.stream.Collectors.toList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the time it takes {@link GorillaCodec} to encode and decode one
+ * price of {@code AppleData}.<p>
+ * 
+ * Each invocation process all {@value #ROWS} prices and JMH is told so using
+ * {@code OperationsPerInvocation}. Hence, the time reported is nanoseconds per
+ * price. The baseline, {@link #sumArray()}, sum the same values from a plain
+ * {@code double[]}. The encoded size is printed by {@code GorillaCodecTest}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GorillaCodecBenchmark
+{
+    /**
+     * Number of rows in {@code AppleData}.
+     */
+    public static final int ROWS = QuandlReaderBenchmark.ROWS;
+    
+    
+    
+    private short[] dates;
+    
+    private double[] values;
+    
+    private ByteBuffer target;
+    
+    private ByteBuffer encoded;
+    
+    
+    
+    @Setup
+    public void encodeOnce() {
+        List<DoublePrice> prices = AppleData.rowsAs(DoublePrice::ofJson)
+                .sorted(Comparator.comparing(DoublePrice::getDate))
+                .collect(toList());
+        
+        assert prices.size() == ROWS;
+        
+        dates = new short[ROWS];
+        values = new double[ROWS];
+        
+        for (int i = 0; i < ROWS; ++i) {
+            dates[i] = LocalDates.toShort(prices.get(i).getDate());
+            values[i] = prices.get(i).getAdjClose();
+        }
+        
+        target = ByteBuffer.allocateDirect(GorillaCodec.maxBytes(ROWS));
+        encoded = ByteBuffer.allocateDirect(GorillaCodec.maxBytes(ROWS));
+        
+        encode(encoded);
+        encoded.flip();
+    }
+    
+    
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int encode() {
+        target.clear();
+        return encode(target);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public double decode() {
+        encoded.rewind();
+        
+        GorillaCodec.Decoder d = GorillaCodec.decoder(encoded);
+        
+        double sum = 0;
+        
+        while (d.next()) {
+            sum += d.value();
+        }
+        
+        return sum;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public double sumArray() {
+        double sum = 0;
+        
+        for (double v : values) {
+            sum += v;
+        }
+        
+        return sum;
+    }
+    
+    
+    
+    private int encode(ByteBuffer buffer) {
+        GorillaCodec.Encoder e = GorillaCodec.encoder(buffer);
+        
+        for (int i = 0; i < ROWS; ++i) {
+            e.add(dates[i], values[i]);
+        }
+        
+        return e.finish();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.martinandersson.money.benchmark;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.profile.ProfilerResult;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+
+/**
+ * Will log the off-heap memory used by buffers, after each iteration.<p>
+ * 
+ * For each buffer pool, "mem.[pool].used" and "mem.[pool].count" is reported:
+ * memory used by, and number of, buffers in the pool at the end of the
+ * iteration. The JVM has a pool "direct" for direct {@code ByteBuffer}s and a
+ * pool "mapped" for memory-mapped files. The max of all iterations is
+ * reported.<p>
+ * 
+ * Allocation and garbage collection is not reported by this profiler, JMH's
+ * {@code GCProfiler} already does that ("gc.alloc.rate.norm", "gc.count" and
+ * "gc.time"). {@link StartJmh} add both profilers.<p>
+ * 
+ * The buffer pools only know about memory allocated through the JDK's {@code
+ * ByteBuffer} API. Off-heap memory allocated by other means, such as {@code
+ * sun.misc.Unsafe} or native code, is not visible.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class MemoryProfiler implements InternalProfiler
+{
+    private final List<BufferPoolMXBean> pools
+            = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getDescription() {
+        return "Buffer pool profiling";
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void beforeIteration(BenchmarkParams bmParams, IterationParams iParams) {
+        // Nothing to do, the pools are read after the iteration
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<? extends Result<?>> afterIteration(
+            BenchmarkParams bmParams,
+            IterationParams iParams,
+            IterationResult result)
+    {
+        List<ProfilerResult> results = new ArrayList<>();
+        
+        for (BufferPoolMXBean pool : pools) {
+            final String label = "mem." + toLabel(pool.getName());
+            
+            results.add(new ProfilerResult(
+                    label + ".used",
+                    pool.getMemoryUsed() / 1024. / 1024.,
+                    "MB",
+                    AggregationPolicy.MAX));
+            
+            results.add(new ProfilerResult(
+                    label + ".count",
+                    pool.getCount(),
+                    "buffers",
+                    AggregationPolicy.MAX));
+        }
+        
+        return results;
+    }
+    
+    
+    
+    /**
+     * Turn a buffer pool name into something that look good in a JMH label.
+     * For example "mapped - 'non-volatile memory'" become
+     * "mapped_non_volatile_memory".
+     */
+    private static String toLabel(String poolName) {
+        return poolName.toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", "_")
+                .replaceAll("^_|_$", "");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.martinandersson.money.benchmark;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.MonetaHack;
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.offheap.PriceCursor;
+import com.martinandersson.money.lib.offheap.PriceStore;
+import com.martinandersson.money.lib.series.PriceSeries;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static java.util.stream.Collectors.toList;
+import org.javamoney.moneta.FastMoney;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Sum the adjusted close of all 8 961 rows in {@code AppleData}, using
+ * different stores.<p>
+ * 
+ * <ul>
+ *   <li>{@link #flyweight()} walk a {@code PriceStore} using one {@code
+ *       PriceCursor}</li>
+ *   <li>{@link #list()} iterate a {@code List<FastMoneyPrice>}, reading the
+ *       scaled long out of each {@code FastMoney} using {@code MonetaHack}</li>
+ *   <li>{@link #series()} is {@code PriceSeries.sum()}, a linear walk over a
+ *       {@code long[]} which ought to be the upper bound</li>
+ * </ul>
+ * 
+ * All benchmarks compute the same sum. The list has to chase two references
+ * per price (price to {@code FastMoney} to field) and the prices are objects
+ * scattered on the heap. The flyweight and the series read contiguous memory.
+ * Please run with the GC profiler; neither the flyweight nor the list should
+ * allocate, the difference is in where the prices live.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OffHeapPriceBenchmark
+{
+    private PriceStore store;
+    
+    private PriceCursor cursor;
+    
+    private List<FastMoneyPrice> list;
+    
+    private PriceSeries series;
+    
+    
+    
+    @Setup
+    public void createStores() {
+        store = PriceStore.create(AppleData.count());
+        AppleData.stream(store);
+        cursor = store.cursor();
+        
+        list = AppleData.rowsAs(FastMoneyPrice::ofJson).collect(toList());
+        
+        series = AppleData.series();
+    }
+    
+    
+    
+    @Benchmark
+    public long flyweight() {
+        final PriceCursor c = cursor.reset();
+        
+        long sum = 0;
+        
+        while (c.next()) {
+            sum += c.getScaledAdjClose();
+        }
+        
+        return sum;
+    }
+    
+    @Benchmark
+    public long list() {
+        long sum = 0;
+        
+        for (FastMoneyPrice p : list) {
+            sum += MonetaHack.getNumber((FastMoney) p.getAdjClose());
+        }
+        
+        return sum;
+    }
+    
+    @Benchmark
+    public long series() {
+        return series.sum();
+    }
+}
\ No newline at end of file
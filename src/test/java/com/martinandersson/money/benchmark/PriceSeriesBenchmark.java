@@ -0,0 +1,193 @@
+package com.martinandersson.money.benchmark;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.chroniclemap.ChronicleMapMarshaller;
+import com.martinandersson.money.lib.chroniclemap.NavigableChronicleMap;
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.series.PriceSeries;
+import com.martinandersson.money.lib.serializer.SerializationFramework;
+import java.time.LocalDate;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import net.openhft.chronicle.map.ChronicleMap;
+import net.openhft.chronicle.map.ChronicleMapBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares point lookups and range scans of a {@code PriceSeries} with a
+ * {@code NavigableMap<LocalDate, FastMoneyPrice>} and a {@code
+ * ChronicleMap<LocalDate, FastMoneyPrice>}.<p>
+ * 
+ * All three stores hold the 8 961 rows of {@code AppleData}.<p>
+ * 
+ * A point lookup query one date known to be present in the store. The dates
+ * are visited using a prime stride so that consecutive invocations do not touch
+ * neighbouring data.<p>
+ * 
+ * A range scan read one calendar year of prices, or about {@value #WINDOW}
+ * trading days. The series and the {@code NavigableMap} can slice the range
+ * directly. Chronicle Map has no ordering of keys and must be probed for each
+ * calendar day in the range, weekends and holidays included. This is exactly
+ * the problem a client of Chronicle Map face when asking for a date range.
+ * {@link NavigableChronicleMap} wrap the same Chronicle Map with a sorted index
+ * of the keys and only fetch dates known to be present.<p>
+ * 
+ * The Chronicle Map is in-memory and use {@link
+ * SerializationFramework#KRYO_CUSTOM} which is the fastest of the frameworks
+ * according to {@link ChronicleMapRealBenchmark}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PriceSeriesBenchmark
+{
+    /**
+     * Approximate number of prices read by range scans.
+     */
+    public static final int WINDOW = 252;
+    
+    private static final int STRIDE = 7919;
+    
+    
+    
+    private PriceSeries series;
+    
+    private NavigableMap<LocalDate, FastMoneyPrice> treeMap;
+    
+    private ChronicleMap<LocalDate, FastMoneyPrice> chronicleMap;
+    
+    private NavigableChronicleMap<FastMoneyPrice> navigableChronicleMap;
+    
+    private LocalDate[] dates;
+    
+    private int next;
+    
+    
+    
+    @Setup
+    public void createStores() {
+        series = AppleData.series();
+        
+        treeMap = new TreeMap<>();
+        AppleData.rowsAs(FastMoneyPrice::ofJson)
+                .forEach(p -> treeMap.put(p.getDate(), p));
+        
+        ChronicleMapMarshaller<LocalDate> keyMarshaller
+                = new ChronicleMapMarshaller<>(SerializationFramework.KRYO_CUSTOM);
+        
+        @SuppressWarnings("unchecked")
+        ChronicleMapMarshaller<FastMoneyPrice> valueMarshaller
+                = (ChronicleMapMarshaller<FastMoneyPrice>) (ChronicleMapMarshaller) keyMarshaller;
+        
+        chronicleMap = ChronicleMapBuilder.of(LocalDate.class, FastMoneyPrice.class)
+                .keyMarshaller(keyMarshaller)
+                .valueMarshaller(valueMarshaller)
+                .constantKeySizeBySample(LocalDate.now())
+                .averageValue(FastMoneyPrice.EXACT_SIZE)
+                .entries(AppleData.count())
+                .create();
+        
+        chronicleMap.putAll(treeMap);
+        navigableChronicleMap = new NavigableChronicleMap<>(chronicleMap);
+        
+        dates = treeMap.keySet().toArray(new LocalDate[0]);
+        
+        assert dates.length == series.size();
+        assert dates.length > WINDOW;
+    }
+    
+    @TearDown
+    public void closeMap() {
+        chronicleMap.close();
+    }
+    
+    
+    
+    @Benchmark
+    public long lookup_series() {
+        PriceSeries s = series;
+        return s.amountAt(s.indexOf(nextDate()));
+    }
+    
+    @Benchmark
+    public Object lookup_treeMap() {
+        return treeMap.get(nextDate()).getAdjClose();
+    }
+    
+    @Benchmark
+    public Object lookup_chronicleMap() {
+        return chronicleMap.get(nextDate()).getAdjClose();
+    }
+    
+    @Benchmark
+    public void range_series(Blackhole hole) {
+        LocalDate from = nextRangeStart();
+        
+        PriceSeries range = series.subSeries(from, from.plusYears(1));
+        
+        for (int i = 0, n = range.size(); i < n; ++i) {
+            hole.consume(range.amountAt(i));
+        }
+    }
+    
+    @Benchmark
+    public void range_treeMap(Blackhole hole) {
+        LocalDate from = nextRangeStart();
+        
+        for (FastMoneyPrice p : treeMap.subMap(from, true, from.plusYears(1), true).values()) {
+            hole.consume(p.getAdjClose());
+        }
+    }
+    
+    @Benchmark
+    public void range_chronicleMap(Blackhole hole) {
+        LocalDate from = nextRangeStart(),
+                  to   = from.plusYears(1);
+        
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            FastMoneyPrice p = chronicleMap.get(d);
+            
+            if (p != null) {
+                hole.consume(p.getAdjClose());
+            }
+        }
+    }
+    
+    @Benchmark
+    public void range_navigableChronicleMap(Blackhole hole) {
+        LocalDate from = nextRangeStart();
+        
+        navigableChronicleMap.forEach(from, from.plusYears(1),
+                (date, p) -> hole.consume(p.getAdjClose()));
+    }
+    
+    
+    
+    private LocalDate nextDate() {
+        int i = next;
+        next = (i + STRIDE) % dates.length;
+        return dates[i];
+    }
+    
+    /**
+     * Returns a date followed by at least {@value #WINDOW} prices.
+     * 
+     * @return a date followed by at least {@value #WINDOW} prices
+     */
+    private LocalDate nextRangeStart() {
+        int i = next % (dates.length - WINDOW);
+        next = (i + STRIDE) % (dates.length - WINDOW);
+        return dates[i];
+    }
+}
\ No newline at end of file
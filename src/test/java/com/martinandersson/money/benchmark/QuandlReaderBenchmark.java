@@ -0,0 +1,99 @@
+package com.martinandersson.money.benchmark;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.QuandlReader;
+import com.martinandersson.money.lib.series.PriceConsumer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the tree-based loading of a Quandl document with the streaming
+ * loading, both provided by {@link QuandlReader}.<p>
+ * 
+ * The document is the one used by {@code AppleData}. The file is read into
+ * memory once during setup so that disk I/O is not part of the
+ * measurement.<p>
+ * 
+ * Each invocation read all {@value #ROWS} rows and JMH is told so using {@code
+ * OperationsPerInvocation}. Hence, the throughput reported is rows per second.
+ * Normalized allocation rate reported by the GC profiler ("gc.alloc.rate.norm")
+ * is bytes allocated per row.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class QuandlReaderBenchmark
+{
+    /**
+     * Number of rows in {@code AppleData}.
+     */
+    public static final int ROWS = 8961;
+    
+    
+    
+    private byte[] document;
+    
+    
+    
+    @Setup
+    public void readFile() throws IOException {
+        document = Files.readAllBytes(AppleData.file());
+        
+        assert AppleData.count() == ROWS;
+    }
+    
+    
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int tree(Blackhole hole) {
+        try (Reader r = reader()) {
+            return QuandlReader.tree(r, consumer(hole));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int stream(Blackhole hole) {
+        try (Reader r = reader()) {
+            return QuandlReader.stream(r, consumer(hole));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    
+    
+    private Reader reader() {
+        return new InputStreamReader(
+                new ByteArrayInputStream(document), StandardCharsets.UTF_8);
+    }
+    
+    private static PriceConsumer consumer(Blackhole hole) {
+        return (date, amount) -> {
+            hole.consume(date);
+            hole.consume(amount);
+        };
+    }
+}
\ No newline at end of file
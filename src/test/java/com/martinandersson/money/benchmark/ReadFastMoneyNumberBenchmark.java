@@ -1,5 +1,8 @@
 package com.martinandersson.money.benchmark;
 
+import com.martinandersson.money.lib.MonetaHack;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.util.concurrent.TimeUnit;
@@ -20,7 +23,15 @@ import org.openjdk.jmh.annotations.State;
  * It can be done using public API, or, Java reflection. Question is, which
  * approach is the fastest?<p>
  * 
- * Fastest on author's machine was reflection (API was almost 4.5 times slower).
+ * Fastest on author's machine was reflection (API was almost 4.5 times slower).<p>
+ * 
+ * A third alternative is a {@code MethodHandle}. {@link #methodhandle()
+ * methodhandle()} use a handle stored in a {@code static final} field, which
+ * the JIT treat as a constant and may inline completely. {@link
+ * #methodhandle_instance() methodhandle_instance()} use the same handle stored
+ * in an instance field, which the JIT can not trust to be constant. {@link
+ * #monetaHack() monetaHack()} use whatever backend {@code MonetaHack} was
+ * configured with.
  * 
  * @author Martin Andersson (webmaster at martinandersson.com)
  */
@@ -29,8 +40,23 @@ import org.openjdk.jmh.annotations.State;
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
 public class ReadFastMoneyNumberBenchmark
 {
+    private static final MethodHandle FastMoney$number$MH;
+    
+    static {
+        try {
+            Field f = FastMoney.class.getDeclaredField("number");
+            f.setAccessible(true);
+            FastMoney$number$MH = MethodHandles.lookup().unreflectGetter(f);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+    
     private Field FastMoney$number;
     
+    private MethodHandle FastMoney$number$mh;
+    
     private FastMoney money;
     
     
@@ -49,6 +75,8 @@ public class ReadFastMoneyNumberBenchmark
         
         FastMoney$number = FastMoney.class.getDeclaredField("number");
         FastMoney$number.setAccessible(true);
+        
+        FastMoney$number$mh = FastMoney$number$MH;
     }
     
     
@@ -68,4 +96,19 @@ public class ReadFastMoneyNumberBenchmark
     public long reflection() throws ReflectiveOperationException {
         return FastMoney$number.getLong(money);
     }
+    
+    @Benchmark
+    public long methodhandle() throws Throwable {
+        return (long) FastMoney$number$MH.invokeExact(money);
+    }
+    
+    @Benchmark
+    public long methodhandle_instance() throws Throwable {
+        return (long) FastMoney$number$mh.invokeExact(money);
+    }
+    
+    @Benchmark
+    public long monetaHack() {
+        return MonetaHack.getNumber(money);
+    }
 }
\ No newline at end of file
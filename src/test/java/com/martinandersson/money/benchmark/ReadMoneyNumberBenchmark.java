@@ -1,5 +1,8 @@
 package com.martinandersson.money.benchmark;
 
+import com.martinandersson.money.lib.MonetaHack;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.util.concurrent.TimeUnit;
@@ -20,7 +23,13 @@ import org.openjdk.jmh.annotations.State;
  * It can be done using public API, or, Java reflection. Question is, which
  * approach is the fastest?<p>
  * 
- * Fastest on author's machine was reflection (API was almost 4 times slower).
+ * Fastest on author's machine was reflection (API was almost 4 times slower).<p>
+ * 
+ * {@link #methodhandle() methodhandle()} read the field using a {@code
+ * MethodHandle} stored in a {@code static final} field. {@link #monetaHack()
+ * monetaHack()} use whatever backend {@code MonetaHack} was configured with.
+ * 
+ * @see ReadFastMoneyNumberBenchmark
  * 
  * @author Martin Andersson (webmaster at martinandersson.com)
  */
@@ -29,6 +38,19 @@ import org.openjdk.jmh.annotations.State;
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
 public class ReadMoneyNumberBenchmark
 {
+    private static final MethodHandle Money$number$MH;
+    
+    static {
+        try {
+            Field f = Money.class.getDeclaredField("number");
+            f.setAccessible(true);
+            Money$number$MH = MethodHandles.lookup().unreflectGetter(f);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+    
     private Field Money$number;
     
     private Money money;
@@ -60,4 +82,14 @@ public class ReadMoneyNumberBenchmark
     public BigDecimal reflection() throws ReflectiveOperationException {
         return (BigDecimal) Money$number.get(money);
     }
+    
+    @Benchmark
+    public BigDecimal methodhandle() throws Throwable {
+        return (BigDecimal) Money$number$MH.invokeExact(money);
+    }
+    
+    @Benchmark
+    public BigDecimal monetaHack() {
+        return MonetaHack.getNumber(money);
+    }
 }
\ No newline at end of file
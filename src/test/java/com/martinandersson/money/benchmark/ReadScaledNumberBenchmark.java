@@ -0,0 +1,127 @@
+package com.martinandersson.money.benchmark;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.Numbers;
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import static com.martinandersson.money.lib.model.FastMoneyPrice.MAX_SCALE;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.json.JsonNumber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The FastMoney-based models do not need a {@code BigDecimal}, they need a
+ * long scaled {@value
+ * com.martinandersson.money.lib.model.FastMoneyPrice#MAX_SCALE} decimal places
+ * to the right.<p>
+ * 
+ * Benchmarks prefixed "scaled" compare going through {@code bigDecimalValue()}
+ * of a {@code JsonNumber} with parsing the number's text using {@link
+ * Numbers#parseScaled(CharSequence, int)}. Benchmarks prefixed
+ * "fastMoneyPrice" do the same, but go all the way to a {@code
+ * FastMoneyPrice}.<p>
+ * 
+ * All benchmarks cycle through the adjusted closing prices of {@code
+ * AppleData}. The bytes allocated per operation is reported by the GC profiler
+ * that {@link StartJmh} add ("gc.alloc.rate.norm").<p>
+ * 
+ * How to get hold of the numeric value of any {@code JsonNumber} is profiled
+ * by {@link ReadJsonNumberBenchmark}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReadScaledNumberBenchmark
+{
+    private static final LocalDate DATE = LocalDate.of(2010, 1, 1);
+    
+    
+    
+    private JsonNumber[] numbers;
+    
+    /** The text each number was parsed from. */
+    private String[] texts;
+    
+    private int next;
+    
+    
+    
+    @Setup
+    public void init() {
+        numbers = AppleData.numbers().toArray(JsonNumber[]::new);
+        
+        texts = Stream.of(numbers)
+                .map(JsonNumber::toString)
+                .toArray(String[]::new);
+    }
+    
+    
+    
+    /**
+     * Turns an Apple price into the scaled long that {@code FastMoney} store
+     * internally, going through {@code bigDecimalValue()}.<p>
+     * 
+     * This is what all FastMoney-based models do in their {@code ofJson()}
+     * factory.
+     * 
+     * @return the scaled long
+     */
+    @Benchmark
+    public long scaled_bigdecimal() {
+        JsonNumber n = numbers[next()];
+        return Numbers.toScaled(n.bigDecimalValue(), MAX_SCALE);
+    }
+    
+    /**
+     * Turns an Apple price into the scaled long that {@code FastMoney} store
+     * internally, parsing the text without creating a {@code BigDecimal}.<p>
+     * 
+     * Text is what a streaming {@code JsonParser} hand out (see {@code
+     * QuandlReader}).
+     * 
+     * @return the scaled long
+     */
+    @Benchmark
+    public long scaled_text() {
+        return Numbers.parseScaled(texts[next()], MAX_SCALE);
+    }
+    
+    /**
+     * Same as {@link #scaled_bigdecimal() scaled_bigdecimal()}, but goes all
+     * the way to a {@code FastMoneyPrice}.
+     * 
+     * @return a {@code FastMoneyPrice}
+     */
+    @Benchmark
+    public FastMoneyPrice fastMoneyPrice_ofJson() {
+        return FastMoneyPrice.ofJson(DATE, numbers[next()]);
+    }
+    
+    /**
+     * Same as {@link #scaled_text() scaled_text()}, but goes all the way to a
+     * {@code FastMoneyPrice}.
+     * 
+     * @return a {@code FastMoneyPrice}
+     */
+    @Benchmark
+    public FastMoneyPrice fastMoneyPrice_ofText() {
+        return FastMoneyPrice.ofText(DATE, texts[next()]);
+    }
+    
+    
+    
+    private int next() {
+        int i = next;
+        next = i + 1 == numbers.length ? 0 : i + 1;
+        return i;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,267 @@
+package com.martinandersson.money.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import static java.util.stream.Collectors.joining;
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.util.ListStatistics;
+import org.openjdk.jmh.util.Statistics;
+
+/**
+ * Compare the results of a JMH run with the results of a previous run (the
+ * "baseline"), and flag benchmarks that regressed.<p>
+ * 
+ * The baseline is a result file written by JMH in JSON format, for example by
+ * a previous run of {@link StartJmh} using system property {@link
+ * com.martinandersson.money.lib.SystemProperties#BENCHMARK_RESULT}.
+ * Benchmarks are matched by name, mode and parameters.<p>
+ * 
+ * A benchmark has regressed if both of these are true:
+ * 
+ * <ol>
+ *   <li>The score got worse by more than the tolerance, for example 0.1 =
+ *       10%. Worse is higher for time modes and lower for throughput.</li>
+ *   <li>The confidence intervals of the two scores do not overlap, i.e. the
+ *       change is not just noise.</li>
+ * </ol>
+ * 
+ * The confidence interval is computed from the raw measurements at the
+ * configured confidence level. If the baseline has no raw measurements (mode
+ * {@code SampleTime} write a histogram), then the interval JMH wrote is used,
+ * which is at 99.9%. If there are too few measurements to compute an interval,
+ * then the interval is the score itself.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public final class RegressionGate
+{
+    private final Map<String, Score> baseline;
+    
+    private final double tolerance,
+                         confidence;
+    
+    /**
+     * Construct a new {@code RegressionGate}.
+     * 
+     * @param baselineFile  JMH result file in JSON format
+     * @param tolerance     how much worse a score may get, for example 0.2 = 20%
+     * @param confidence    confidence level of the intervals, for example 0.999
+     * 
+     * @throws IllegalArgumentException if {@code tolerance} is negative, or if
+     *         {@code confidence} is not between 0 and 1 (exclusive)
+     * @throws UncheckedIOException if the file can not be read
+     */
+    public RegressionGate(Path baselineFile, double tolerance, double confidence) {
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("Negative tolerance: " + tolerance);
+        }
+        
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("Confidence out of range: " + confidence);
+        }
+        
+        this.tolerance = tolerance;
+        this.confidence = confidence;
+        this.baseline = readBaseline(baselineFile);
+    }
+    
+    
+    
+    /**
+     * Compare the specified {@code results} with the baseline and print one
+     * line per benchmark to the specified {@code out}.
+     * 
+     * @param results  results of the current run
+     * @param out      where to print the comparison
+     * 
+     * @return number of benchmarks that regressed
+     */
+    public int check(Collection<RunResult> results, PrintStream out) {
+        int regressions = 0;
+        
+        for (RunResult r : results) {
+            final String key = key(r.getParams());
+            final Score now = toScore(r.getPrimaryResult()),
+                        then = baseline.get(key);
+            
+            if (then == null) {
+                out.println("NEW         " + key + ": " + now);
+                continue;
+            }
+            
+            if (!now.unit.equals(then.unit)) {
+                out.println("SKIPPED     " + key + ": unit changed from " + then.unit + " to " + now.unit);
+                continue;
+            }
+            
+            final double change = (now.score - then.score) / then.score;
+            final boolean higherIsBetter = r.getParams().getMode() == Mode.Throughput;
+            
+            final double worse = higherIsBetter ? -change : change;
+            final boolean significant = higherIsBetter ?
+                    now.high < then.low :
+                    now.low > then.high;
+            
+            final String label;
+            
+            if (worse > tolerance && significant) {
+                label = "REGRESSION  ";
+                ++regressions;
+            }
+            else {
+                label = "OK          ";
+            }
+            
+            out.printf("%s%s: %s -> %s (%+.1f%%)%n", label, key, then, now, change * 100);
+        }
+        
+        return regressions;
+    }
+    
+    
+    
+    /*
+     *  --------------
+     * | INTERNAL API |
+     *  --------------
+     */
+    
+    private static String key(BenchmarkParams params) {
+        SortedMap<String, String> p = new TreeMap<>();
+        
+        for (String k : params.getParamsKeys()) {
+            p.put(k, params.getParam(k));
+        }
+        
+        return key(params.getBenchmark(), params.getMode().shortLabel(), p);
+    }
+    
+    private static String key(String benchmark, String mode, SortedMap<String, String> params) {
+        String k = benchmark + " " + mode;
+        
+        if (!params.isEmpty()) {
+            k += params.entrySet().stream()
+                    .map(e -> e.getKey() + "=" + e.getValue())
+                    .collect(joining(", ", " (", ")"));
+        }
+        
+        return k;
+    }
+    
+    private Score toScore(Result<?> result) {
+        final double score = result.getScore();
+        final Statistics stats = result.getStatistics();
+        
+        return new Score(score, result.getScoreUnit(),
+                stats.getN() > 2 ? stats.getConfidenceIntervalAt(confidence) : null);
+    }
+    
+    private Map<String, Score> readBaseline(Path file) {
+        final JsonArray root;
+        
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             JsonReader json = Json.createReader(reader))
+        {
+            root = json.readArray();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        final Map<String, Score> scores = new HashMap<>();
+        
+        for (JsonObject b : root.getValuesAs(JsonObject.class)) {
+            final SortedMap<String, String> params = new TreeMap<>();
+            final JsonObject p = b.getJsonObject("params");
+            
+            if (p != null) {
+                p.keySet().forEach(k -> params.put(k, p.getString(k)));
+            }
+            
+            final String key = key(b.getString("benchmark"), b.getString("mode"), params);
+            scores.put(key, toScore(b.getJsonObject("primaryMetric")));
+        }
+        
+        return scores;
+    }
+    
+    private Score toScore(JsonObject metric) {
+        final double score = metric.getJsonNumber("score").doubleValue();
+        final String unit = metric.getString("scoreUnit");
+        
+        final JsonArray raw = metric.getJsonArray("rawData");
+        
+        if (raw != null) {
+            ListStatistics stats = new ListStatistics();
+            
+            for (JsonArray fork : raw.getValuesAs(JsonArray.class)) {
+                for (JsonNumber n : fork.getValuesAs(JsonNumber.class)) {
+                    stats.addValue(n.doubleValue());
+                }
+            }
+            
+            if (stats.getN() > 2) {
+                return new Score(score, unit, stats.getConfidenceIntervalAt(confidence));
+            }
+        }
+        
+        final JsonArray ci = metric.getJsonArray("scoreConfidence");
+        
+        if (ci != null && ci.size() == 2 &&
+                ci.get(0).getValueType() == JsonValue.ValueType.NUMBER &&
+                ci.get(1).getValueType() == JsonValue.ValueType.NUMBER)
+        {
+            return new Score(score, unit, new double[]{
+                ci.getJsonNumber(0).doubleValue(),
+                ci.getJsonNumber(1).doubleValue() });
+        }
+        
+        return new Score(score, unit, null);
+    }
+    
+    private static final class Score
+    {
+        final double score,
+                     low,
+                     high;
+        
+        final String unit;
+        
+        Score(double score, String unit, double[] interval) {
+            this.score = score;
+            this.unit = unit;
+            
+            if (interval == null || Double.isNaN(interval[0]) || Double.isNaN(interval[1])) {
+                low = high = score;
+            }
+            else {
+                low = interval[0];
+                high = interval[1];
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%.3f [%.3f, %.3f] %s", score, low, high, unit);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.martinandersson.money.benchmark;
+
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.serializer.SerializationFramework;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Serialize and deserialize one {@code FastMoneyPrice} using each {@code
+ * SerializationFramework}, to/from a {@code byte[]} and to/from a stream.<p>
+ * 
+ * Time is reported, but the interesting number is "gc.alloc.rate.norm"
+ * reported by the GC profiler ({@code StartJmh} add it); the bytes allocated
+ * per operation. The streams used are created once and reset before each
+ * invocation, so what is allocated is allocated by the serializer. Ideally,
+ * that is the returned {@code byte[]} or the deserialized price and nothing
+ * else.<p>
+ * 
+ * Kryo and FST reuse their buffers per thread. To see what that buys, run this
+ * benchmark against a revision before the buffers were pooled and compare.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see SerializationFramework
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializerAllocationBenchmark
+{
+    @Param
+    private SerializationFramework serializer;
+    
+    private FastMoneyPrice price;
+    
+    private ByteArrayOutputStream sink;
+    
+    private ByteArrayInputStream source;
+    
+    private byte[] bytes;
+    
+    
+    
+    @Setup
+    public void serializeOnce() {
+        price = FastMoneyPrice.EXACT_SIZE;
+        bytes = serializer.serialize(price);
+        
+        sink = new ByteArrayOutputStream(bytes.length);
+        
+        // Serialized to stream is not necessarily the same as to byte[]:
+        serializer.serialize(price, sink);
+        source = new ByteArrayInputStream(sink.toByteArray());
+    }
+    
+    
+    
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(price);
+    }
+    
+    @Benchmark
+    public int serializeToStream() {
+        sink.reset();
+        serializer.serialize(price, sink);
+        return sink.size();
+    }
+    
+    @Benchmark
+    public FastMoneyPrice deserialize() {
+        return serializer.deserialize(bytes);
+    }
+    
+    @Benchmark
+    public FastMoneyPrice deserializeFromStream() {
+        source.reset();
+        return serializer.deserialize(source);
+    }
+}
\ No newline at end of file
@@ -2,8 +2,14 @@ package com.martinandersson.money.benchmark;
 
 import com.martinandersson.money.lib.SystemProperties;
 import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Locale;
 import java.util.regex.Pattern;
 import static java.util.stream.Collectors.joining;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
@@ -12,13 +18,26 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 /**
  * Application entry point for JMH benchmarks.<p>
  * 
- * Two system properties are read/used by this class:
+ * These system properties are read/used by this class:
  * <ol>
  *   <li>{@link SystemProperties#BENCHMARK_REGEX}</li>
  *   <li>{@link SystemProperties#BENCHMARK_FILE}</li>
+ *   <li>{@link SystemProperties#BENCHMARK_THREADS}</li>
+ *   <li>{@link SystemProperties#BENCHMARK_RESULT}</li>
+ *   <li>{@link SystemProperties#BENCHMARK_BASELINE}</li>
+ *   <li>{@link SystemProperties#BENCHMARK_TOLERANCE}</li>
+ *   <li>{@link SystemProperties#BENCHMARK_CONFIDENCE}</li>
  * </ol>
  * 
- * Number of JMH forks used is 1.
+ * Number of JMH forks used is 1.<p>
+ * 
+ * JMH's {@code GCProfiler} is added to all benchmarks, which report the amount
+ * of bytes allocated per operation ("gc.alloc.rate.norm") and the garbage
+ * collections. So is {@link MemoryProfiler}, which report the off-heap memory
+ * used by direct and memory-mapped buffers.<p>
+ * 
+ * If a baseline is provided and one or more benchmarks regressed, then the JVM
+ * exit with status code 1.
  * 
  * @author Martin Andersson (webmaster at martinandersson.com)
  */
@@ -30,7 +49,8 @@ public class StartJmh
         ChainedOptionsBuilder b = new OptionsBuilder()
                 .include(getRegex())
                 .forks(1)
-                .addProfiler(MemoryUsageProfiler.class)
+                .addProfiler(MemoryProfiler.class)
+                .addProfiler(GCProfiler.class)
                 .jvmArgsAppend("-ea");
         
         String file = SystemProperties.BENCHMARK_FILE.get();
@@ -42,7 +62,73 @@ public class StartJmh
                     Paths.get(file).toAbsolutePath());
         }
         
-        new Runner(b.build()).run();
+        String threads = SystemProperties.BENCHMARK_THREADS.get();
+        
+        if (threads != null) {
+            b.threads(threads.equalsIgnoreCase("max") ?
+                    Threads.MAX :
+                    Integer.parseInt(threads));
+        }
+        
+        String result = SystemProperties.BENCHMARK_RESULT.get();
+        
+        if (result != null) {
+            b.result(result).resultFormat(getResultFormat(result));
+            
+            System.out.println("Writing machine-readable results to file: " +
+                    Paths.get(result).toAbsolutePath());
+        }
+        
+        // Read the baseline before running, no point benchmarking for an hour if it is broken:
+        RegressionGate gate = getRegressionGate();
+        
+        Collection<RunResult> results = new Runner(b.build()).run();
+        
+        if (gate != null) {
+            System.out.println();
+            System.out.println("Comparing with baseline:");
+            
+            int regressions = gate.check(results, System.out);
+            
+            if (regressions > 0) {
+                System.out.println(regressions + " benchmark(s) regressed.");
+                System.exit(1);
+            }
+        }
+    }
+    
+    private static ResultFormatType getResultFormat(String file) {
+        String name = file.toLowerCase(Locale.ROOT);
+        
+        if (name.endsWith(".csv")) {
+            return ResultFormatType.CSV;
+        }
+        else if (name.endsWith(".scsv")) {
+            return ResultFormatType.SCSV;
+        }
+        else if (name.endsWith(".txt")) {
+            return ResultFormatType.TEXT;
+        }
+        else if (name.endsWith(".tex")) {
+            return ResultFormatType.LATEX;
+        }
+        
+        return ResultFormatType.JSON;
+    }
+    
+    private static RegressionGate getRegressionGate() {
+        String baseline = SystemProperties.BENCHMARK_BASELINE.get();
+        
+        if (baseline == null) {
+            return null;
+        }
+        
+        String tolerance = SystemProperties.BENCHMARK_TOLERANCE.get(),
+               confidence = SystemProperties.BENCHMARK_CONFIDENCE.get();
+        
+        return new RegressionGate(Paths.get(baseline),
+                tolerance == null ? 0.1 : Double.parseDouble(tolerance),
+                confidence == null ? 0.999 : Double.parseDouble(confidence));
     }
     
     private static String getRegex() {
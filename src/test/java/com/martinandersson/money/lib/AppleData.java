@@ -1,6 +1,10 @@
 package com.martinandersson.money.lib;
 
 import static com.martinandersson.money.lib.model.FastMoneyPrice.MAX_SCALE;
+import com.martinandersson.money.lib.jfr.AppleDataLoadEvent;
+import com.martinandersson.money.lib.model.LongPrice;
+import com.martinandersson.money.lib.series.PriceConsumer;
+import com.martinandersson.money.lib.series.PriceSeries;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.UncheckedIOException;
@@ -40,7 +44,10 @@ import static java.util.stream.Collectors.toMap;
  * but got descending =)<p>
  * 
  * If you don't need "real world data", then consider using {@link
- * NumberFactory} instead.
+ * NumberFactory} instead.<p>
+ * 
+ * Each read of the file emit an {@link AppleDataLoadEvent} for Java Flight
+ * Recorder.
  * 
  * @author Martin Andersson (webmaster at martinandersson.com)
  */
@@ -53,6 +60,8 @@ public final class AppleData
     
     private static BigDecimal AVG;
     
+    private static PriceSeries SERIES;
+    
     
     /**
      * Returns the average adjusted closing price of WIKI/AAPL (in terms of
@@ -107,13 +116,77 @@ public final class AppleData
         return AVG = avg;
     }
     
+    /**
+     * Returns all rows of WIKI/AAPL as a {@code PriceSeries}.<p>
+     * 
+     * The adjusted closing prices are rounded to {@value
+     * com.martinandersson.money.lib.model.FastMoneyPrice#MAX_SCALE} decimal
+     * places using {@code RoundingMode.HALF_EVEN}, just like {@link
+     * LongPrice#ofJson(LocalDate, JsonNumber)}.
+     * 
+     * @implNote
+     * The series is built using {@link #stream(PriceConsumer)}, i.e. no {@code
+     * JsonNumber} is involved.
+     * 
+     * @return all rows of WIKI/AAPL as a {@code PriceSeries}
+     */
+    public static PriceSeries series() {
+        PriceSeries series = SERIES;
+        
+        if (series == null) {
+            PriceSeries.Builder b = PriceSeries.builder(count());
+            stream(b);
+            series = b.build();
+        }
+        
+        return SERIES = series;
+    }
+    
+    /**
+     * Read all rows of WIKI/AAPL from file, using a streaming parser, and feed
+     * them to the specified {@code consumer}.<p>
+     * 
+     * Rows are fed in file order, which is descending date order. Nothing is
+     * cached.
+     * 
+     * @param consumer  row consumer
+     * 
+     * @return number of rows read
+     * 
+     * @see QuandlReader#stream(Reader, PriceConsumer)
+     */
+    public static int stream(PriceConsumer consumer) {
+        AppleDataLoadEvent event = new AppleDataLoadEvent();
+        event.begin();
+        
+        try (Reader reader = Files.newBufferedReader(file(), StandardCharsets.UTF_8)) {
+            final int rows = QuandlReader.stream(reader, consumer);
+            commit(event, "stream", rows);
+            return rows;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Returns the file from which the data is read.
+     * 
+     * @return the file from which the data is read
+     */
+    public static Path file() {
+        String resourceDir = SystemProperties.GRADLE_RESOURCE_DIR.require();
+        return Paths.get(resourceDir, "aapl-data.json");
+    }
+    
     private static final NavigableMap<LocalDate, JsonNumber> PRICES
             = unmodifiableNavigableMap(init());
     
     private static NavigableMap<LocalDate, JsonNumber> init() {
-        String resourceDir = SystemProperties.GRADLE_RESOURCE_DIR.require();
+        AppleDataLoadEvent event = new AppleDataLoadEvent();
+        event.begin();
         
-        return readRoot(Paths.get(resourceDir, "aapl-data.json"))
+        NavigableMap<LocalDate, JsonNumber> prices = readRoot(file())
                 .getJsonObject("dataset")
                 .getJsonArray("data")
                 .stream()
@@ -128,6 +201,9 @@ public final class AppleData
                             throw new AssertionError("I was wrong.");},
                         // NavigableMap supplier:
                         () -> new TreeMap<>()));
+        
+        commit(event, "tree", prices.size());
+        return prices;
     }
     
     
@@ -159,6 +235,22 @@ public final class AppleData
     
     
     
+    private static void commit(AppleDataLoadEvent event, String parser, int rows) {
+        if (event.shouldCommit()) {
+            event.parser = parser;
+            event.rows = rows;
+            
+            try {
+                event.bytes = Files.size(file());
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            
+            event.commit();
+        }
+    }
+    
     private static JsonObject readRoot(Path file) {
         try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
             try (JsonReader json = Json.createReader(reader)) {
@@ -0,0 +1,162 @@
+package com.martinandersson.money.lib;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.money.CurrencyUnit;
+import javax.money.Monetary;
+
+/**
+ * A lock-free cache of {@code CurrencyUnit}s.<p>
+ * 
+ * {@code Monetary.getCurrency(String)} walks through Moneta's chain of currency
+ * providers each time it is called. Deserializing a {@code FastMoney} or a
+ * {@code Money} therefore means a currency lookup per value, even though there
+ * are only a few hundred currencies and most applications use a handful.<p>
+ * 
+ * This class put the result of {@code Monetary.getCurrency()} in a small
+ * open-addressing hash table. The three letters of an ISO 4217 code is packed
+ * into an {@code int} which is the key. A lookup hash the key, and probe
+ * linearly from there. A hit is one volatile read and an {@code int}
+ * comparison; no {@code String.hashCode()}, no {@code String.equals()} and no
+ * locks.<p>
+ * 
+ * On a miss, the currency is resolved using {@code Monetary} and inserted with
+ * a compare-and-set. Entries are never removed nor replaced, so the table only
+ * goes from {@code null} to non-{@code null} slots. Two threads racing to
+ * insert the same currency is harmless; the loser use what the winner
+ * put.<p>
+ * 
+ * Codes that are not made of three letters 'A' to 'Z', and codes that do not
+ * fit in a full table, are not cached but forwarded to {@code Monetary} every
+ * time.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see com.martinandersson.money.benchmark.CurrencyLookupBenchmark
+ */
+public final class Currencies
+{
+    private Currencies() {
+        // Empty
+    }
+    
+    
+    
+    /**
+     * Table size. Must be a power of two. ISO 4217 has less than 200 active
+     * codes, so the table should never be more than 40% full.
+     */
+    private static final int SIZE = 512;
+    
+    private static final AtomicReferenceArray<Entry> TABLE
+            = new AtomicReferenceArray<>(SIZE);
+    
+    
+    
+    /**
+     * Returns the currency unit of the specified {@code currencyCode}.
+     * 
+     * @param currencyCode  currency code, for example "USD"
+     * 
+     * @return the currency unit of the specified {@code currencyCode}
+     * 
+     * @throws javax.money.UnknownCurrencyException
+     *             if the currency code is unknown to {@code Monetary}
+     */
+    public static CurrencyUnit get(String currencyCode) {
+        final int key = pack(currencyCode);
+        
+        if (key == -1) {
+            return Monetary.getCurrency(currencyCode);
+        }
+        
+        int i = index(key);
+        
+        for (int probes = 0; probes < SIZE; ++probes) {
+            Entry e = TABLE.get(i);
+            
+            if (e == null) {
+                Entry created = new Entry(key, Monetary.getCurrency(currencyCode));
+                
+                if (TABLE.compareAndSet(i, null, created)) {
+                    return created.unit;
+                }
+                
+                // Lost the race, look at what the other thread put here:
+                e = TABLE.get(i);
+            }
+            
+            if (e.key == key) {
+                return e.unit;
+            }
+            
+            i = (i + 1) & (SIZE - 1);
+        }
+        
+        // Full. Won't happen with ISO codes.
+        return Monetary.getCurrency(currencyCode);
+    }
+    
+    /**
+     * Returns the number of currencies cached.<p>
+     * 
+     * This method scan the entire table and is meant for tests and
+     * diagnostics.
+     * 
+     * @return the number of currencies cached
+     */
+    public static int size() {
+        int n = 0;
+        
+        for (int i = 0; i < SIZE; ++i) {
+            if (TABLE.get(i) != null) {
+                ++n;
+            }
+        }
+        
+        return n;
+    }
+    
+    
+    
+    /**
+     * Pack a three-letter code into 15 bits, 5 bits per letter.
+     * 
+     * @return the packed code, or -1 if the code is not three letters A-Z
+     */
+    static int pack(String code) {
+        if (code.length() != 3) {
+            return -1;
+        }
+        
+        int key = 0;
+        
+        for (int i = 0; i < 3; ++i) {
+            int c = code.charAt(i) - 'A';
+            
+            if (c < 0 || c > 25) {
+                return -1;
+            }
+            
+            key = (key << 5) | c;
+        }
+        
+        return key;
+    }
+    
+    private static int index(int key) {
+        // Fibonacci hashing, spread the 15 bits over the table.
+        return (key * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(SIZE));
+    }
+    
+    private static final class Entry
+    {
+        final int key;
+        
+        final CurrencyUnit unit;
+        
+        Entry(int key, CurrencyUnit unit) {
+            this.key = key;
+            this.unit = unit;
+        }
+    }
+}
\ No newline at end of file
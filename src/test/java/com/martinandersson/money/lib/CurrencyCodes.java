@@ -0,0 +1,178 @@
+package com.martinandersson.money.lib;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A registry of ISO 4217 currency codes, each given a fixed ordinal.<p>
+ * 
+ * Our custom serializers used to write the currency code of each monetary
+ * amount as a string. That is three characters plus a length, or even a full
+ * {@code String} object in the case of Java's serialization, for every single
+ * value. Given the ordinal, a serializer can instead write one byte for the
+ * major currencies and two bytes for the rest.<p>
+ * 
+ * Ordinal 0 is reserved as an escape: a code that is not in the registry is
+ * written as the ordinal 0 followed by the code as a string. Thus any currency
+ * can still be serialized.<p>
+ * 
+ * The ordinals are persisted. Codes must therefore only ever be appended to
+ * {@link #CODES} - never removed nor reordered.<p>
+ * 
+ * The encoding used by {@link #write(DataOutput, String)} is: if the ordinal
+ * is less than 128, then one byte. Otherwise two bytes, big-endian, with the
+ * high bit of the first byte set. Kryo has its own variable-length
+ * {@code int} which is just as compact and is what {@code KryoSerializers}
+ * use.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public final class CurrencyCodes
+{
+    private CurrencyCodes() {
+        // Empty
+    }
+    
+    
+    
+    /**
+     * Ordinal of an unknown code, meaning the code follows as a string.
+     */
+    public static final int ESCAPE = 0;
+    
+    /**
+     * Codes by ordinal. Index 0 is the escape.<p>
+     * 
+     * Major currencies come first so that they are encoded using one byte.
+     */
+    private static final String[] CODES = {
+            null,
+            "USD", "EUR", "JPY", "GBP", "CHF", "CAD", "AUD", "NZD", "SEK", "NOK",
+            "DKK", "CNY", "HKD", "SGD", "KRW", "INR", "BRL", "MXN", "ZAR", "RUB",
+            "PLN", "TRY",
+            // Rest of ISO 4217 anno 2016, in alphabetical order:
+            "AED", "AFN", "ALL", "AMD", "ANG", "AOA", "ARS", "AWG", "AZN", "BAM",
+            "BBD", "BDT", "BGN", "BHD", "BIF", "BMD", "BND", "BOB", "BOV", "BSD",
+            "BTN", "BWP", "BYN", "BYR", "BZD", "CDF", "CHE", "CHW", "CLF", "CLP",
+            "COP", "COU", "CRC", "CUC", "CUP", "CVE", "CZK", "DJF", "DOP", "DZD",
+            "EGP", "ERN", "ETB", "FJD", "FKP", "GEL", "GHS", "GIP", "GMD", "GNF",
+            "GTQ", "GYD", "HNL", "HRK", "HTG", "HUF", "IDR", "ILS", "IQD", "IRR",
+            "ISK", "JMD", "JOD", "KES", "KGS", "KHR", "KMF", "KPW", "KWD", "KYD",
+            "KZT", "LAK", "LBP", "LKR", "LRD", "LSL", "LYD", "MAD", "MDL", "MGA",
+            "MKD", "MMK", "MNT", "MOP", "MRO", "MUR", "MVR", "MWK", "MXV", "MYR",
+            "MZN", "NAD", "NGN", "NIO", "NPR", "OMR", "PAB", "PEN", "PGK", "PHP",
+            "PKR", "PYG", "QAR", "RON", "RSD", "RWF", "SAR", "SBD", "SCR", "SDG",
+            "SHP", "SLL", "SOS", "SRD", "SSP", "STD", "SVC", "SYP", "SZL", "THB",
+            "TJS", "TMT", "TND", "TOP", "TTD", "TWD", "TZS", "UAH", "UGX", "USN",
+            "UYI", "UYU", "UZS", "VEF", "VND", "VUV", "WST", "XAF", "XAG", "XAU",
+            "XBA", "XBB", "XBC", "XBD", "XCD", "XDR", "XOF", "XPD", "XPF", "XPT",
+            "XSU", "XTS", "XUA", "XXX", "YER", "ZMW", "ZWL"
+    };
+    
+    /**
+     * Ordinals by packed code (see {@code Currencies.pack()}). Codes not in the
+     * registry map to {@link #ESCAPE}.
+     */
+    private static final short[] ORDINALS = new short[1 << 15];
+    
+    static {
+        for (int i = 1; i < CODES.length; ++i) {
+            int key = Currencies.pack(CODES[i]);
+            
+            if (ORDINALS[key] != ESCAPE) {
+                throw new ExceptionInInitializerError("Duplicate: " + CODES[i]);
+            }
+            
+            ORDINALS[key] = (short) i;
+        }
+    }
+    
+    
+    
+    /**
+     * Returns the ordinal of the specified {@code currencyCode}, or {@link
+     * #ESCAPE} if the code is not in the registry.
+     * 
+     * @param currencyCode  currency code, for example "USD"
+     * 
+     * @return the ordinal of the specified {@code currencyCode}
+     */
+    public static int ordinal(String currencyCode) {
+        final int key = Currencies.pack(currencyCode);
+        return key == -1 ? ESCAPE : ORDINALS[key];
+    }
+    
+    /**
+     * Returns the currency code of the specified {@code ordinal}.
+     * 
+     * @param ordinal  ordinal, as returned by {@link #ordinal(String)}
+     * 
+     * @return the currency code of the specified {@code ordinal}
+     * 
+     * @throws IllegalArgumentException
+     *             if {@code ordinal} is {@link #ESCAPE} or unknown
+     */
+    public static String code(int ordinal) {
+        if (ordinal <= ESCAPE || ordinal >= CODES.length) {
+            throw new IllegalArgumentException("No code for ordinal: " + ordinal);
+        }
+        
+        return CODES[ordinal];
+    }
+    
+    /**
+     * Returns the number of codes in the registry.
+     * 
+     * @return the number of codes in the registry
+     */
+    public static int size() {
+        return CODES.length - 1;
+    }
+    
+    /**
+     * Write the specified {@code currencyCode} to the specified {@code out}.
+     * 
+     * @param out           output
+     * @param currencyCode  currency code, for example "USD"
+     * 
+     * @throws IOException  if {@code out} does
+     */
+    public static void write(DataOutput out, String currencyCode) throws IOException {
+        final int ordinal = ordinal(currencyCode);
+        
+        if (ordinal < 0x80) {
+            out.writeByte(ordinal);
+        }
+        else {
+            out.writeByte(0x80 | (ordinal >>> 8));
+            out.writeByte(ordinal);
+        }
+        
+        if (ordinal == ESCAPE) {
+            out.writeUTF(currencyCode);
+        }
+    }
+    
+    /**
+     * Read a currency code written by {@link #write(DataOutput, String)}.<p>
+     * 
+     * Codes in the registry are not allocated, the same {@code String}
+     * instance is returned every time.
+     * 
+     * @param in  input
+     * 
+     * @return the currency code
+     * 
+     * @throws IOException  if {@code in} does
+     */
+    public static String read(DataInput in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        
+        if (ordinal >= 0x80) {
+            ordinal = ((ordinal & 0x7F) << 8) | in.readUnsignedByte();
+        }
+        
+        return ordinal == ESCAPE ? in.readUTF() : code(ordinal);
+    }
+}
\ No newline at end of file
@@ -4,6 +4,8 @@ import java.io.DataOutput;
 import static java.text.MessageFormat.format;
 import java.time.LocalDate;
 import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 
 /**
@@ -61,6 +63,9 @@ public final class LocalDates
     public static final LocalDate MIN = LocalDate.of(1950, Month.JANUARY,   1),
                                   MAX = LocalDate.of(2128, Month.DECEMBER, 31);
     
+    private static final long MIN_EPOCH_DAY = MIN.toEpochDay(),
+                              MAX_EPOCH_DAY = MAX.toEpochDay();
+    
     /**
      * Turn specified {@code date} into a short.<p>
      * 
@@ -93,6 +98,50 @@ public final class LocalDates
         return (short) ((int) Short.MIN_VALUE + unsignedShort);
     }
     
+    /**
+     * Turn specified ISO-8601 {@code text} ("yyyy-MM-dd") into a short.<p>
+     * 
+     * The result is the same as
+     * <pre>{@code
+     *   LocalDates.toShort(LocalDate.parse(text));
+     * }</pre>
+     * 
+     * ..except that no {@code LocalDate}, formatter or parsed-fields object is
+     * created. This method is meant for bulk loading of dates.
+     * 
+     * @param text  text to parse
+     * 
+     * @return date as a short
+     * 
+     * @throws DateTimeParseException    if {@code text} is malformed
+     * @throws IllegalArgumentException  if the date is out of range
+     */
+    public static short parseShort(CharSequence text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            throw new DateTimeParseException("Expected yyyy-MM-dd.", text, 0);
+        }
+        
+        int year  = digits(text, 0, 4),
+            month = digits(text, 5, 7),
+            day   = digits(text, 8, 10);
+        
+        if (month < 1 || month > 12 ||
+            day < 1 || day > Month.of(month).length(Year.isLeap(year)))
+        {
+            throw new DateTimeParseException("Invalid date.", text, 5);
+        }
+        
+        long epochDay = toEpochDay(year, month, day);
+        
+        if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+            throw new IllegalArgumentException(format(
+                    "Totally unacceptable: {0}. Accepted range: {1} .. {2}.",
+                    text, MIN, MAX));
+        }
+        
+        return (short) (Short.MIN_VALUE + (int) (epochDay - MIN_EPOCH_DAY));
+    }
+    
     /**
      * Turn specified {@code val} into a date.
      * 
@@ -107,4 +156,46 @@ public final class LocalDates
         // With order:
         return MIN.plusDays(val - Short.MIN_VALUE);
     }
+    
+    
+    
+    private static int digits(CharSequence text, int from, int to) {
+        int val = 0;
+        
+        for (int i = from; i < to; ++i) {
+            int d = text.charAt(i) - '0';
+            
+            if (d < 0 || d > 9) {
+                throw new DateTimeParseException("Expected a digit.", text, i);
+            }
+            
+            val = val * 10 + d;
+        }
+        
+        return val;
+    }
+    
+    /**
+     * Does what {@code LocalDate.toEpochDay()} does, without the {@code
+     * LocalDate}. Year must be positive.
+     */
+    private static long toEpochDay(int year, int month, int day) {
+        long y = year,
+             m = month,
+             total = 365 * y + (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        
+        total += (367 * m - 362) / 12;
+        total += day - 1;
+        
+        if (m > 2) {
+            --total;
+            
+            if (!Year.isLeap(year)) {
+                --total;
+            }
+        }
+        
+        // Days from 0000-01-01 to 1970-01-01:
+        return total - 719_528;
+    }
 }
\ No newline at end of file
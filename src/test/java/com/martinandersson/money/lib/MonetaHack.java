@@ -1,10 +1,12 @@
 package com.martinandersson.money.lib;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
+import java.util.Locale;
 import javax.money.CurrencyUnit;
-import javax.money.Monetary;
 import org.javamoney.moneta.FastMoney;
 import org.javamoney.moneta.Money;
 
@@ -34,7 +36,11 @@ import org.javamoney.moneta.Money;
  * versus the constructor for {@code Money}, but we did gain a lot using
  * reflection when constructing {@code FastMoney}. Hence, this class export just
  * one method to construct a new {@code FastMoney} but does not offer a method
- * for constructing {@code Money}.
+ * for constructing {@code Money}.<p>
+ * 
+ * How the internals are accessed is decided by the {@link Backend} selected
+ * when this class is initialized, see {@link #BACKEND}. Both backends are
+ * looked up and made accessible regardless of which one is selected.
  * 
  * @author Martin Andersson (webmaster at martinandersson.com)
  */
@@ -51,6 +57,10 @@ public final class MonetaHack
     
     private static final Constructor<FastMoney> CTOR;
     
+    private static final MethodHandle NUMBER_M_MH,
+                                      NUMBER_FM_MH,
+                                      CTOR_MH;
+    
     static {
         try {
             NUMBER_M = Money.class.getDeclaredField("number");
@@ -61,19 +71,73 @@ public final class MonetaHack
             
             CTOR = FastMoney.class.getDeclaredConstructor(long.class, CurrencyUnit.class);
             CTOR.setAccessible(true);
+            
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            
+            NUMBER_M_MH  = lookup.unreflectGetter(NUMBER_M);
+            NUMBER_FM_MH = lookup.unreflectGetter(NUMBER_FM);
+            CTOR_MH      = lookup.unreflectConstructor(CTOR);
         }
-        catch (NoSuchFieldException | NoSuchMethodException e) {
+        catch (NoSuchFieldException | NoSuchMethodException | IllegalAccessException e) {
             throw new RuntimeException(e);
         }
     }
     
+    /**
+     * The backend used by this class.<p>
+     * 
+     * Is selected by system property {@link SystemProperties#MONETA_HACK}, and
+     * defaults to {@link Backend#METHOD_HANDLE}.
+     */
+    public static final Backend BACKEND = Backend.fromSystemProperty();
+    
+    /** Branch on a constant the JIT can fold. */
+    private static final boolean USE_MH = BACKEND == Backend.METHOD_HANDLE;
+    
+    
+    
+    /**
+     * Strategy for accessing the internals of Moneta's types.<p>
+     * 
+     * {@code VarHandle} would have been a third option, but it require Java 9
+     * and this project target Java 8.
+     */
+    public enum Backend
+    {
+        /**
+         * Use {@code Field} and {@code Constructor}.<p>
+         * 
+         * Each call check access, box the arguments/return value (for the
+         * constructor, also wrap them in an array) and may throw checked
+         * exceptions.
+         */
+        REFLECTION,
+        
+        /**
+         * Use {@code MethodHandle}s stored in {@code static final} fields.<p>
+         * 
+         * A constant method handle invoked using {@code invokeExact()} has no
+         * boxing and no access check, and can be inlined by the JIT just like
+         * a normal field access or constructor call.
+         */
+        METHOD_HANDLE;
+        
+        private static Backend fromSystemProperty() {
+            String val = SystemProperties.MONETA_HACK.get();
+            
+            return val == null ?
+                    METHOD_HANDLE :
+                    valueOf(val.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+    
     
     /**
      * Returns the internally stored {@code BigDecimal} of the specified {@code
      * money}.<p>
      * 
      * @implNote
-     * This implementation uses Java reflection.
+     * This implementation uses the selected {@link #BACKEND}.
      * 
      * @param money  which {@code Money} instance to read
      * 
@@ -84,10 +148,12 @@ public final class MonetaHack
      */
     public static BigDecimal getNumber(Money money) {
         try {
-            return (BigDecimal) NUMBER_M.get(money);
+            return USE_MH ?
+                    (BigDecimal) NUMBER_M_MH.invokeExact(money) :
+                    (BigDecimal) NUMBER_M.get(money);
         }
-        catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
+        catch (Throwable t) {
+            throw rethrow(t);
         }
     }
     
@@ -96,7 +162,7 @@ public final class MonetaHack
      * money}.
      * 
      * @implNote
-     * This implementation uses Java reflection.
+     * This implementation uses the selected {@link #BACKEND}.
      * 
      * @param money  which {@code FastMoney} instance to read
      * 
@@ -107,10 +173,12 @@ public final class MonetaHack
      */
     public static long getNumber(FastMoney money) {
         try {
-            return NUMBER_FM.getLong(money);
+            return USE_MH ?
+                    (long) NUMBER_FM_MH.invokeExact(money) :
+                    NUMBER_FM.getLong(money);
         }
-        catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
+        catch (Throwable t) {
+            throw rethrow(t);
         }
     }
     
@@ -118,7 +186,8 @@ public final class MonetaHack
      * Returns a new instance of {@code FastMoney}.
      * 
      * @implNote
-     * This implementation uses Java reflection.
+     * This implementation uses the selected {@link #BACKEND}. The currency unit
+     * is looked up using {@link Currencies}.
      * 
      * @param val           internally stored number
      * @param currencyCode  currency code
@@ -126,11 +195,42 @@ public final class MonetaHack
      * @return a new instance of {@code FastMoney}
      */
     public static FastMoney newFastMoney(long val, String currencyCode) {
+        return newFastMoney(val, Currencies.get(currencyCode));
+    }
+    
+    /**
+     * Returns a new instance of {@code FastMoney}.
+     * 
+     * @implNote
+     * This implementation uses the selected {@link #BACKEND}.
+     * 
+     * @param val       internally stored number
+     * @param currency  currency unit
+     * 
+     * @return a new instance of {@code FastMoney}
+     */
+    public static FastMoney newFastMoney(long val, CurrencyUnit currency) {
         try {
-            return CTOR.newInstance(val, Monetary.getCurrency(currencyCode));
+            return USE_MH ?
+                    (FastMoney) CTOR_MH.invokeExact(val, currency) :
+                    CTOR.newInstance(val, currency);
         }
-        catch (ReflectiveOperationException e) {
-            throw new RuntimeException(e);
+        catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+    
+    
+    
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        
+        if (t instanceof Error) {
+            throw (Error) t;
         }
+        
+        return new RuntimeException(t);
     }
 }
\ No newline at end of file
@@ -24,4 +24,180 @@ public final class Numbers
         return new BigDecimal(value)
                 .setScale(scale, RoundingMode.HALF_UP);
     }
+    
+    /**
+     * Returns the specified {@code value} scaled {@code scale} decimal places
+     * to the right, as a long.<p>
+     * 
+     * If need be, the value is first rounded using {@code
+     * RoundingMode.HALF_EVEN}.
+     * 
+     * @param value  value to scale
+     * @param scale  number of decimal places
+     * 
+     * @return the specified {@code value} scaled {@code scale} decimal places
+     * to the right, as a long
+     * 
+     * @throws ArithmeticException if the result overflows a long
+     * 
+     * @see #parseScaled(CharSequence, int)
+     */
+    public static long toScaled(BigDecimal value, int scale) {
+        if (value.scale() > scale) {
+            value = value.setScale(scale, RoundingMode.HALF_EVEN);
+        }
+        
+        return value.movePointRight(scale).longValueExact();
+    }
+    
+    /**
+     * Parse the specified decimal {@code text} and return the value scaled
+     * {@code scale} decimal places to the right, as a long.<p>
+     * 
+     * The result is the same as
+     * <pre>{@code
+     *   Numbers.toScaled(new BigDecimal(text), scale);
+     * }</pre>
+     * 
+     * ..except that no {@code BigDecimal} (nor any other object) is created
+     * along the way. The text is parsed twice; once to find the integer part,
+     * the fraction part and the exponent, and then once more to accumulate the
+     * digits that fall on the left side of the new decimal point. The first
+     * digit on the right side of the new decimal point and whether or not any
+     * non-zero digit follow, is all that is needed to round using {@code
+     * RoundingMode.HALF_EVEN}.<p>
+     * 
+     * The accepted syntax is that of a JSON number, except that a leading
+     * '+' sign and leading zeros are accepted too. For example: "93.4",
+     * "-0.42428790942135", "1.5E-3".<p>
+     * 
+     * {@code Long.MIN_VALUE} itself can not be produced, the magnitude must fit
+     * in a long.
+     * 
+     * @param text   text to parse
+     * @param scale  number of decimal places (not negative)
+     * 
+     * @return the parsed value scaled {@code scale} decimal places to the
+     * right, as a long
+     * 
+     * @throws NumberFormatException     if {@code text} is malformed
+     * @throws ArithmeticException       if the result overflows a long
+     * @throws IllegalArgumentException  if {@code scale} is negative
+     */
+    public static long parseScaled(CharSequence text, int scale) {
+        if (scale < 0) {
+            throw new IllegalArgumentException("Negative scale: " + scale);
+        }
+        
+        final int len = text.length();
+        int i = 0;
+        
+        boolean negative = false;
+        
+        if (i < len && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i++) == '-';
+        }
+        
+        final int intStart = i;
+        i = skipDigits(text, i);
+        final int intEnd = i;
+        
+        int fracStart = i,
+            fracEnd   = i;
+        
+        if (i < len && text.charAt(i) == '.') {
+            fracStart = ++i;
+            fracEnd = i = skipDigits(text, i);
+        }
+        
+        if (intStart == intEnd && fracStart == fracEnd) {
+            throw malformed(text);
+        }
+        
+        long exp = 0;
+        
+        if (i < len && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            boolean expNegative = false;
+            
+            if (++i < len && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                expNegative = text.charAt(i++) == '-';
+            }
+            
+            final int expStart = i;
+            
+            for (; i < len && isDigit(text.charAt(i)); ++i) {
+                // Saturate. Anything this large overflow or round to 0 anyways.
+                if (exp < 1_000_000) {
+                    exp = exp * 10 + text.charAt(i) - '0';
+                }
+            }
+            
+            if (i == expStart) {
+                throw malformed(text);
+            }
+            
+            if (expNegative) {
+                exp = -exp;
+            }
+        }
+        
+        if (i != len) {
+            throw malformed(text);
+        }
+        
+        final int intDigits = intEnd - intStart,
+                  digits    = intDigits + fracEnd - fracStart;
+        
+        // Number of digits, from the first one, that remain left of the point:
+        final long keep = intDigits + exp + scale;
+        
+        long acc = 0;
+        int roundDigit = 0;
+        boolean sticky = false;
+        
+        for (int k = 0; k < digits; ++k) {
+            int d = text.charAt(k < intDigits ?
+                    intStart + k :
+                    fracStart + k - intDigits) - '0';
+            
+            if (k < keep) {
+                acc = Math.addExact(Math.multiplyExact(acc, 10), d);
+            }
+            else if (k == keep) {
+                roundDigit = d;
+            }
+            else {
+                sticky |= d != 0;
+            }
+        }
+        
+        // Pad with zeros. Will throw fast if acc != 0 and keep is huge.
+        for (long k = digits; acc != 0 && k < keep; ++k) {
+            acc = Math.multiplyExact(acc, 10);
+        }
+        
+        if (roundDigit > 5 || roundDigit == 5 && (sticky || (acc & 1) == 1)) {
+            acc = Math.addExact(acc, 1);
+        }
+        
+        return negative ? -acc : acc;
+    }
+    
+    
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    private static int skipDigits(CharSequence text, int i) {
+        while (i < text.length() && isDigit(text.charAt(i))) {
+            ++i;
+        }
+        
+        return i;
+    }
+    
+    private static NumberFormatException malformed(CharSequence text) {
+        return new NumberFormatException("Malformed decimal: \"" + text + "\".");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.martinandersson.money.lib;
+
+import static com.martinandersson.money.lib.model.FastMoneyPrice.MAX_SCALE;
+import com.martinandersson.money.lib.series.PriceConsumer;
+import java.io.Reader;
+import java.time.LocalDate;
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * Reads the rows of a Quandl dataset document and feed them, one at a time, to
+ * a {@code PriceConsumer}.<p>
+ * 
+ * The document is expected to look like the one downloaded by {@link
+ * AppleData}:
+ * <pre>{@code
+ * 
+ *   {"dataset":{ ..., "data":[["2016-06-24",93.4], ...], ... }}
+ * }</pre>
+ * 
+ * Each row must have exactly two columns: the date and the adjusted close. The
+ * adjusted close is rounded to {@value
+ * com.martinandersson.money.lib.model.FastMoneyPrice#MAX_SCALE} decimal places
+ * using {@code RoundingMode.HALF_EVEN} and then scaled to a {@code long}. Rows
+ * are emitted in document order.<p>
+ * 
+ * Two strategies are provided. {@link #tree(Reader, PriceConsumer) tree()} is
+ * what {@code AppleData} has always done: build the whole {@code JsonObject}
+ * and then walk it. Memory use is proportional to the size of the document; a
+ * {@code JsonArray}, a {@code JsonString} and a {@code JsonNumber} is kept
+ * alive for each row until the last row has been consumed.<p>
+ * 
+ * {@link #stream(Reader, PriceConsumer) stream()} pull parser events and emit
+ * a row as soon as it has been read. Nothing is retained and memory use is
+ * constant, no matter how large the document is. The adjusted close is parsed
+ * from its text using {@link Numbers#parseScaled(CharSequence, int)}, i.e.
+ * without a {@code BigDecimal}. The only per-row garbage is what JSONP itself
+ * produce: the {@code String}s of the date and the number (JSR 353 has no way
+ * to read a value as a {@code CharSequence}).
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see com.martinandersson.money.benchmark.QuandlReaderBenchmark
+ */
+public final class QuandlReader
+{
+    private QuandlReader() {
+        // Empty
+    }
+    
+    
+    
+    /**
+     * Read all rows using a {@code JsonParser}.<p>
+     * 
+     * Please note that this method do not close the specified reader.
+     * 
+     * @param reader    document source
+     * @param consumer  row consumer
+     * 
+     * @return number of rows read
+     * 
+     * @throws JsonException if the document is malformed or an I/O error occurs
+     */
+    public static int stream(Reader reader, PriceConsumer consumer) {
+        // Closing the parser close the reader, which is not ours to close.
+        JsonParser p = Json.createParser(reader);
+        
+        int depth = 0;
+        
+        while (p.hasNext()) {
+            switch (p.next()) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    ++depth;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    --depth;
+                    break;
+                case KEY_NAME:
+                    // Root object is depth 1, "dataset" object is depth 2.
+                    if (depth == 2 && "data".equals(p.getString())) {
+                        return readRows(p, consumer);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        
+        throw new JsonException("Found no \"dataset.data\".");
+    }
+    
+    /**
+     * Read all rows using a {@code JsonReader}.<p>
+     * 
+     * Please note that this method do not close the specified reader.
+     * 
+     * @param reader    document source
+     * @param consumer  row consumer
+     * 
+     * @return number of rows read
+     * 
+     * @throws JsonException if the document is malformed or an I/O error occurs
+     */
+    public static int tree(Reader reader, PriceConsumer consumer) {
+        // Same here, JsonReader.close() close the reader.
+        JsonReader json = Json.createReader(reader);
+        JsonObject root = json.readObject();
+        
+        int rows = 0;
+        
+        for (JsonValue v : root.getJsonObject("dataset").getJsonArray("data")) {
+            JsonArray row = (JsonArray) v;
+            
+            consumer.accept(
+                    LocalDates.toShort(LocalDate.parse(row.getString(0))),
+                    Numbers.toScaled(row.getJsonNumber(1).bigDecimalValue(), MAX_SCALE));
+            
+            ++rows;
+        }
+        
+        return rows;
+    }
+    
+    
+    
+    private static int readRows(JsonParser p, PriceConsumer consumer) {
+        expect(p, Event.START_ARRAY);
+        
+        int rows = 0;
+        
+        for (Event e = p.next(); e != Event.END_ARRAY; e = p.next()) {
+            if (e != Event.START_ARRAY) {
+                throw unexpected(p, Event.START_ARRAY, e);
+            }
+            
+            expect(p, Event.VALUE_STRING);
+            short date = LocalDates.parseShort(p.getString());
+            
+            expect(p, Event.VALUE_NUMBER);
+            long amount = Numbers.parseScaled(p.getString(), MAX_SCALE);
+            
+            expect(p, Event.END_ARRAY);
+            
+            consumer.accept(date, amount);
+            ++rows;
+        }
+        
+        return rows;
+    }
+    
+    private static void expect(JsonParser p, Event expected) {
+        Event actual = p.next();
+        
+        if (actual != expected) {
+            throw unexpected(p, expected, actual);
+        }
+    }
+    
+    private static JsonException unexpected(JsonParser p, Event expected, Event actual) {
+        return new JsonException(
+                "Expected " + expected + " but got " + actual + " at " +
+                p.getLocation() + ".");
+    }
+}
\ No newline at end of file
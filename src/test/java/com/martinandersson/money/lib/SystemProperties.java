@@ -53,6 +53,67 @@ public enum SystemProperties
      */
     BENCHMARK_FILE ("f", "benchmark file"),
     
+    /**
+     * {@code StartJmh} that launches JMH benchmarks use this property to set
+     * the number of threads that run each benchmark.<p>
+     * 
+     * The property key is "t" and the property is optional. The value is a
+     * positive integer, or "max" for as many threads as there are cores. If
+     * set, the value override {@code @Threads} annotations.
+     */
+    BENCHMARK_THREADS ("t", "benchmark threads"),
+    
+    /**
+     * {@code StartJmh} that launches JMH benchmarks use this property to write
+     * the results in a machine-readable format to a file.<p>
+     * 
+     * The property key is "rff" and the property is optional. The format is
+     * given by the file extension: "json", "csv", "scsv", "txt" or "tex".
+     * Default is JSON. The JSON file can be used as {@link
+     * #BENCHMARK_BASELINE} for a later run.
+     */
+    BENCHMARK_RESULT ("rff", "benchmark result file"),
+    
+    /**
+     * {@code StartJmh} that launches JMH benchmarks use this property to
+     * compare the results with the results of a previous run.<p>
+     * 
+     * The property key is "baseline" and the property is optional. The value
+     * is a path to a JMH result file in JSON format. If a benchmark regressed,
+     * the process exit with a non-zero status code. See {@code
+     * RegressionGate}.
+     */
+    BENCHMARK_BASELINE ("baseline", "benchmark baseline file"),
+    
+    /**
+     * How much worse a benchmark score may get compared to the baseline before
+     * it is flagged as a regression.<p>
+     * 
+     * The property key is "tolerance" and the property is optional. The value
+     * is a fraction, for example "0.2" = 20%. Default is "0.1".
+     */
+    BENCHMARK_TOLERANCE ("tolerance", "benchmark regression tolerance"),
+    
+    /**
+     * Confidence level of the intervals used when comparing benchmark scores
+     * with the baseline.<p>
+     * 
+     * The property key is "confidence" and the property is optional. Default
+     * is "0.999", same as JMH use for the error it print.
+     */
+    BENCHMARK_CONFIDENCE ("confidence", "benchmark confidence level"),
+    
+    /**
+     * Selects how {@code MonetaHack} access the internals of Moneta.<p>
+     * 
+     * The property key is "moneta.hack" and the property is optional. The value
+     * is the name of a {@link MonetaHack.Backend} constant, case insensitive,
+     * for example "reflection". Default is "method_handle".<p>
+     * 
+     * The property is read once, when {@code MonetaHack} is initialized.
+     */
+    MONETA_HACK ("moneta.hack", "MonetaHack backend"),
+    
     /**
      * Represents a path to the common resource directory where resources are
      * put.<p>
@@ -0,0 +1,160 @@
+package com.martinandersson.money.lib.chroniclemap;
+
+import com.martinandersson.money.lib.model.Price;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.Stream;
+import net.openhft.chronicle.map.ChronicleMap;
+import net.openhft.chronicle.map.ChronicleMapBuilder;
+import net.openhft.chronicle.map.ExternalMapQueryContext;
+import net.openhft.chronicle.map.MapAbsentEntry;
+import net.openhft.chronicle.map.MapEntry;
+
+/**
+ * Loads many prices into a Chronicle Map.<p>
+ * 
+ * Compared to a loop of {@code map.put()}, the loader:
+ * 
+ * <ul>
+ *   <li>sizes the map from the number of prices before it is created
+ *       ({@link #createAndLoad(ChronicleMapBuilder, Collection, int)
+ *       createAndLoad()}),</li>
+ *   <li>inserts each price through a query context, taking the update lock of
+ *       the segment and writing the value directly into the absent entry. No
+ *       previous value is read and nothing is returned,</li>
+ *   <li>splits the prices into as many contiguous parts as the parallelism,
+ *       which are inserted in parallel. Chronicle Map locks per segment, so
+ *       threads inserting into different segments do not block each
+ *       other.</li>
+ * </ul>
+ * 
+ * A parallelism of 1 means that all prices are inserted by the calling thread.
+ * Other parts run in the common {@code ForkJoinPool}.<p>
+ * 
+ * This is not a segment-batched insertion. Each price still open its own
+ * query context and take and release the lock of its segment. Which segment a
+ * key belongs to is decided by Chronicle Map internally and is not exposed
+ * through the public API, so prices can not be grouped by segment to insert a
+ * whole group under one lock. ({@code ChronicleMap.segmentContext()} can only
+ * iterate and remove entries of a segment.) The serializer buffers are reused
+ * per thread by {@code SerializationFramework}.<p>
+ * 
+ * According to {@code BulkLoadBenchmark}, the gain over a loop of {@code
+ * map.put()} come from sizing the map. On a map that is already sized, and
+ * built with {@code putReturnsNull(true)}, inserting through a query context
+ * is no faster than {@code put()}. This class is a convenience, not a faster
+ * insert.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see com.martinandersson.money.benchmark.BulkLoadBenchmark
+ */
+public final class BulkLoader
+{
+    private BulkLoader() {
+        // Empty
+    }
+    
+    
+    
+    /**
+     * Size the builder for the given prices, create the map and load it.
+     * 
+     * @param <P>          type of price
+     * @param builder      map builder, configured with everything but entries
+     * @param prices       prices to load
+     * @param parallelism  number of threads inserting
+     * 
+     * @return the map, loaded
+     * 
+     * @throws IllegalArgumentException  if {@code parallelism} is less than 1
+     */
+    public static <P extends Price> ChronicleMap<LocalDate, P> createAndLoad(
+            ChronicleMapBuilder<LocalDate, P> builder, Collection<P> prices, int parallelism)
+    {
+        checkParallelism(parallelism);
+        
+        ChronicleMap<LocalDate, P> map = builder
+                .entries(Math.max(1, prices.size()))
+                .create();
+        
+        try {
+            load(map, prices.stream(), parallelism);
+        }
+        catch (RuntimeException e) {
+            map.close();
+            throw e;
+        }
+        
+        return map;
+    }
+    
+    /**
+     * Load the given prices into the given map.<p>
+     * 
+     * The stream is consumed by the calling thread before anything is
+     * inserted. This method return when all prices have been inserted.
+     * 
+     * @param <P>          type of price
+     * @param map          target map
+     * @param prices       prices to load
+     * @param parallelism  number of threads inserting
+     * 
+     * @return number of prices loaded
+     * 
+     * @throws IllegalArgumentException  if {@code parallelism} is less than 1
+     */
+    public static <P extends Price> int load(
+            ChronicleMap<LocalDate, P> map, Stream<P> prices, int parallelism)
+    {
+        checkParallelism(parallelism);
+        
+        final List<P> all = prices.collect(toList());
+        final int n = all.size(),
+                  part = Math.max(1, (n + parallelism - 1) / parallelism);
+        
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        
+        // The first part is inserted by the calling thread:
+        for (int from = part; from < n; from += part) {
+            final List<P> sub = all.subList(from, Math.min(n, from + part));
+            tasks.add(CompletableFuture.runAsync(() -> insert(map, sub)));
+        }
+        
+        insert(map, all.subList(0, Math.min(n, part)));
+        
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+        
+        return n;
+    }
+    
+    
+    
+    private static void checkParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+    }
+    
+    private static <P extends Price> void insert(ChronicleMap<LocalDate, P> map, List<P> prices) {
+        for (P p : prices) {
+            try (ExternalMapQueryContext<LocalDate, P, ?> c = map.queryContext(p.getDate())) {
+                c.updateLock().lock();
+                
+                MapAbsentEntry<LocalDate, P> absent = c.absentEntry();
+                
+                if (absent != null) {
+                    absent.doInsert(c.wrapValueAsData(p));
+                }
+                else {
+                    MapEntry<LocalDate, P> present = c.entry();
+                    c.replaceValue(present, c.wrapValueAsData(p));
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
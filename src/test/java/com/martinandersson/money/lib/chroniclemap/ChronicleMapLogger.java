@@ -1,7 +1,13 @@
 package com.martinandersson.money.lib.chroniclemap;
 
 import com.martinandersson.money.lib.Numbers;
+import com.martinandersson.money.lib.jfr.EventGate;
+import com.martinandersson.money.lib.jfr.MapOperationEvent;
+import com.martinandersson.money.lib.metrics.MetricsRegistry;
+import static java.util.Objects.requireNonNull;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.LongFunction;
 import net.openhft.chronicle.hash.Data;
 import net.openhft.chronicle.map.MapMethods;
@@ -10,9 +16,26 @@ import net.openhft.chronicle.map.ReturnValue;
 
 /**
  * Is an SPI implementation for Chronicle Map that log details about the Map
- * get() and put() operation.<p>
+ * get(), put(), remove(), acquireUsing() and compute-style operations.<p>
  * 
- * Use {@code toString()} method to figure out what exactly got logged.
+ * The time cost of each operation is logged, including percentiles. The size
+ * of keys and values is logged for put() only.<p>
+ * 
+ * put() and get() also emit a {@link MapOperationEvent} for Java Flight
+ * Recorder.<p>
+ * 
+ * All costs and sizes are kept in a {@link MetricsRegistry}. By default, each
+ * logger has a registry of its own. Pass in a shared registry to export the
+ * map statistics together with other metrics.<p>
+ * 
+ * compute(), computeIfAbsent(), computeIfPresent() and merge() all share one
+ * time logger.<p>
+ * 
+ * Use {@code toString()} method to figure out what exactly got logged. Only
+ * put() and get() are always part of the string, other operations are
+ * included if they have been used.<p>
+ * 
+ * The logger may be used by a map accessed from many threads at once.
  * 
  * @param <K>  Map key type
  * @param <V>  Map value type
@@ -23,16 +46,75 @@ import net.openhft.chronicle.map.ReturnValue;
  */
 public class ChronicleMapLogger<K, V, R> implements MapMethods<K, V, R>
 {
+    private static final EventGate EVENTS = EventGate.of(MapOperationEvent.class);
+    
+    /**
+     * Returns a begun map operation event, or {@code null} if no recording has
+     * the event enabled.
+     */
+    private static MapOperationEvent beginEvent() {
+        if (!EVENTS.isOpen()) {
+            return null;
+        }
+        
+        MapOperationEvent event = new MapOperationEvent();
+        event.begin();
+        return event;
+    }
+    
+    
+    
+    private final String name;
+    
     private final SizeLogger size;
     
     private final TimeLogger put,
-                             get;
+                             get,
+                             remove,
+                             acquireUsing,
+                             compute;
     
     
     public ChronicleMapLogger() {
-        size = new SizeLogger();
-        put = new TimeLogger();
-        get = new TimeLogger();
+        this("");
+    }
+    
+    /**
+     * Construct a new {@code ChronicleMapLogger}.
+     * 
+     * @param name  name put in each {@code MapOperationEvent}, for example the
+     *              serialization framework used by the map
+     */
+    public ChronicleMapLogger(String name) {
+        this(name, new MetricsRegistry());
+    }
+    
+    /**
+     * Construct a new {@code ChronicleMapLogger} that log into the specified
+     * {@code registry}.<p>
+     * 
+     * Time costs are timers named "chroniclemap.[operation]", for example
+     * "chroniclemap.put". Key and value sizes are named
+     * "chroniclemap.put.key.bytes" and "chroniclemap.put.value.bytes". The
+     * framework label of all metrics is {@code name}, the type label is empty.
+     * Two loggers with the same name and registry log into the same metrics.
+     * 
+     * @param name      name put in each {@code MapOperationEvent} and metric,
+     *                  for example the serialization framework used by the map
+     * @param registry  metrics registry
+     */
+    public ChronicleMapLogger(String name, MetricsRegistry registry) {
+        this.name = requireNonNull(name);
+        
+        size = new SizeLogger(
+                registry.sizes("chroniclemap.put.key.bytes", name, ""),
+                registry.sizes("chroniclemap.put.value.bytes", name, ""));
+        
+        put = new TimeLogger(registry.timer("chroniclemap.put", name, ""));
+        get = new TimeLogger(registry.timer("chroniclemap.get", name, ""));
+        remove = new TimeLogger(registry.timer("chroniclemap.remove", name, ""));
+        acquireUsing = new TimeLogger(registry.timer("chroniclemap.acquireUsing", name, ""));
+        compute = new TimeLogger(registry.timer("chroniclemap.compute", name, ""));
     }
     
     
@@ -41,10 +123,25 @@ public class ChronicleMapLogger<K, V, R> implements MapMethods<K, V, R>
      */
     @Override
     public void put(MapQueryContext<K, V, R> q, Data<V> value, ReturnValue<V> returnValue) {
-        put.start();
+        MapOperationEvent event = beginEvent();
+        
+        final long then = put.start();
         MapMethods.super.put(q, value, returnValue);
-        put.complete();
-        size.record(q.queriedKey().size(), value.size());
+        put.complete(then);
+        
+        final long keySize = q.queriedKey().size(),
+                   valueSize = value.size();
+        
+        size.record(keySize, valueSize);
+        
+        if (event != null && event.shouldCommit()) {
+            event.map = name;
+            event.operation = "put";
+            event.type = value.get().getClass().getName();
+            event.keyBytes = keySize;
+            event.valueBytes = valueSize;
+            event.commit();
+        }
     }
     
     /**
@@ -52,9 +149,95 @@ public class ChronicleMapLogger<K, V, R> implements MapMethods<K, V, R>
      */
     @Override
     public void get(MapQueryContext<K, V, R> q, ReturnValue<V> returnValue) {
-        get.start();
+        MapOperationEvent event = beginEvent();
+        
+        final long then = get.start();
         MapMethods.super.get(q, returnValue);
-        get.complete();
+        get.complete(then);
+        
+        if (event != null && event.shouldCommit()) {
+            event.map = name;
+            event.operation = "get";
+            event.keyBytes = q.queriedKey().size();
+            event.commit();
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove(MapQueryContext<K, V, R> q, ReturnValue<V> returnValue) {
+        final long then = remove.start();
+        MapMethods.super.remove(q, returnValue);
+        remove.complete(then);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void acquireUsing(MapQueryContext<K, V, R> q, ReturnValue<V> returnValue) {
+        final long then = acquireUsing.start();
+        MapMethods.super.acquireUsing(q, returnValue);
+        acquireUsing.complete(then);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void compute(
+            MapQueryContext<K, V, R> q,
+            BiFunction<? super K, ? super V, ? extends V> remappingFunction,
+            ReturnValue<V> returnValue)
+    {
+        final long then = compute.start();
+        MapMethods.super.compute(q, remappingFunction, returnValue);
+        compute.complete(then);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void computeIfAbsent(
+            MapQueryContext<K, V, R> q,
+            Function<? super K, ? extends V> mappingFunction,
+            ReturnValue<V> returnValue)
+    {
+        final long then = compute.start();
+        MapMethods.super.computeIfAbsent(q, mappingFunction, returnValue);
+        compute.complete(then);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void computeIfPresent(
+            MapQueryContext<K, V, R> q,
+            BiFunction<? super K, ? super V, ? extends V> remappingFunction,
+            ReturnValue<V> returnValue)
+    {
+        final long then = compute.start();
+        MapMethods.super.computeIfPresent(q, remappingFunction, returnValue);
+        compute.complete(then);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void merge(
+            MapQueryContext<K, V, R> q,
+            Data<V> value,
+            BiFunction<? super V, ? super V, ? extends V> remappingFunction,
+            ReturnValue<V> returnValue)
+    {
+        final long then = compute.start();
+        MapMethods.super.merge(q, value, remappingFunction, returnValue);
+        compute.complete(then);
     }
     
     
@@ -80,21 +263,48 @@ public class ChronicleMapLogger<K, V, R> implements MapMethods<K, V, R>
                 .append(P).append("totValueSize=").append(size.getTotValueSize())
                     .append(toMb.apply(size.getTotValueSize()));
         
-        return appendTimeMetrics(b, P, put) +
-               System.lineSeparator() +
-               appendTimeMetrics(new StringBuilder("Map statistics for get():"), P, get);
+        StringBuilder all = appendTimeMetrics(b, P, put)
+                .append(System.lineSeparator())
+                .append(appendTimeMetrics(new StringBuilder("Map statistics for get():"), P, get));
+        
+        appendIfUsed(all, "remove()", P, remove);
+        appendIfUsed(all, "acquireUsing()", P, acquireUsing);
+        appendIfUsed(all, "compute()", P, compute);
+        
+        return all.toString();
+    }
+    
+    private static void appendIfUsed(
+            StringBuilder builder, String operation, String prefix, TimeLogger time)
+    {
+        if (time.count() > 0) {
+            builder.append(System.lineSeparator())
+                   .append(appendTimeMetrics(new StringBuilder("Map statistics for " + operation + ':'), prefix, time));
+        }
     }
     
     private static StringBuilder appendTimeMetrics(
             StringBuilder builder, String prefix, TimeLogger time)
     {
         return builder
+                .append(prefix).append("count=")
+                    .append(time.count())
                 .append(prefix).append("minCost=")
                     .append(time.getMinCost()).append(" ns")
                 .append(prefix).append("maxCost=")
                     .append(time.getMaxCost()).append(" ns")
                 .append(prefix).append("avgTimeCost=")
                     .append(time.avgTimeCost()).append(" ns")
+                .append(prefix).append("p50=")
+                    .append(time.getPercentileCost(50)).append(" ns")
+                .append(prefix).append("p90=")
+                    .append(time.getPercentileCost(90)).append(" ns")
+                .append(prefix).append("p99=")
+                    .append(time.getPercentileCost(99)).append(" ns")
+                .append(prefix).append("p99.9=")
+                    .append(time.getPercentileCost(99.9)).append(" ns")
+                .append(prefix).append("p99.99=")
+                    .append(time.getPercentileCost(99.99)).append(" ns")
                 .append(prefix).append("totTimeSpent=")
                     .append(time.getTotTimeSpent(TimeUnit.MILLISECONDS)).append(" ms");
     }
@@ -50,16 +50,17 @@ public final class ChronicleMapMarshaller<T>
     }
     
     /**
-     * {@inheritDoc}
+     * {@inheritDoc}<p>
+     * 
+     * Whether or not {@code using} is actually reused depends on the
+     * serialization framework, see {@link
+     * com.martinandersson.money.lib.serializer.Serializer#deserialize(InputStream, Object)
+     * Serializer.deserialize(InputStream, Object)}.
      */
     @Override
     public T read(Bytes in, T using) {
-        if (using != null) {
-            throw new UnsupportedOperationException();
-        }
-        
         try (InputStream is = in.inputStream()) {
-            return serializer.deserialize(is);
+            return serializer.deserialize(is, using);
         }
         catch (IOException e) {
             throw new UncheckedIOException(e);
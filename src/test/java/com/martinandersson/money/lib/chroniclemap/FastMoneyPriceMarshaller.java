@@ -0,0 +1,93 @@
+package com.martinandersson.money.lib.chroniclemap;
+
+import com.martinandersson.money.lib.CurrencyCodes;
+import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.MonetaHack;
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import java.time.LocalDate;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import net.openhft.chronicle.hash.serialization.BytesReader;
+import net.openhft.chronicle.hash.serialization.BytesWriter;
+import net.openhft.chronicle.wire.WireIn;
+import net.openhft.chronicle.wire.WireOut;
+import org.javamoney.moneta.FastMoney;
+
+/**
+ * A Chronicle Map marshaller that write a {@code FastMoneyPrice} straight into
+ * Chronicle's {@code Bytes}.<p>
+ * 
+ * The layout is:
+ * 
+ * <ul>
+ *   <li>the date, packed into a {@code short}</li>
+ *   <li>the scaled {@code long} of {@code FastMoney}</li>
+ *   <li>the ordinal of the currency code (see {@link CurrencyCodes}) as a
+ *       stop-bit encoded number, followed by the code itself if the ordinal
+ *       is {@code CurrencyCodes.ESCAPE}</li>
+ * </ul>
+ * 
+ * For USD, that is 11 bytes. Unlike {@link ChronicleMapMarshaller}, no stream
+ * is created and no serialization framework is involved. Reading a price
+ * allocates the price, the {@code LocalDate} and the {@code FastMoney}; nothing
+ * else.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public enum FastMoneyPriceMarshaller implements BytesWriter<FastMoneyPrice>, BytesReader<FastMoneyPrice>
+{
+    INSTANCE;
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(Bytes out, FastMoneyPrice toWrite) {
+        final FastMoney money = (FastMoney) toWrite.getAdjClose();
+        final String code = money.getCurrency().getCurrencyCode();
+        final int ordinal = CurrencyCodes.ordinal(code);
+        
+        out.writeShort(LocalDates.toShort(toWrite.getDate()));
+        out.writeLong(MonetaHack.getNumber(money));
+        out.writeStopBit(ordinal);
+        
+        if (ordinal == CurrencyCodes.ESCAPE) {
+            out.writeUtf8(code);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}<p>
+     * 
+     * {@code FastMoneyPrice} is immutable, so {@code using} is ignored and a
+     * new price is returned.
+     */
+    @Override
+    public FastMoneyPrice read(Bytes in, FastMoneyPrice using) {
+        final LocalDate date = LocalDates.fromShort(in.readShort());
+        final long number = in.readLong();
+        final int ordinal = (int) in.readStopBit();
+        
+        final String code = ordinal == CurrencyCodes.ESCAPE ?
+                in.readUtf8() :
+                CurrencyCodes.code(ordinal);
+        
+        return FastMoneyPrice.ofFastMoney(date, MonetaHack.newFastMoney(number, code));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeMarshallable(WireOut wire) {
+        // No state
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readMarshallable(WireIn wire) throws IORuntimeException {
+        // No state
+    }
+}
\ No newline at end of file
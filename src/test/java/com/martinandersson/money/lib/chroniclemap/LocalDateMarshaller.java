@@ -0,0 +1,61 @@
+package com.martinandersson.money.lib.chroniclemap;
+
+import com.martinandersson.money.lib.LocalDates;
+import java.time.LocalDate;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import net.openhft.chronicle.hash.serialization.BytesReader;
+import net.openhft.chronicle.hash.serialization.BytesWriter;
+import net.openhft.chronicle.wire.WireIn;
+import net.openhft.chronicle.wire.WireOut;
+
+/**
+ * A Chronicle Map marshaller that write a {@code LocalDate} as a packed {@code
+ * short} straight into Chronicle's {@code Bytes}.<p>
+ * 
+ * Unlike {@link ChronicleMapMarshaller}, no stream is created and no
+ * serialization framework is involved.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see LocalDates#toShort(LocalDate)
+ */
+public enum LocalDateMarshaller implements BytesWriter<LocalDate>, BytesReader<LocalDate>
+{
+    INSTANCE;
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(Bytes out, LocalDate toWrite) {
+        out.writeShort(LocalDates.toShort(toWrite));
+    }
+    
+    /**
+     * {@inheritDoc}<p>
+     * 
+     * {@code LocalDate} is immutable, so {@code using} is ignored and a new date
+     * is returned.
+     */
+    @Override
+    public LocalDate read(Bytes in, LocalDate using) {
+        return LocalDates.fromShort(in.readShort());
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeMarshallable(WireOut wire) {
+        // No state
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readMarshallable(WireIn wire) throws IORuntimeException {
+        // No state
+    }
+}
\ No newline at end of file
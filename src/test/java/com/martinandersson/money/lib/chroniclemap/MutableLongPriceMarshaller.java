@@ -0,0 +1,58 @@
+package com.martinandersson.money.lib.chroniclemap;
+
+import com.martinandersson.money.lib.model.MutableLongPrice;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import net.openhft.chronicle.hash.serialization.BytesReader;
+import net.openhft.chronicle.hash.serialization.BytesWriter;
+import net.openhft.chronicle.wire.WireIn;
+import net.openhft.chronicle.wire.WireOut;
+
+/**
+ * A Chronicle Map marshaller that write a {@code MutableLongPrice} straight
+ * into Chronicle's {@code Bytes}; the packed date followed by the scaled
+ * adjusted close, 10 bytes in total.<p>
+ * 
+ * If {@code using} is provided, then the price is read into it. Combined with
+ * {@code ChronicleMap.getUsing()}, a lookup allocates nothing.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public enum MutableLongPriceMarshaller implements BytesWriter<MutableLongPrice>, BytesReader<MutableLongPrice>
+{
+    INSTANCE;
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(Bytes out, MutableLongPrice toWrite) {
+        out.writeShort(toWrite.getPackedDate());
+        out.writeLong(toWrite.getScaledAdjClose());
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MutableLongPrice read(Bytes in, MutableLongPrice using) {
+        final MutableLongPrice price = using != null ? using : new MutableLongPrice();
+        return price.set(in.readShort(), in.readLong());
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeMarshallable(WireOut wire) {
+        // No state
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void readMarshallable(WireIn wire) throws IORuntimeException {
+        // No state
+    }
+}
\ No newline at end of file
@@ -0,0 +1,324 @@
+package com.martinandersson.money.lib.chroniclemap;
+
+import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.model.Price;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import net.openhft.chronicle.map.ChronicleMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A Chronicle Map with a sorted index of its keys.<p>
+ * 
+ * Chronicle Map has no sorted nor navigable view of the keys. A client asking
+ * for a range of dates, say the last 252 trading days, must either keep a
+ * cache of the keys on the side or probe the map for every calendar date in the
+ * range. This class is that cache. The keys are packed into {@code short}s using {@link
+ * LocalDates#toShort(LocalDate)}, which retain the order of dates, and kept in
+ * a sorted {@code short[]}. One key costs 2 bytes.<p>
+ * 
+ * Range queries first slice the index and then fetch each value from the map.
+ * Only keys known to be present are fetched.<p>
+ * 
+ * The index is kept in sync only if the map is modified through this class.
+ * The index is built from the keys of the map when this class is
+ * constructed.<p>
+ * 
+ * All methods are thread-safe. Index operations are synchronized. {@code put}
+ * and {@code remove} modify the map and the index while holding the same lock,
+ * so that the index never has a key the map does not have, or the other way
+ * around. Writes are thus serialized, reads are not; {@code get} goes straight
+ * to the map. A range query copies the keys in range while holding the lock
+ * and fetch values after releasing it; a value removed in between is
+ * skipped.<p>
+ * 
+ * Closing the map remains the responsibility of the client.
+ * 
+ * @param <V>  type of value
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public final class NavigableChronicleMap<V extends Price>
+{
+    private final ChronicleMap<LocalDate, V> map;
+    
+    /** Sorted. Guarded by {@code this}. */
+    private short[] keys;
+    
+    /** Guarded by {@code this}. */
+    private int size;
+    
+    
+    
+    /**
+     * Construct a new {@code NavigableChronicleMap}.
+     * 
+     * @param map  map to wrap
+     */
+    public NavigableChronicleMap(ChronicleMap<LocalDate, V> map) {
+        this.map = requireNonNull(map);
+        
+        short[] k = new short[Math.max(16, map.size())];
+        int n = 0;
+        
+        for (LocalDate d : map.keySet()) {
+            if (n == k.length) {
+                k = Arrays.copyOf(k, n * 2);
+            }
+            
+            k[n++] = LocalDates.toShort(d);
+        }
+        
+        Arrays.sort(k, 0, n);
+        
+        keys = k;
+        size = n;
+    }
+    
+    
+    
+    /**
+     * Returns the wrapped map.<p>
+     * 
+     * Modifying the returned map directly will make the index go out of sync.
+     * 
+     * @return the wrapped map
+     */
+    public ChronicleMap<LocalDate, V> map() {
+        return map;
+    }
+    
+    /**
+     * Returns the number of keys in the index.
+     * 
+     * @return the number of keys in the index
+     */
+    public synchronized int size() {
+        return size;
+    }
+    
+    /**
+     * Returns the value of the specified {@code date}.
+     * 
+     * @param date  date
+     * 
+     * @return the value, or {@code null} if there is none
+     */
+    public V get(LocalDate date) {
+        return map.get(date);
+    }
+    
+    /**
+     * Put the specified {@code price}, using its date as key.
+     * 
+     * @param price  price
+     */
+    public void put(V price) {
+        put(price.getDate(), price);
+    }
+    
+    /**
+     * Put the specified {@code price}.
+     * 
+     * @param date   key
+     * @param price  price
+     */
+    public void put(LocalDate date, V price) {
+        final short k = LocalDates.toShort(date);
+        
+        synchronized (this) {
+            map.put(date, price);
+            
+            // Appending is the common case:
+            if (size == 0 || keys[size - 1] < k) {
+                insert(size, k);
+                return;
+            }
+            
+            int i = Arrays.binarySearch(keys, 0, size, k);
+            
+            if (i < 0) {
+                insert(-i - 1, k);
+            }
+        }
+    }
+    
+    /**
+     * Remove the value of the specified {@code date}.
+     * 
+     * @param date  key
+     */
+    public void remove(LocalDate date) {
+        final short k = LocalDates.toShort(date);
+        
+        synchronized (this) {
+            int i = Arrays.binarySearch(keys, 0, size, k);
+            
+            if (i >= 0) {
+                System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                --size;
+            }
+            
+            map.remove(date);
+        }
+    }
+    
+    /**
+     * Returns the first (lowest) date, or {@code null} if empty.
+     * 
+     * @return the first date, or {@code null}
+     */
+    public synchronized LocalDate firstKey() {
+        return size == 0 ? null : LocalDates.fromShort(keys[0]);
+    }
+    
+    /**
+     * Returns the last (highest) date, or {@code null} if empty.
+     * 
+     * @return the last date, or {@code null}
+     */
+    public synchronized LocalDate lastKey() {
+        return size == 0 ? null : LocalDates.fromShort(keys[size - 1]);
+    }
+    
+    /**
+     * Returns the greatest date less than or equal to the specified {@code
+     * date}, or {@code null} if there is no such date.
+     * 
+     * @param date  date
+     * 
+     * @return the floor date, or {@code null}
+     */
+    public synchronized LocalDate floorKey(LocalDate date) {
+        int i = floorIndex(LocalDates.toShort(date));
+        return i == -1 ? null : LocalDates.fromShort(keys[i]);
+    }
+    
+    /**
+     * Returns the least date greater than or equal to the specified {@code
+     * date}, or {@code null} if there is no such date.
+     * 
+     * @param date  date
+     * 
+     * @return the ceiling date, or {@code null}
+     */
+    public synchronized LocalDate ceilingKey(LocalDate date) {
+        int i = ceilingIndex(LocalDates.toShort(date));
+        return i == size ? null : LocalDates.fromShort(keys[i]);
+    }
+    
+    /**
+     * Fetch all prices from {@code fromDate} to {@code toDate}, both
+     * inclusive, and feed them to the specified {@code consumer} in date
+     * order.
+     * 
+     * @param fromDate  low endpoint (inclusive)
+     * @param toDate    high endpoint (inclusive)
+     * @param consumer  consumer of date and price
+     * 
+     * @return number of prices fed to the consumer
+     */
+    public int forEach(LocalDate fromDate, LocalDate toDate, BiConsumer<LocalDate, ? super V> consumer) {
+        final short[] range;
+        
+        synchronized (this) {
+            int from = ceilingIndex(LocalDates.toShort(fromDate)),
+                to   = floorIndex(LocalDates.toShort(toDate)) + 1;
+            
+            range = from < to ? Arrays.copyOfRange(keys, from, to) : new short[0];
+        }
+        
+        return fetch(range, consumer);
+    }
+    
+    /**
+     * Fetch all prices in the specified range.
+     * 
+     * @param fromDate       low endpoint
+     * @param fromInclusive  {@code true} if the low endpoint is included
+     * @param toDate         high endpoint
+     * @param toInclusive    {@code true} if the high endpoint is included
+     * 
+     * @return a new {@code NavigableMap} holding the prices in range
+     */
+    public NavigableMap<LocalDate, V> subMap(
+            LocalDate fromDate, boolean fromInclusive,
+            LocalDate toDate,   boolean toInclusive)
+    {
+        NavigableMap<LocalDate, V> sub = new TreeMap<>();
+        
+        forEach(fromInclusive ? fromDate : fromDate.plusDays(1),
+                toInclusive   ? toDate   : toDate.minusDays(1),
+                sub::put);
+        
+        return sub;
+    }
+    
+    /**
+     * Fetch the last {@code n} prices, for example the last 252 trading days.
+     * 
+     * @param n  number of prices
+     * 
+     * @return the last {@code n} prices (or less), in date order
+     */
+    public List<V> last(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative: " + n);
+        }
+        
+        final short[] range;
+        
+        synchronized (this) {
+            range = Arrays.copyOfRange(keys, Math.max(0, size - n), size);
+        }
+        
+        List<V> prices = new ArrayList<>(range.length);
+        fetch(range, (date, price) -> prices.add(price));
+        return prices;
+    }
+    
+    
+    
+    private int fetch(short[] range, BiConsumer<LocalDate, ? super V> consumer) {
+        int n = 0;
+        
+        for (short k : range) {
+            LocalDate date = LocalDates.fromShort(k);
+            V price = map.get(date);
+            
+            if (price != null) {
+                consumer.accept(date, price);
+                ++n;
+            }
+        }
+        
+        return n;
+    }
+    
+    private void insert(int i, short k) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(16, size * 2));
+        }
+        
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        keys[i] = k;
+        ++size;
+    }
+    
+    /** @return index of floor key, or -1 */
+    private int floorIndex(short k) {
+        int i = Arrays.binarySearch(keys, 0, size, k);
+        return i >= 0 ? i : -i - 2;
+    }
+    
+    /** @return index of ceiling key, or {@code size} */
+    private int ceilingIndex(short k) {
+        int i = Arrays.binarySearch(keys, 0, size, k);
+        return i >= 0 ? i : -i - 1;
+    }
+}
\ No newline at end of file
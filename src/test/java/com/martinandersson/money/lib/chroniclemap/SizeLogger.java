@@ -1,13 +1,19 @@
 package com.martinandersson.money.lib.chroniclemap;
 
 import com.martinandersson.money.lib.Numbers;
+import com.martinandersson.money.lib.metrics.Distribution;
 import static java.lang.Math.toIntExact;
-import static java.lang.Math.addExact;
+import static java.util.Objects.requireNonNull;
 
 /**
  * Log the size of key and value entries.<p>
  * 
- * Log = store recorded size in accumulating instance fields.<p>
+ * Log = store recorded size in a {@link Distribution} of key sizes and a {@code
+ * Distribution} of value sizes.<p>
+ * 
+ * Just like {@link TimeLogger}, this logger is thread-safe and lock-free, and
+ * the values returned by the getters may not be from the same point in time if
+ * sizes are recorded concurrently.<p>
  * 
  * Arguable, this guy should have been logging only "one size" and client use
  * two instances for each type (key/value)?<p>
@@ -18,14 +24,28 @@ import static java.lang.Math.addExact;
  */
 public final class SizeLogger
 {
-    private int n,
-                minKeySize   = Integer.MAX_VALUE,
-                maxKeySize   = Integer.MIN_VALUE,
-                minValueSize = Integer.MAX_VALUE,
-                maxValueSize = Integer.MIN_VALUE;
+    private final Distribution keys,
+                               values;
     
-    private long totKeySize,
-                 totValueSize;
+    /**
+     * Construct a new {@code SizeLogger} that log into distributions of its
+     * own.
+     */
+    public SizeLogger() {
+        this(new Distribution(), new Distribution());
+    }
+    
+    /**
+     * Construct a new {@code SizeLogger} that log into the specified
+     * distributions.
+     * 
+     * @param keys    distribution of key sizes (bytes)
+     * @param values  distribution of value sizes (bytes)
+     */
+    public SizeLogger(Distribution keys, Distribution values) {
+        this.keys = requireNonNull(keys);
+        this.values = requireNonNull(values);
+    }
     
     
     /**
@@ -34,7 +54,7 @@ public final class SizeLogger
      * @return the count of entries logged
      */
     public int count() {
-        return n;
+        return toIntExact(keys.count());
     }
     
     /**
@@ -43,7 +63,7 @@ public final class SizeLogger
      * @return the minimum key size recorded (bytes)
      */
     public int getMinKeySize() {
-        return minKeySize;
+        return (int) Math.min(keys.min(), Integer.MAX_VALUE);
     }
     
     /**
@@ -52,7 +72,7 @@ public final class SizeLogger
      * @return the minimum value size recorded (bytes)
      */
     public int getMinValueSize() {
-        return minValueSize;
+        return (int) Math.min(values.min(), Integer.MAX_VALUE);
     }
     
     /**
@@ -61,7 +81,7 @@ public final class SizeLogger
      * @return the maximum key size recorded (bytes)
      */
     public int getMaxKeySize() {
-        return maxKeySize;
+        return (int) Math.max(keys.max(), Integer.MIN_VALUE);
     }
     
     /**
@@ -70,7 +90,7 @@ public final class SizeLogger
      * @return the maximum value size recorded (bytes)
      */
     public int getMaxValueSize() {
-        return maxValueSize;
+        return (int) Math.max(values.max(), Integer.MIN_VALUE);
     }
     
     /**
@@ -79,7 +99,7 @@ public final class SizeLogger
      * @return the total count of key bytes recorded
      */
     public long getTotKeySize() {
-        return totKeySize;
+        return keys.sum();
     }
     
     /**
@@ -88,7 +108,7 @@ public final class SizeLogger
      * @return the total count of value bytes recorded
      */
     public long getTotValueSize() {
-        return totValueSize;
+        return values.sum();
     }
     
     /**
@@ -99,7 +119,7 @@ public final class SizeLogger
      * @return the average key size recorded (bytes)
      */
     public int avgKeySize() {
-        return averageOf(totKeySize);
+        return Numbers.round0(keys.mean());
     }
     
     /**
@@ -110,51 +130,14 @@ public final class SizeLogger
      * @return the average value size seen (bytes)
      */
     public int avgValueSize() {
-        return averageOf(totValueSize);
+        return Numbers.round0(values.mean());
     }
     
     public void record(long keySize, long valueSize) {
         final int keySizeInt = toIntExact(keySize),
                   valSizeInt = toIntExact(valueSize);
         
-        // Prefer to mutate our state "atomically":
-        
-        long newTotKeySize = addExact(totKeySize, keySize);
-        totValueSize = addExact(totValueSize, valSizeInt);
-        totKeySize = newTotKeySize;
-        
-        ++n;
-        
-        if (keySizeInt < minKeySize) {
-            minKeySize = keySizeInt;
-        }
-        
-        if (keySizeInt > maxKeySize) {
-            maxKeySize = keySizeInt;
-        }
-        
-        if (valSizeInt < minValueSize) {
-            minValueSize = valSizeInt;
-        }
-        
-        if (valSizeInt > maxValueSize) {
-            maxValueSize = valSizeInt;
-        }
-    }
-    
-    
-    
-    /*
-     *  --------------
-     * | INTERNAL API |
-     *  --------------
-     */
-    
-    private int averageOf(double sum) {
-        if (n == 0) {
-            return 0;
-        }
-        
-        return Numbers.round0(sum / n);
+        keys.record(keySizeInt);
+        values.record(valSizeInt);
     }
 }
\ No newline at end of file
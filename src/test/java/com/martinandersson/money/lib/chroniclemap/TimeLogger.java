@@ -1,22 +1,51 @@
 package com.martinandersson.money.lib.chroniclemap;
 
 import com.martinandersson.money.lib.Numbers;
+import com.martinandersson.money.lib.metrics.Distribution;
+import com.martinandersson.money.lib.metrics.MetricsRegistry;
+import static java.util.Objects.requireNonNull;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Log time.<p>
  * 
- * Log = store recorded time entries in accumulating instance fields.
+ * Log = store recorded time entries in a {@link Distribution}.<p>
+ * 
+ * The logger is thread-safe and lock-free. Operations may overlap; the start
+ * time of an operation is returned by {@link #start()} and handed back to
+ * {@link #complete(long)}, so it lives on the caller's stack rather than in
+ * this logger. See {@code Distribution} for what concurrent recording means to
+ * the getters.<p>
+ * 
+ * Min, max and average hide the tail. Percentiles can be read using {@link
+ * #getPercentileCost(double)}.<p>
+ * 
+ * The distribution may be a timer of a {@link MetricsRegistry}, in which case
+ * the time spent is exported together with other metrics.
  * 
  * @author Martin Andersson (webmaster at martinandersson.com)
  */
 public final class TimeLogger
 {
-    private int n,
-                minCost = Integer.MAX_VALUE,
-                maxCost = Integer.MIN_VALUE;
+    private final Distribution costs;
     
-    private long totTimeSpent;
+    /**
+     * Construct a new {@code TimeLogger} that log into a distribution of its
+     * own.
+     */
+    public TimeLogger() {
+        this(new Distribution());
+    }
+    
+    /**
+     * Construct a new {@code TimeLogger} that log into the specified {@code
+     * costs}.
+     * 
+     * @param costs  distribution of time costs (nanoseconds)
+     */
+    public TimeLogger(Distribution costs) {
+        this.costs = requireNonNull(costs);
+    }
     
     
     
@@ -26,7 +55,7 @@ public final class TimeLogger
      * @return the count of entries logged
      */
     public int count() {
-        return n;
+        return Math.toIntExact(costs.count());
     }
     
     /**
@@ -35,7 +64,7 @@ public final class TimeLogger
      * @return the minimum time cost recorded (nanoseconds)
      */
     public int getMinCost() {
-        return minCost;
+        return (int) Math.min(costs.min(), Integer.MAX_VALUE);
     }
     
     /**
@@ -44,7 +73,7 @@ public final class TimeLogger
      * @return the maximum time cost recorded (nanoseconds)
      */
     public int getMaxCost() {
-        return maxCost;
+        return (int) Math.max(costs.max(), Integer.MIN_VALUE);
     }
     
     /**
@@ -53,7 +82,7 @@ public final class TimeLogger
      * @return the total time spent (nanoseconds)
      */
     public long getTotTimeSpent() {
-        return totTimeSpent;
+        return costs.sum();
     }
     
     /**
@@ -64,7 +93,7 @@ public final class TimeLogger
      * @return the total time spent
      */
     public long getTotTimeSpent(TimeUnit unit) {
-        return unit.convert(totTimeSpent, TimeUnit.NANOSECONDS);
+        return unit.convert(getTotTimeSpent(), TimeUnit.NANOSECONDS);
     }
     
     
@@ -77,65 +106,54 @@ public final class TimeLogger
      * @return the average time spent (nanoseconds)
      */
     public int avgTimeCost() {
-        return averageOf(totTimeSpent);
+        return Numbers.round0(costs.mean());
     }
     
+    /**
+     * Returns the time cost at the specified percentile (nanoseconds).<p>
+     * 
+     * The value is the upper bound of a histogram bucket and may be up to
+     * about 1.6% higher than the true value.
+     * 
+     * @param percentile  percentile, 0 to 100, for example 99.9
+     * 
+     * @return the time cost at the specified percentile (nanoseconds)
+     * 
+     * @see Distribution#percentile(double)
+     */
+    public long getPercentileCost(double percentile) {
+        return costs.percentile(percentile);
+    }
     
     
-    private long then;
-    
-    public void start() {
-        if (then != 0) {
-            throw new IllegalStateException("Already recording an operation.");
-        }
-        
-        then = System.nanoTime();
-    }
     
-    public void complete() {
-        final long now = System.nanoTime();
-        
-        if (then == 0) {
-            throw new IllegalStateException(
-                    "Please start an operation before completing another one.");
-        }
-        
-        try {
-            complete0(now);
-        }
-        finally {
-            then = 0;
-        }
+    /**
+     * Start an operation.
+     * 
+     * @return the start time, to be passed to {@link #complete(long)}
+     */
+    public long start() {
+        return System.nanoTime();
     }
     
-    private void complete0(long now) {
-        final int timeSpent  = Math.toIntExact(now - then);
-        
-        totTimeSpent = Math.addExact(totTimeSpent, timeSpent);
-        ++n;
-        
-        if (timeSpent < minCost) {
-            minCost = timeSpent;
-        }
-
-        if (timeSpent > maxCost) {
-            maxCost = timeSpent;
-        }
+    /**
+     * Complete an operation.
+     * 
+     * @param then  start time, as returned by {@link #start()}
+     */
+    public void complete(long then) {
+        record(System.nanoTime() - then);
     }
     
-    
-    
-    /*
-     *  --------------
-     * | INTERNAL API |
-     *  --------------
+    /**
+     * Record the time spent by one operation.
+     * 
+     * @param timeSpent  time spent (nanoseconds)
+     * 
+     * @throws ArithmeticException if {@code timeSpent} overflows an int
+     * @throws IllegalArgumentException if {@code timeSpent} is negative
      */
-    
-    private int averageOf(double sum) {
-        if (n == 0) {
-            return 0;
-        }
-        
-        return Numbers.round0(sum / n);
+    public void record(long timeSpent) {
+        costs.record(Math.toIntExact(timeSpent));
     }
 }
\ No newline at end of file
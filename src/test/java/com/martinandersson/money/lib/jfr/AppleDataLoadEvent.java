@@ -0,0 +1,34 @@
+package com.martinandersson.money.lib.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A read of all rows in the WIKI/AAPL file by {@code AppleData}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see com.martinandersson.money.lib.AppleData
+ */
+@Name(AppleDataLoadEvent.NAME)
+@Label("Apple Data Load")
+@Category({"Money Profiling", "Data"})
+public final class AppleDataLoadEvent extends Event
+{
+    public static final String NAME = "com.martinandersson.money.AppleDataLoad";
+    
+    @Label("Parser")
+    @Description("\"tree\" (javax.json object model) or \"stream\" (QuandlReader)")
+    public String parser;
+    
+    @Label("Rows")
+    public int rows;
+    
+    @Label("File Size")
+    @DataAmount
+    public long bytes;
+}
\ No newline at end of file
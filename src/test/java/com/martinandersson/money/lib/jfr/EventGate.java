@@ -0,0 +1,77 @@
+package com.martinandersson.money.lib.jfr;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+
+/**
+ * Cached answer to whether or not an event type is enabled by a recording.<p>
+ * 
+ * Asking {@code EventType.isEnabled()} is not free, and creating the event
+ * just to ask {@code shouldCommit()} is an allocation for each call (which
+ * escape analysis may or may not remove). Hot paths should therefore ask the
+ * gate first, and create the event only if the gate is open.<p>
+ * 
+ * The gate is updated by a {@code FlightRecorderListener} each time a
+ * recording change state. A running recording whose settings are changed
+ * without a change of state is not noticed until the next change of state.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public final class EventGate
+{
+    private static final List<EventGate> GATES = new CopyOnWriteArrayList<>();
+    
+    static {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(Recording recording) {
+                GATES.forEach(EventGate::update);
+            }
+        });
+    }
+    
+    /**
+     * Create a gate for the specified event type.
+     * 
+     * @param type  event type
+     * 
+     * @return a new gate
+     */
+    public static EventGate of(Class<? extends Event> type) {
+        EventGate g = new EventGate(EventType.getEventType(type));
+        GATES.add(g);
+        return g;
+    }
+    
+    
+    
+    private final EventType type;
+    
+    private volatile boolean open;
+    
+    private EventGate(EventType type) {
+        this.type = type;
+        update();
+    }
+    
+    
+    
+    /**
+     * Returns {@code true} if the event is enabled by a running recording,
+     * otherwise {@code false}.
+     * 
+     * @return {@code true} if the event is enabled by a running recording
+     */
+    public boolean isOpen() {
+        return open;
+    }
+    
+    private void update() {
+        open = type.isEnabled();
+    }
+}
\ No newline at end of file
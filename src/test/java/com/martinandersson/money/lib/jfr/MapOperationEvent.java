@@ -0,0 +1,43 @@
+package com.martinandersson.money.lib.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A put() or get() on a Chronicle Map that use {@code ChronicleMapLogger}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see com.martinandersson.money.lib.chroniclemap.ChronicleMapLogger
+ */
+@Name(MapOperationEvent.NAME)
+@Label("Chronicle Map Operation")
+@Category({"Money Profiling", "Chronicle Map"})
+public final class MapOperationEvent extends Event
+{
+    public static final String NAME = "com.martinandersson.money.MapOperation";
+    
+    @Label("Map")
+    @Description("Name given to the map logger, typically the serialization framework")
+    public String map;
+    
+    @Label("Operation")
+    public String operation;
+    
+    @Label("Type")
+    @Description("Class of the value put, not set for get()")
+    public String type;
+    
+    @Label("Key Size")
+    @DataAmount
+    public long keyBytes;
+    
+    @Label("Value Size")
+    @Description("Size of the value put, not set for get()")
+    @DataAmount
+    public long valueBytes;
+}
\ No newline at end of file
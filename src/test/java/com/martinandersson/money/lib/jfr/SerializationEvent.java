@@ -0,0 +1,47 @@
+package com.martinandersson.money.lib.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A serialization or deserialization by one of the {@code
+ * SerializationFramework}s.<p>
+ * 
+ * The duration of the event is the duration of the call, including stream
+ * headers and whatever else the framework does.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see com.martinandersson.money.lib.serializer.SerializationFramework
+ */
+@Name(SerializationEvent.NAME)
+@Label("Serialization")
+@Category({"Money Profiling", "Serialization"})
+public final class SerializationEvent extends Event
+{
+    public static final String NAME = "com.martinandersson.money.Serialization";
+    
+    @Label("Framework")
+    public String framework;
+    
+    @Label("Operation")
+    @Description("Name of the Serializer method, for example \"deserialize\"")
+    public String operation;
+    
+    @Label("Type")
+    @Description("Class of the (first) object serialized or deserialized")
+    public String type;
+    
+    @Label("Count")
+    @Description("Number of objects serialized or deserialized")
+    public int count;
+    
+    @Label("Size")
+    @Description("Number of bytes written or read")
+    @DataAmount
+    public long bytes;
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+/**
+ * Package of Java Flight Recorder events.<p>
+ * 
+ * The events are emitted by {@link
+ * com.martinandersson.money.lib.serializer.SerializationFramework}, {@link
+ * com.martinandersson.money.lib.chroniclemap.ChronicleMapLogger} and {@link
+ * com.martinandersson.money.lib.AppleData}. Unless a recording is running
+ * with the event enabled, emitting an event costs next to nothing. The
+ * serializers and the map logger are called on hot paths and ask an {@link
+ * EventGate} before the event object is even created, so they allocate
+ * nothing. {@code AppleData} emit one event per load, which is created, begun
+ * and thrown away.<p>
+ * 
+ * All events are in the "Money Profiling" category. Enable them using a
+ * recording setting like so:
+ * <pre>{@code
+ * 
+ *   java -XX:StartFlightRecording=filename=money.jfr,settings=profile ...
+ * }</pre>
+ * 
+ * Then open the file in JDK Mission Control, where they can be put side by
+ * side with garbage collections and safepoints.<p>
+ * 
+ * The {@code jdk.jfr} API exist in JDK 11 and later, and in OpenJDK 8 from
+ * update 262.
+ */
+package com.martinandersson.money.lib.jfr;
\ No newline at end of file
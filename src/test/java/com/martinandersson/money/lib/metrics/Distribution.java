@@ -0,0 +1,117 @@
+package com.martinandersson.money.lib.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A distribution of non-negative values, for example the time cost of an
+ * operation in nanoseconds or the size of a serialized object in bytes.<p>
+ * 
+ * Count, sum, min and max are exact. Percentiles are read from a {@link
+ * LatencyHistogram}; values larger than {@code Integer.MAX_VALUE} are put in
+ * the histogram's last bucket.<p>
+ * 
+ * The distribution is thread-safe and lock-free. Counters are {@code
+ * LongAdder}s and min/max are {@code LongAccumulator}s, which spread contended
+ * updates over many cells instead of having all threads compete for one memory
+ * location. The getters read each accumulator separately. If values are
+ * recorded concurrently, then the values returned may not be from the same
+ * point in time, for example the mean may be computed using a count that does
+ * not yet include the last value.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public final class Distribution
+{
+    private final LongAdder count = new LongAdder(),
+                            sum   = new LongAdder();
+    
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE),
+                                  max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    
+    
+    
+    /**
+     * Record a value.
+     * 
+     * @param value  value to record
+     * 
+     * @throws IllegalArgumentException if {@code value} is negative
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        
+        histogram.record((int) Math.min(value, Integer.MAX_VALUE));
+        sum.add(value);
+        count.increment();
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+    
+    /**
+     * Returns the count of values recorded.
+     * 
+     * @return the count of values recorded
+     */
+    public long count() {
+        return count.sum();
+    }
+    
+    /**
+     * Returns the sum of all values recorded.
+     * 
+     * @return the sum of all values recorded
+     */
+    public long sum() {
+        return sum.sum();
+    }
+    
+    /**
+     * Returns the smallest value recorded.
+     * 
+     * @return the smallest value recorded, or {@code Long.MAX_VALUE} if no
+     *         values have been recorded
+     */
+    public long min() {
+        return min.get();
+    }
+    
+    /**
+     * Returns the largest value recorded.
+     * 
+     * @return the largest value recorded, or {@code Long.MIN_VALUE} if no
+     *         values have been recorded
+     */
+    public long max() {
+        return max.get();
+    }
+    
+    /**
+     * Returns the mean of all values recorded.
+     * 
+     * @return the mean of all values recorded, or 0 if no values have been
+     *         recorded
+     */
+    public double mean() {
+        final long n = count();
+        return n == 0 ? 0 : (double) sum() / n;
+    }
+    
+    /**
+     * Returns the value at the specified {@code percentile}.
+     * 
+     * @param percentile  percentile, 0 to 100, for example 99.9
+     * 
+     * @return the value at the specified {@code percentile}, or 0 if no
+     *         values have been recorded
+     * 
+     * @see LatencyHistogram#getValueAtPercentile(double)
+     */
+    public long percentile(double percentile) {
+        return histogram.getValueAtPercentile(percentile);
+    }
+}
\ No newline at end of file
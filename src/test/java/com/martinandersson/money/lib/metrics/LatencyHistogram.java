@@ -0,0 +1,157 @@
+package com.martinandersson.money.lib.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, log-linear histogram of latencies, in the spirit of
+ * HdrHistogram.<p>
+ * 
+ * Values from 0 to {@value #SUB_BUCKETS} - 1 are counted exactly. Above that,
+ * each power of two is split into {@value #SUB_BUCKETS} equally wide buckets,
+ * so a value is never off by more than 1/{@value #SUB_BUCKETS} (about 1.6%) of
+ * itself. All {@code int} values fit in {@value #LENGTH} buckets, which is the
+ * entire memory footprint of the histogram.<p>
+ * 
+ * Recording a value is a few shifts and one increment of an {@code
+ * AtomicLongArray} element; no allocation and no locks. Reading a percentile
+ * walk the buckets and may run concurrently with recording, in which case the
+ * result is based on whatever counts the walk happened to see.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see Distribution
+ */
+public final class LatencyHistogram
+{
+    /** Number of bits used to index a sub-bucket. */
+    private static final int SUB_BUCKET_BITS = 6;
+    
+    /** Number of sub-buckets per power of two. */
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    
+    /** Number of buckets needed to cover all non-negative {@code int}s. */
+    public static final int LENGTH = (Integer.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(LENGTH);
+    
+    
+    
+    /**
+     * Record a value.
+     * 
+     * @param value  value to record, for example a latency in nanoseconds
+     * 
+     * @throws IllegalArgumentException if {@code value} is negative
+     */
+    public void record(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        
+        counts.incrementAndGet(index(value));
+    }
+    
+    /**
+     * Returns the count of values recorded.
+     * 
+     * @return the count of values recorded
+     */
+    public long count() {
+        long n = 0;
+        
+        for (int i = 0; i < LENGTH; ++i) {
+            n += counts.get(i);
+        }
+        
+        return n;
+    }
+    
+    /**
+     * Returns the value at the specified {@code percentile}.<p>
+     * 
+     * The returned value is the highest value that fall into the same bucket as
+     * the value at the percentile. I.e., the true value is equal to or slightly
+     * less than what this method return.
+     * 
+     * @param percentile  percentile, 0 to 100, for example 99.9
+     * 
+     * @return the value at the specified {@code percentile}, or 0 if no
+     *         values have been recorded
+     * 
+     * @throws IllegalArgumentException if {@code percentile} is out of range
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile out of range: " + percentile);
+        }
+        
+        final long n = count();
+        
+        if (n == 0) {
+            return 0;
+        }
+        
+        final long target = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        
+        long seen = 0;
+        int last = 0;
+        
+        for (int i = 0; i < LENGTH; ++i) {
+            final long c = counts.get(i);
+            
+            if (c == 0) {
+                continue;
+            }
+            
+            seen += c;
+            last = i;
+            
+            if (seen >= target) {
+                break;
+            }
+        }
+        
+        return highestValue(last);
+    }
+    
+    
+    
+    /*
+     *  --------------
+     * | INTERNAL API |
+     *  --------------
+     */
+    
+    /**
+     * Returns the bucket index of a non-negative value.<p>
+     * 
+     * The first {@code 2 * SUB_BUCKETS} buckets have a width of 1. Thereafter,
+     * the width double every {@code SUB_BUCKETS} bucket.
+     */
+    static int index(int value) {
+        final int magnitude = 31 - Integer.numberOfLeadingZeros(value),
+                  shift = Math.max(0, magnitude - SUB_BUCKET_BITS);
+        
+        return (shift << SUB_BUCKET_BITS) + (value >>> shift);
+    }
+    
+    /**
+     * Returns the lowest value that map to the specified bucket index.
+     */
+    static long lowestValue(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        
+        return (long) ((index & (SUB_BUCKETS - 1)) + SUB_BUCKETS) << shift;
+    }
+    
+    /**
+     * Returns the highest value that map to the specified bucket index.
+     */
+    static long highestValue(int index) {
+        return lowestValue(index + 1) - 1;
+    }
+}
\ No newline at end of file
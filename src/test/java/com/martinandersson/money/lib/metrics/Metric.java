@@ -0,0 +1,156 @@
+package com.martinandersson.money.lib.metrics;
+
+import java.util.Comparator;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A metric of a {@link MetricsRegistry}.<p>
+ * 
+ * A metric is identified by its name and two labels: the serialization
+ * framework and the price type. Labels that do not apply are the empty string.
+ * A counter is backed by a {@code LongAdder}, a timer and a size is backed by a
+ * {@link Distribution}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public final class Metric
+{
+    /**
+     * The kind of a metric.
+     */
+    public enum Kind
+    {
+        /** A count of something, for example objects serialized. */
+        COUNTER (""),
+        
+        /** A distribution of time costs in nanoseconds. */
+        TIMER ("ns"),
+        
+        /** A distribution of sizes in bytes. */
+        SIZE ("bytes");
+        
+        private final String unit;
+        
+        private Kind(String unit) {
+            this.unit = unit;
+        }
+        
+        /**
+         * Returns the unit of the values, or the empty string for a counter.
+         * 
+         * @return the unit of the values, or the empty string for a counter
+         */
+        public String unit() {
+            return unit;
+        }
+    }
+    
+    /**
+     * Order metrics by name, framework and type.
+     */
+    public static final Comparator<Metric> ORDER
+            = Comparator.comparing(Metric::name)
+                        .thenComparing(Metric::framework)
+                        .thenComparing(Metric::type);
+    
+    
+    
+    private final String name,
+                         framework,
+                         type;
+    
+    private final Kind kind;
+    
+    private final LongAdder counter;
+    
+    private final Distribution distribution;
+    
+    Metric(String name, String framework, String type, Kind kind) {
+        this.name = requireNonNull(name);
+        this.framework = requireNonNull(framework);
+        this.type = requireNonNull(type);
+        this.kind = requireNonNull(kind);
+        
+        if (kind == Kind.COUNTER) {
+            counter = new LongAdder();
+            distribution = null;
+        }
+        else {
+            counter = null;
+            distribution = new Distribution();
+        }
+    }
+    
+    
+    
+    public String name() {
+        return name;
+    }
+    
+    public String framework() {
+        return framework;
+    }
+    
+    public String type() {
+        return type;
+    }
+    
+    public Kind kind() {
+        return kind;
+    }
+    
+    /**
+     * Returns the counter of this metric.
+     * 
+     * @return the counter of this metric
+     * 
+     * @throws IllegalStateException if this metric is not a counter
+     */
+    public LongAdder counter() {
+        if (counter == null) {
+            throw new IllegalStateException(name + " is a " + kind + ", not a counter.");
+        }
+        
+        return counter;
+    }
+    
+    /**
+     * Returns the distribution of this metric.
+     * 
+     * @return the distribution of this metric
+     * 
+     * @throws IllegalStateException if this metric is a counter
+     */
+    public Distribution distribution() {
+        if (distribution == null) {
+            throw new IllegalStateException(name + " is a counter.");
+        }
+        
+        return distribution;
+    }
+    
+    /**
+     * Returns the count of this metric.<p>
+     * 
+     * For a counter, this is the value of the counter. For a timer and a size,
+     * this is the count of values recorded.
+     * 
+     * @return the count of this metric
+     */
+    public long count() {
+        return counter != null ? counter.sum() : distribution.count();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+                "name=" + name +
+                ", framework=" + framework +
+                ", type=" + type +
+                ", kind=" + kind + '}';
+    }
+}
\ No newline at end of file
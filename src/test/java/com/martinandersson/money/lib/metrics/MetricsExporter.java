@@ -0,0 +1,50 @@
+package com.martinandersson.money.lib.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Write metrics in some format.<p>
+ * 
+ * Known formats are provided by {@link MetricsFormat}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+@FunctionalInterface
+public interface MetricsExporter
+{
+    /**
+     * Write the specified {@code metrics} to the specified {@code out}.
+     * 
+     * @param metrics  metrics to write
+     * @param out      target
+     * 
+     * @throws IOException if {@code out} throws
+     */
+    void export(List<Metric> metrics, Appendable out) throws IOException;
+    
+    /**
+     * Write all metrics of the specified {@code registry} to the specified
+     * {@code file}, using UTF-8.<p>
+     * 
+     * The file is created if it does not exist, and replaced if it does.
+     * 
+     * @param registry  registry to export
+     * @param file      target
+     * 
+     * @throws UncheckedIOException if an I/O error occurs
+     */
+    default void export(MetricsRegistry registry, Path file) {
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            export(registry.metrics(), w);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+package com.martinandersson.money.lib.metrics;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Provides the {@code MetricsExporter} of all known formats:
+ * 
+ * <ul>
+ *   <li>{@linkplain #TEXT Text}</li>
+ *   <li>{@linkplain #CSV CSV}</li>
+ *   <li>{@linkplain #PROMETHEUS Prometheus}</li>
+ * </ul>
+ * 
+ * Timers and sizes are written with count, sum, min, max, mean and
+ * percentiles p50, p90, p99, p99.9 and p99.99.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public enum MetricsFormat implements MetricsExporter
+{
+    /**
+     * A human readable dump, one metric per line.
+     */
+    TEXT {
+        @Override
+        public void export(List<Metric> metrics, Appendable out) throws IOException {
+            for (Metric m : metrics) {
+                out.append(m.name())
+                   .append(" [framework=").append(m.framework())
+                   .append(", type=").append(m.type()).append("]");
+                
+                if (m.kind() == Metric.Kind.COUNTER) {
+                    out.append(" count=").append(Long.toString(m.count()));
+                }
+                else {
+                    Distribution d = m.distribution();
+                    
+                    out.append(" (").append(m.kind().unit()).append(")")
+                       .append(" count=").append(Long.toString(d.count()))
+                       .append(" sum=").append(Long.toString(d.sum()));
+                    
+                    if (d.count() > 0) {
+                        out.append(" min=").append(Long.toString(d.min()))
+                           .append(" max=").append(Long.toString(d.max()))
+                           .append(" mean=").append(Long.toString(Math.round(d.mean())));
+                        
+                        for (double p : PERCENTILES) {
+                            out.append(" p").append(percentileName(p)).append('=')
+                               .append(Long.toString(d.percentile(p)));
+                        }
+                    }
+                }
+                
+                out.append(System.lineSeparator());
+            }
+        }
+    },
+    
+    /**
+     * Comma separated values with a header row.<p>
+     * 
+     * Columns that do not apply to a counter, and statistics of an empty
+     * distribution, are left empty.
+     */
+    CSV {
+        @Override
+        public void export(List<Metric> metrics, Appendable out) throws IOException {
+            out.append("name,kind,unit,framework,type,count,sum,min,max,mean");
+            
+            for (double p : PERCENTILES) {
+                out.append(",p").append(percentileName(p));
+            }
+            
+            out.append(System.lineSeparator());
+            
+            for (Metric m : metrics) {
+                out.append(csv(m.name())).append(',')
+                   .append(m.kind().name()).append(',')
+                   .append(m.kind().unit()).append(',')
+                   .append(csv(m.framework())).append(',')
+                   .append(csv(m.type())).append(',')
+                   .append(Long.toString(m.count()));
+                
+                if (m.kind() == Metric.Kind.COUNTER) {
+                    for (int i = 0; i < 5 + PERCENTILES.length - 1; ++i) {
+                        out.append(',');
+                    }
+                }
+                else {
+                    Distribution d = m.distribution();
+                    out.append(',').append(Long.toString(d.sum()));
+                    
+                    if (d.count() == 0) {
+                        for (int i = 0; i < 3 + PERCENTILES.length; ++i) {
+                            out.append(',');
+                        }
+                    }
+                    else {
+                        out.append(',').append(Long.toString(d.min()))
+                           .append(',').append(Long.toString(d.max()))
+                           .append(',').append(Double.toString(d.mean()));
+                        
+                        for (double p : PERCENTILES) {
+                            out.append(',').append(Long.toString(d.percentile(p)));
+                        }
+                    }
+                }
+                
+                out.append(System.lineSeparator());
+            }
+        }
+        
+        private String csv(String value) {
+            if (value.indexOf(',') == -1 && value.indexOf('"') == -1) {
+                return value;
+            }
+            
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    },
+    
+    /**
+     * The Prometheus text exposition format, for example to be picked up by
+     * the node exporter's textfile collector.<p>
+     * 
+     * Metric names are prefixed "money_" and characters other than letters,
+     * digits and underscore are replaced with an underscore. A counter get the
+     * suffix "_total". A timer is a summary in seconds ("_seconds") and a size
+     * is a summary in bytes ("_bytes").
+     */
+    PROMETHEUS {
+        @Override
+        public void export(List<Metric> metrics, Appendable out) throws IOException {
+            final String nl = "\n";
+            String previous = null;
+            
+            for (Metric m : metrics) {
+                final String name = prometheusName(m);
+                
+                if (!name.equals(previous)) {
+                    out.append("# TYPE ").append(name).append(' ')
+                       .append(m.kind() == Metric.Kind.COUNTER ? "counter" : "summary")
+                       .append(nl);
+                    
+                    previous = name;
+                }
+                
+                final String labels = "framework=\"" + escape(m.framework()) +
+                                      "\",type=\"" + escape(m.type()) + '"';
+                
+                if (m.kind() == Metric.Kind.COUNTER) {
+                    out.append(name).append('{').append(labels).append("} ")
+                       .append(Long.toString(m.count())).append(nl);
+                    
+                    continue;
+                }
+                
+                final Distribution d = m.distribution();
+                
+                if (d.count() > 0) {
+                    for (double p : PERCENTILES) {
+                        out.append(name).append('{').append(labels)
+                           .append(",quantile=\"").append(quantile(p)).append("\"} ")
+                           .append(value(m, d.percentile(p))).append(nl);
+                    }
+                }
+                
+                out.append(name).append("_sum{").append(labels).append("} ")
+                   .append(value(m, d.sum())).append(nl);
+                
+                out.append(name).append("_count{").append(labels).append("} ")
+                   .append(Long.toString(d.count())).append(nl);
+            }
+        }
+        
+        private String prometheusName(Metric m) {
+            final String suffix;
+            
+            switch (m.kind()) {
+                case COUNTER: suffix = "_total";   break;
+                case TIMER:   suffix = "_seconds"; break;
+                case SIZE:    suffix = "_bytes";   break;
+                default:
+                    throw new AssertionError(m.kind());
+            }
+            
+            String name = "money_" + m.name().replaceAll("[^a-zA-Z0-9_]", "_");
+            
+            return name.endsWith(suffix) ? name : name + suffix;
+        }
+        
+        /**
+         * Timers are written in seconds, sizes in bytes.
+         */
+        private String value(Metric m, long value) {
+            return m.kind() == Metric.Kind.TIMER ?
+                    Double.toString(value / 1e9) :
+                    Long.toString(value);
+        }
+        
+        private String quantile(double percentile) {
+            return BigDecimal.valueOf(percentile)
+                    .movePointLeft(2)
+                    .stripTrailingZeros()
+                    .toPlainString();
+        }
+        
+        private String escape(String value) {
+            return value.replace("\\", "\\\\")
+                        .replace("\"", "\\\"")
+                        .replace("\n", "\\n");
+        }
+    };
+    
+    
+    
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    
+    /**
+     * Returns the percentile as it is written in a column or key, for example
+     * "99.9" or "50".
+     */
+    private static String percentileName(double percentile) {
+        return percentile == Math.rint(percentile) ?
+                Long.toString((long) percentile) :
+                Double.toString(percentile);
+    }
+}
\ No newline at end of file
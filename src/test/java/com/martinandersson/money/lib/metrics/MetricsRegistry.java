@@ -0,0 +1,182 @@
+package com.martinandersson.money.lib.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A registry of counters, timers and size distributions, keyed by metric name,
+ * serialization framework and price type.<p>
+ * 
+ * Producers feed primitive values; nanoseconds and bytes. No string is
+ * formatted until the metrics are {@linkplain MetricsExporter exported}.
+ * Looking up a metric is a {@code ConcurrentHashMap} get, recording a value is
+ * lock-free. A producer that record often should keep the metric it got rather
+ * than look it up every time.<p>
+ * 
+ * {@code SerializationFramework} record into the {@linkplain #global() global}
+ * registry. {@code ChronicleMapLogger} record into the registry it was given,
+ * by default one of its own.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see MetricsFormat
+ */
+public final class MetricsRegistry
+{
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+    
+    /**
+     * Returns the global registry.
+     * 
+     * @return the global registry
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+    
+    
+    
+    private final ConcurrentMap<Key, Metric> metrics = new ConcurrentHashMap<>();
+    
+    private volatile int generation;
+    
+    
+    
+    /**
+     * Returns the counter of the specified metric, created if need be.
+     * 
+     * @param name       metric name, for example "serializer.serializeAll.objects"
+     * @param framework  serialization framework, or the empty string
+     * @param type       price type, or the empty string
+     * 
+     * @return the counter of the specified metric
+     * 
+     * @throws IllegalArgumentException if the metric exist but is not a counter
+     */
+    public LongAdder counter(String name, String framework, String type) {
+        return get(name, framework, type, Metric.Kind.COUNTER).counter();
+    }
+    
+    /**
+     * Returns the timer of the specified metric, created if need be.<p>
+     * 
+     * Values recorded are nanoseconds.
+     * 
+     * @param name       metric name, for example "serializer.serialize"
+     * @param framework  serialization framework, or the empty string
+     * @param type       price type, or the empty string
+     * 
+     * @return the timer of the specified metric
+     * 
+     * @throws IllegalArgumentException if the metric exist but is not a timer
+     */
+    public Distribution timer(String name, String framework, String type) {
+        return get(name, framework, type, Metric.Kind.TIMER).distribution();
+    }
+    
+    /**
+     * Returns the size distribution of the specified metric, created if need
+     * be.<p>
+     * 
+     * Values recorded are bytes.
+     * 
+     * @param name       metric name, for example "serializer.serialize.bytes"
+     * @param framework  serialization framework, or the empty string
+     * @param type       price type, or the empty string
+     * 
+     * @return the size distribution of the specified metric
+     * 
+     * @throws IllegalArgumentException if the metric exist but is not a size
+     */
+    public Distribution sizes(String name, String framework, String type) {
+        return get(name, framework, type, Metric.Kind.SIZE).distribution();
+    }
+    
+    /**
+     * Returns all metrics, ordered by name, framework and type.
+     * 
+     * @return all metrics, ordered by name, framework and type
+     */
+    public List<Metric> metrics() {
+        List<Metric> all = new ArrayList<>(metrics.values());
+        all.sort(Metric.ORDER);
+        return all;
+    }
+    
+    /**
+     * Remove all metrics.<p>
+     * 
+     * Counters and distributions already handed out keep working, but are no
+     * longer part of this registry. A producer that keep its metrics should
+     * look them up again when the {@linkplain #generation() generation} has
+     * changed.
+     */
+    public void clear() {
+        metrics.clear();
+        ++generation;
+    }
+    
+    /**
+     * Returns the generation of this registry, which is incremented each time
+     * the registry is {@linkplain #clear() cleared}.
+     * 
+     * @return the generation of this registry
+     */
+    public int generation() {
+        return generation;
+    }
+    
+    
+    
+    private Metric get(String name, String framework, String type, Metric.Kind kind) {
+        final Key key = new Key(name, framework, type);
+        
+        Metric m = metrics.get(key);
+        
+        if (m == null) {
+            m = metrics.computeIfAbsent(key, k -> new Metric(name, framework, type, kind));
+        }
+        
+        if (m.kind() != kind) {
+            throw new IllegalArgumentException(
+                    "Asked for a " + kind + ", but " + name + " is a " + m.kind() + ".");
+        }
+        
+        return m;
+    }
+    
+    private static final class Key
+    {
+        final String name,
+                     framework,
+                     type;
+        
+        Key(String name, String framework, String type) {
+            this.name = name;
+            this.framework = framework;
+            this.type = type;
+        }
+        
+        @Override
+        public int hashCode() {
+            // Objects.hash() would allocate an array:
+            return (31 * name.hashCode() + framework.hashCode()) * 31 + type.hashCode();
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            
+            Key that = (Key) obj;
+            
+            return this.name.equals(that.name) &&
+                   this.framework.equals(that.framework) &&
+                   this.type.equals(that.type);
+        }
+    }
+}
\ No newline at end of file
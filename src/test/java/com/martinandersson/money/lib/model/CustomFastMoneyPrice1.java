@@ -1,7 +1,10 @@
 package com.martinandersson.money.lib.model;
 
 import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.Currencies;
+import com.martinandersson.money.lib.CurrencyCodes;
 import com.martinandersson.money.lib.MonetaHack;
+import com.martinandersson.money.lib.Numbers;
 import static com.martinandersson.money.lib.model.FastMoneyPrice.MAX_SCALE;
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -27,7 +30,7 @@ import static java.util.Objects.requireNonNull;
  */
 public class CustomFastMoneyPrice1 implements Price, Serializable
 {
-    private static final long serialVersionUID = 1;
+    private static final long serialVersionUID = 2;
     
     public static final CustomFastMoneyPrice1 EXACT_SIZE
             = new CustomFastMoneyPrice1(
@@ -55,6 +58,27 @@ public class CustomFastMoneyPrice1 implements Price, Serializable
         return new CustomFastMoneyPrice1(date, bd);
     }
     
+    /**
+     * Construct a new {@code CustomFastMoneyPrice1} using specified {@code date} and
+     * textual {@code adjClose}.<p>
+     * 
+     * The text is parsed straight into the scaled long that {@code FastMoney}
+     * store internally, rounding to {@value FastMoneyPrice#MAX_SCALE} decimal
+     * places using {@code RoundingMode.HALF_EVEN}. No {@code BigDecimal} is
+     * created.
+     * 
+     * @param date      date of the adjusted closing price
+     * @param adjClose  adjusted close, for example "93.4"
+     * 
+     * @return a new CustomFastMoneyPrice1
+     * 
+     * @see Numbers#parseScaled(CharSequence, int)
+     */
+    public static CustomFastMoneyPrice1 ofText(LocalDate date, CharSequence adjClose) {
+        return new CustomFastMoneyPrice1(date, MonetaHack.newFastMoney(
+                Numbers.parseScaled(adjClose, MAX_SCALE), "USD"));
+    }
+    
     
     /** Treat as final. */
     private transient LocalDate date;
@@ -65,7 +89,7 @@ public class CustomFastMoneyPrice1 implements Price, Serializable
     
     
     private CustomFastMoneyPrice1(LocalDate date, BigDecimal adjClose) {
-        this(date, FastMoney.of(adjClose, "USD"));
+        this(date, FastMoney.of(adjClose, Currencies.get("USD")));
     }
     
     private CustomFastMoneyPrice1(LocalDate date, FastMoney adjClose) {
@@ -131,14 +155,14 @@ public class CustomFastMoneyPrice1 implements Price, Serializable
     private void writeObject(ObjectOutputStream out) throws IOException {
         out.writeShort(LocalDates.toShort(date));
         out.writeLong(MonetaHack.getNumber(adjClose));
-        out.writeObject(adjClose.getCurrency().getCurrencyCode());
+        CurrencyCodes.write(out, adjClose.getCurrency().getCurrencyCode());
     }
     
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
         date = LocalDates.fromShort(in.readShort());
 
         long val = in.readLong();
-        String currency = (String) in.readObject();
+        String currency = CurrencyCodes.read(in);
 
         adjClose = MonetaHack.newFastMoney(val, currency);
     }
@@ -1,7 +1,10 @@
 package com.martinandersson.money.lib.model;
 
 import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.Currencies;
+import com.martinandersson.money.lib.CurrencyCodes;
 import com.martinandersson.money.lib.MonetaHack;
+import com.martinandersson.money.lib.Numbers;
 import static com.martinandersson.money.lib.model.FastMoneyPrice.MAX_SCALE;
 import java.io.Externalizable;
 import java.io.IOException;
@@ -26,7 +29,7 @@ import static java.util.Objects.requireNonNull;
  */
 public class CustomFastMoneyPrice2 implements Price, Externalizable
 {
-    private static final long serialVersionUID = 1;
+    private static final long serialVersionUID = 2;
     
     public static final CustomFastMoneyPrice2 EXACT_SIZE
             = new CustomFastMoneyPrice2(
@@ -54,6 +57,27 @@ public class CustomFastMoneyPrice2 implements Price, Externalizable
         return new CustomFastMoneyPrice2(date, bd);
     }
     
+    /**
+     * Construct a new {@code CustomFastMoneyPrice2} using specified {@code date} and
+     * textual {@code adjClose}.<p>
+     * 
+     * The text is parsed straight into the scaled long that {@code FastMoney}
+     * store internally, rounding to {@value FastMoneyPrice#MAX_SCALE} decimal
+     * places using {@code RoundingMode.HALF_EVEN}. No {@code BigDecimal} is
+     * created.
+     * 
+     * @param date      date of the adjusted closing price
+     * @param adjClose  adjusted close, for example "93.4"
+     * 
+     * @return a new CustomFastMoneyPrice2
+     * 
+     * @see Numbers#parseScaled(CharSequence, int)
+     */
+    public static CustomFastMoneyPrice2 ofText(LocalDate date, CharSequence adjClose) {
+        return new CustomFastMoneyPrice2(date, MonetaHack.newFastMoney(
+                Numbers.parseScaled(adjClose, MAX_SCALE), "USD"));
+    }
+    
     
     /** Treat as final. */
     private LocalDate date;
@@ -64,7 +88,7 @@ public class CustomFastMoneyPrice2 implements Price, Externalizable
     
     
     private CustomFastMoneyPrice2(LocalDate date, BigDecimal adjClose) {
-        this(date, FastMoney.of(adjClose, "USD"));
+        this(date, FastMoney.of(adjClose, Currencies.get("USD")));
     }
     
     private CustomFastMoneyPrice2(LocalDate date, FastMoney adjClose) {
@@ -137,7 +161,7 @@ public class CustomFastMoneyPrice2 implements Price, Externalizable
     public void writeExternal(ObjectOutput out) throws IOException {
         out.writeShort(LocalDates.toShort(date));
         out.writeLong(MonetaHack.getNumber(adjClose));
-        out.writeObject(adjClose.getCurrency().getCurrencyCode());
+        CurrencyCodes.write(out, adjClose.getCurrency().getCurrencyCode());
     }
     
     /**
@@ -148,7 +172,7 @@ public class CustomFastMoneyPrice2 implements Price, Externalizable
         date = LocalDates.fromShort(in.readShort());
 
         long val = in.readLong();
-        String currency = (String) in.readObject();
+        String currency = CurrencyCodes.read(in);
 
         adjClose = MonetaHack.newFastMoney(val, currency);
     }
@@ -1,5 +1,8 @@
 package com.martinandersson.money.lib.model;
 
+import com.martinandersson.money.lib.Currencies;
+import com.martinandersson.money.lib.MonetaHack;
+import com.martinandersson.money.lib.Numbers;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -69,10 +72,34 @@ public class FastMoneyPrice implements Price, Serializable
         return new FastMoneyPrice(date, bd);
     }
     
+    /**
+     * Construct a new {@code FastMoneyPrice} using specified {@code date} and
+     * textual {@code adjClose}.<p>
+     * 
+     * The text is parsed straight into the scaled long that {@code FastMoney}
+     * store internally, rounding to {@value #MAX_SCALE} decimal places using
+     * {@code RoundingMode.HALF_EVEN}. No {@code BigDecimal} is created.
+     * 
+     * @param date      date of the adjusted closing price
+     * @param adjClose  adjusted close, for example "93.4"
+     * 
+     * @return a new FastMoneyPrice
+     * 
+     * @see Numbers#parseScaled(CharSequence, int)
+     */
+    public static FastMoneyPrice ofText(LocalDate date, CharSequence adjClose) {
+        return new FastMoneyPrice(date, MonetaHack.newFastMoney(
+                Numbers.parseScaled(adjClose, MAX_SCALE), "USD"));
+    }
+    
     public static FastMoneyPrice ofNumber(LocalDate date, Number number) {
         return new FastMoneyPrice(date, number);
     }
     
+    public static FastMoneyPrice ofFastMoney(LocalDate date, FastMoney adjClose) {
+        return new FastMoneyPrice(date, adjClose);
+    }
+    
     
     
     private final LocalDate date;
@@ -82,7 +109,7 @@ public class FastMoneyPrice implements Price, Serializable
     
     
     private FastMoneyPrice(LocalDate date, Number adjClose) {
-        this(date, FastMoney.of(adjClose, "USD"));
+        this(date, FastMoney.of(adjClose, Currencies.get("USD")));
     }
     
     private FastMoneyPrice(LocalDate date, FastMoney adjClose) {
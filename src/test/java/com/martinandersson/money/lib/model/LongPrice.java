@@ -0,0 +1,195 @@
+package com.martinandersson.money.lib.model;
+
+import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.MonetaHack;
+import com.martinandersson.money.lib.Numbers;
+import static com.martinandersson.money.lib.model.FastMoneyPrice.MAX_SCALE;
+import java.io.Serializable;
+import java.time.LocalDate;
+import javax.json.JsonNumber;
+import javax.money.MonetaryAmount;
+import org.javamoney.moneta.FastMoney;
+
+/**
+ * Represents an adjusted close, internally stored as two primitives: the date
+ * packed into a {@code short} and the amount as the scaled {@code long} that
+ * {@code FastMoney} use internally.<p>
+ * 
+ * A {@code FastMoneyPrice} is an object graph of a {@code LocalDate}, a {@code
+ * FastMoney} and the {@code FastMoney}'s {@code CurrencyUnit}. This model has no
+ * references at all. The {@code LocalDate} and {@code FastMoney} are
+ * materialized on each call to the accessor methods, which may be
+ * regrettable for a client that call these methods often, but this model is
+ * optimized for being stored in large quantities - not for being read.<p>
+ * 
+ * The currency used is "USD".<p>
+ * 
+ * Please note that this implementation implements {@code Serializable}, but not
+ * {@code Externalizable}. The serialization protocol has not been customized
+ * (method {@code writeObject()} and {@code readObject()} is not implemented).
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see LocalDates#toShort(LocalDate)
+ * @see MonetaHack#getNumber(FastMoney)
+ */
+public class LongPrice implements Price, Serializable
+{
+    private static final long serialVersionUID = 1;
+    
+    public static final LongPrice EXACT_SIZE = new LongPrice(
+            LocalDates.toShort(LocalDate.of(2010, 1, 1)),
+            1612535);
+    
+    /**
+     * Construct a new {@code LongPrice} using specified {@code date} and
+     * {@code adjClose}.<p>
+     * 
+     * If need be, then this method will automatically round the number to
+     * {@value FastMoneyPrice#MAX_SCALE} decimal places using {@code
+     * RoundingMode.HALF_EVEN}.
+     * 
+     * @param date      date of the adjusted closing price
+     * @param adjClose  adjusted close
+     * 
+     * @return a new LongPrice
+     * 
+     * @see FastMoneyPrice#ofJson(LocalDate, JsonNumber)
+     */
+    public static LongPrice ofJson(LocalDate date, JsonNumber adjClose) {
+        return new LongPrice(
+                LocalDates.toShort(date),
+                Numbers.toScaled(adjClose.bigDecimalValue(), MAX_SCALE));
+    }
+    
+    /**
+     * Construct a new {@code LongPrice} using specified {@code date} and
+     * textual {@code adjClose}.<p>
+     * 
+     * The text is parsed straight into the scaled long, rounding to {@value
+     * FastMoneyPrice#MAX_SCALE} decimal places using {@code
+     * RoundingMode.HALF_EVEN}. No {@code BigDecimal} is created.
+     * 
+     * @param date      date of the adjusted closing price
+     * @param adjClose  adjusted close, for example "93.4"
+     * 
+     * @return a new LongPrice
+     * 
+     * @see Numbers#parseScaled(CharSequence, int)
+     */
+    public static LongPrice ofText(LocalDate date, CharSequence adjClose) {
+        return new LongPrice(
+                LocalDates.toShort(date),
+                Numbers.parseScaled(adjClose, MAX_SCALE));
+    }
+    
+    public static LongPrice ofFastMoney(LocalDate date, FastMoney adjClose) {
+        return new LongPrice(
+                LocalDates.toShort(date),
+                MonetaHack.getNumber(adjClose));
+    }
+    
+    /**
+     * Construct a new {@code LongPrice} using the already packed values.
+     * 
+     * @param date      date as produced by {@link LocalDates#toShort(LocalDate)}
+     * @param adjClose  adjusted close, scaled {@value FastMoneyPrice#MAX_SCALE}
+     *                  decimal places to the right
+     * 
+     * @return a new LongPrice
+     */
+    public static LongPrice ofPacked(short date, long adjClose) {
+        return new LongPrice(date, adjClose);
+    }
+    
+    
+    
+    private final short date;
+    
+    private final long adjClose;
+    
+    
+    
+    private LongPrice(short date, long adjClose) {
+        this.date = date;
+        this.adjClose = adjClose;
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @implNote
+     * A new {@code LocalDate} is unpacked for each call.
+     */
+    @Override
+    public LocalDate getDate() {
+        return LocalDates.fromShort(date);
+    }
+    
+    /**
+     * Returns the adjusted close.
+     * 
+     * @implNote
+     * A new {@code FastMoney} is created for each call.
+     * 
+     * @return the adjusted close
+     */
+    public MonetaryAmount getAdjClose() {
+        return MonetaHack.newFastMoney(adjClose, "USD");
+    }
+    
+    /**
+     * Returns the date in its packed form.
+     * 
+     * @return the date in its packed form
+     * 
+     * @see LocalDates#fromShort(short)
+     */
+    public short getPackedDate() {
+        return date;
+    }
+    
+    /**
+     * Returns the adjusted close in its scaled form.
+     * 
+     * @return the adjusted close in its scaled form
+     */
+    public long getScaledAdjClose() {
+        return adjClose;
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Short.hashCode(date) + Long.hashCode(adjClose);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        
+        if (obj == null) {
+            return false;
+        }
+        
+        if (obj.getClass() != LongPrice.class) {
+            return false;
+        }
+        
+        LongPrice that = (LongPrice) obj;
+        
+        return this.date == that.date &&
+               this.adjClose == that.adjClose;
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.martinandersson.money.lib.model;
 
+import com.martinandersson.money.lib.Currencies;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -76,7 +77,7 @@ public class MoneyPrice implements Price, Serializable
     
     
     private MoneyPrice(LocalDate date, BigDecimal adjClose) {
-        this(date, Money.of(adjClose, "USD"));
+        this(date, Money.of(adjClose, Currencies.get("USD")));
     }
     
     private MoneyPrice(LocalDate date, Money adjClose) {
@@ -0,0 +1,164 @@
+package com.martinandersson.money.lib.model;
+
+import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.MonetaHack;
+import java.io.Serializable;
+import java.time.LocalDate;
+import javax.money.MonetaryAmount;
+
+/**
+ * A mutable {@code LongPrice}.<p>
+ * 
+ * This model exist to be reused. For example, {@code
+ * ChronicleMap.getUsing(key, using)} read the value into the provided instance
+ * instead of creating a new one, provided that the value marshaller support it
+ * (see {@code ChronicleMapMarshaller}). A client that does many lookups can
+ * then keep one instance around and allocate nothing per lookup.<p>
+ * 
+ * Just as {@code LongPrice}, the currency used is "USD".<p>
+ * 
+ * Instances are not thread-safe. Please note that the hash code change when
+ * the price change, so don't put a {@code MutableLongPrice} in a hash based
+ * collection and then mutate it.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see LongPrice
+ */
+public class MutableLongPrice implements Price, Serializable
+{
+    private static final long serialVersionUID = 1;
+    
+    public static final MutableLongPrice EXACT_SIZE
+            = new MutableLongPrice().set(LongPrice.EXACT_SIZE);
+    
+    
+    
+    private short date;
+    
+    private long adjClose;
+    
+    
+    
+    /**
+     * Construct a new {@code MutableLongPrice}.<p>
+     * 
+     * The price is zeroed; packed date 0 and adjusted close 0.
+     */
+    public MutableLongPrice() {
+        // Empty
+    }
+    
+    
+    
+    /**
+     * Set the price.
+     * 
+     * @param date      date as produced by {@link LocalDates#toShort(LocalDate)}
+     * @param adjClose  adjusted close, scaled {@value FastMoneyPrice#MAX_SCALE}
+     *                  decimal places to the right
+     * 
+     * @return this
+     */
+    public MutableLongPrice set(short date, long adjClose) {
+        this.date = date;
+        this.adjClose = adjClose;
+        return this;
+    }
+    
+    /**
+     * Set the price to the same as the specified {@code price}.
+     * 
+     * @param price  price to copy
+     * 
+     * @return this
+     */
+    public MutableLongPrice set(LongPrice price) {
+        return set(price.getPackedDate(), price.getScaledAdjClose());
+    }
+    
+    /**
+     * Returns an immutable copy of this price.
+     * 
+     * @return an immutable copy of this price
+     */
+    public LongPrice toLongPrice() {
+        return LongPrice.ofPacked(date, adjClose);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @implNote
+     * A new {@code LocalDate} is unpacked for each call.
+     */
+    @Override
+    public LocalDate getDate() {
+        return LocalDates.fromShort(date);
+    }
+    
+    /**
+     * Returns the adjusted close.
+     * 
+     * @implNote
+     * A new {@code FastMoney} is created for each call.
+     * 
+     * @return the adjusted close
+     */
+    public MonetaryAmount getAdjClose() {
+        return MonetaHack.newFastMoney(adjClose, "USD");
+    }
+    
+    /**
+     * Returns the date in its packed form.
+     * 
+     * @return the date in its packed form
+     * 
+     * @see LocalDates#fromShort(short)
+     */
+    public short getPackedDate() {
+        return date;
+    }
+    
+    /**
+     * Returns the adjusted close in its scaled form.
+     * 
+     * @return the adjusted close in its scaled form
+     */
+    public long getScaledAdjClose() {
+        return adjClose;
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Short.hashCode(date) + Long.hashCode(adjClose);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        
+        if (obj == null) {
+            return false;
+        }
+        
+        if (obj.getClass() != MutableLongPrice.class) {
+            return false;
+        }
+        
+        MutableLongPrice that = (MutableLongPrice) obj;
+        
+        return this.date == that.date &&
+               this.adjClose == that.adjClose;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,186 @@
+package com.martinandersson.money.lib.offheap;
+
+import com.martinandersson.money.lib.CurrencyCodes;
+import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.MonetaHack;
+import com.martinandersson.money.lib.model.LongPrice;
+import com.martinandersson.money.lib.model.Price;
+import static com.martinandersson.money.lib.offheap.PriceStore.AMOUNT_OFFSET;
+import static com.martinandersson.money.lib.offheap.PriceStore.CURRENCY_OFFSET;
+import static com.martinandersson.money.lib.offheap.PriceStore.DATE_OFFSET;
+import java.time.LocalDate;
+import javax.money.MonetaryAmount;
+
+/**
+ * A movable view over the records of a {@link PriceStore}, a flyweight.<p>
+ * 
+ * One cursor is one object, no matter how many records it visit. The accessors
+ * of the primitives ({@link #getPackedDate()}, {@link #getScaledAdjClose()})
+ * read straight from the off-heap buffer and allocate nothing. {@link
+ * #getDate()} and {@link #getAdjClose()} materialize a new object for each
+ * call.<p>
+ * 
+ * A new cursor is positioned before the first record. Typical use:
+ * <pre>{@code
+ * 
+ *   PriceCursor c = store.cursor();
+ *   
+ *   while (c.next()) {
+ *       sum += c.getScaledAdjClose();
+ *   }
+ * }</pre>
+ * 
+ * Reading a cursor that is not positioned on a record throws {@code
+ * IndexOutOfBoundsException}.<p>
+ * 
+ * The cursor is not thread-safe, and being a view, it does not override {@code
+ * equals()} nor {@code hashCode()}. Use {@link #toLongPrice()} to get a value
+ * that may be compared or kept.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public final class PriceCursor implements Price
+{
+    private final PriceStore store;
+    
+    private int index;
+    
+    private int offset;
+    
+    
+    
+    PriceCursor(PriceStore store) {
+        this.store = store;
+        reset();
+    }
+    
+    
+    
+    /**
+     * Move the cursor to the next record.
+     * 
+     * @return {@code true} if the cursor moved, {@code false} if there are no
+     *         more records (the cursor is left on the last record)
+     */
+    public boolean next() {
+        if (index + 1 >= store.size()) {
+            return false;
+        }
+        
+        ++index;
+        offset += store.recordSize();
+        return true;
+    }
+    
+    /**
+     * Move the cursor to the specified record.
+     * 
+     * @param index  index of record
+     * 
+     * @return this cursor
+     * 
+     * @throws IndexOutOfBoundsException  if there is no such record
+     */
+    public PriceCursor moveTo(int index) {
+        if (index < 0 || index >= store.size()) {
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", size: " + store.size());
+        }
+        
+        this.index = index;
+        this.offset = index * store.recordSize();
+        return this;
+    }
+    
+    /**
+     * Move the cursor to before the first record.
+     * 
+     * @return this cursor
+     */
+    public PriceCursor reset() {
+        index = -1;
+        offset = -store.recordSize();
+        return this;
+    }
+    
+    /**
+     * Returns the index of the current record, or -1 if the cursor is
+     * positioned before the first record.
+     * 
+     * @return the index of the current record
+     */
+    public int index() {
+        return index;
+    }
+    
+    /**
+     * Returns the date of the current record in its packed form.
+     * 
+     * @return the date of the current record in its packed form
+     * 
+     * @see LocalDates#fromShort(short)
+     */
+    public short getPackedDate() {
+        return store.buffer.getShort(offset + DATE_OFFSET);
+    }
+    
+    /**
+     * Returns the adjusted close of the current record in its scaled form.
+     * 
+     * @return the adjusted close of the current record in its scaled form
+     */
+    public long getScaledAdjClose() {
+        return store.buffer.getLong(offset + AMOUNT_OFFSET);
+    }
+    
+    /**
+     * Returns the currency code of the current record.<p>
+     * 
+     * A store {@linkplain PriceStore#create(int) created} without currencies
+     * store no currency per record. All its prices are in USD, so for such a
+     * store, this method always return "USD".
+     * 
+     * @return the currency code of the current record
+     */
+    public String getCurrencyCode() {
+        if (!store.hasCurrencies()) {
+            // Fail like the other accessors if not positioned on a record:
+            store.buffer.getShort(offset + DATE_OFFSET);
+            return PriceStore.DEFAULT_CURRENCY;
+        }
+        
+        return CurrencyCodes.code(store.buffer.getShort(offset + CURRENCY_OFFSET));
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @implNote
+     * A new {@code LocalDate} is unpacked for each call.
+     */
+    @Override
+    public LocalDate getDate() {
+        return LocalDates.fromShort(getPackedDate());
+    }
+    
+    /**
+     * Returns the adjusted close of the current record.
+     * 
+     * @implNote
+     * A new {@code FastMoney} is created for each call.
+     * 
+     * @return the adjusted close of the current record
+     */
+    public MonetaryAmount getAdjClose() {
+        return MonetaHack.newFastMoney(getScaledAdjClose(), getCurrencyCode());
+    }
+    
+    /**
+     * Returns a copy of the current record, ignoring the currency.
+     * 
+     * @return a copy of the current record
+     */
+    public LongPrice toLongPrice() {
+        return LongPrice.ofPacked(getPackedDate(), getScaledAdjClose());
+    }
+}
\ No newline at end of file
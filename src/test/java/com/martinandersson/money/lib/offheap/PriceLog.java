@@ -0,0 +1,480 @@
+package com.martinandersson.money.lib.offheap;
+
+import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.series.PriceConsumer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * An append-only, memory-mapped file of fixed-width price records.<p>
+ * 
+ * The file starts with an 8 byte header (a magic number and the number of
+ * records), followed by the records. A record is the packed date ({@code
+ * short}) followed by the scaled amount ({@code long}), {@value #RECORD_SIZE}
+ * bytes in total, little-endian. There is nothing else in the file. Compare
+ * this with the file of a Chronicle Map (see {@code ChronicleMapTest}).<p>
+ * 
+ * Records must be appended in ascending date order. Thus the log is sorted and
+ * a date can be found using a binary search. To avoid touching more pages of
+ * the file than necessary, an in-memory sparse index keep the date of every
+ * {@value #INDEX_STRIDE}th record. A lookup is first a binary search of the
+ * index and then a binary search of at most {@value #INDEX_STRIDE} records in
+ * the file. The index is rebuilt when a log is opened.<p>
+ * 
+ * Range reads are done straight from the mapped memory; either using {@link
+ * #forEach(int, int, PriceConsumer)} or by taking a read-only {@link #slice(int,
+ * int) slice} of the records.<p>
+ * 
+ * The file grow by doubling the mapped region. Opening a log with an expected
+ * size avoid the growth. When the log is closed, the file is truncated to the
+ * {@linkplain #byteSize() bytes in use}, so there is no slack at the end of a
+ * closed log. Java 8 has no API to unmap a file, and some platforms (Windows)
+ * can not truncate a file that is still mapped; then the slack remain.<p>
+ * 
+ * The log is not thread-safe.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public final class PriceLog implements PriceConsumer, Closeable
+{
+    /**
+     * Byte size of a record.
+     */
+    public static final int RECORD_SIZE = 10;
+    
+    private static final int HEADER_SIZE = 8;
+    
+    /** "PLOG" */
+    private static final int MAGIC = 0x504C4F47;
+    
+    private static final int INDEX_STRIDE = 64;
+    
+    private static final int MIN_CAPACITY = 1024;
+    
+    
+    
+    /**
+     * Open or create a price log.<p>
+     * 
+     * A new log start with room for {@value #MIN_CAPACITY} records. An
+     * existing log is mapped with room for the records it has.
+     * 
+     * @param file  file
+     * 
+     * @return the price log
+     * 
+     * @throws UncheckedIOException  on I/O error
+     * @throws IllegalArgumentException  if the file exist but is not a price log
+     */
+    public static PriceLog open(Path file) {
+        return open(file, 0);
+    }
+    
+    /**
+     * Open or create a price log.
+     * 
+     * @param file          file
+     * @param expectedSize  expected number of records, 0 if not known
+     * 
+     * @return the price log
+     * 
+     * @throws UncheckedIOException  on I/O error
+     * @throws IllegalArgumentException  if the file exist but is not a price log
+     */
+    public static PriceLog open(Path file, int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException(
+                    "Expected size is negative: " + expectedSize);
+        }
+        
+        try {
+            return new PriceLog(file, expectedSize);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    
+    
+    private final Path file;
+    
+    private final FileChannel channel;
+    
+    private MappedByteBuffer buffer;
+    
+    /** Number of records that fit in {@code buffer}. */
+    private int capacity;
+    
+    private int size;
+    
+    /** Date of record {@code i * INDEX_STRIDE}. */
+    private short[] index;
+    
+    
+    
+    private PriceLog(Path file, int expectedSize) throws IOException {
+        this.file = file;
+        
+        channel = FileChannel.open(file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        
+        try {
+            final long length = channel.size();
+            
+            if (length == 0) {
+                map(expectedSize > 0 ? expectedSize : MIN_CAPACITY);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, 0);
+            }
+            else {
+                if (length < HEADER_SIZE) {
+                    throw notALog();
+                }
+                
+                map(Math.max(expectedSize, (int) ((length - HEADER_SIZE) / RECORD_SIZE)));
+                
+                if (buffer.getInt(0) != MAGIC) {
+                    throw notALog();
+                }
+                
+                size = buffer.getInt(4);
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        
+        index = new short[Math.max(16, size / INDEX_STRIDE + 1)];
+        
+        for (int i = 0; i < size; i += INDEX_STRIDE) {
+            index[i / INDEX_STRIDE] = dateAt(i);
+        }
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void accept(short date, long amount) {
+        append(date, amount);
+    }
+    
+    /**
+     * Append a price.
+     * 
+     * @param date    packed date
+     * @param amount  scaled amount
+     * 
+     * @return index of the record
+     * 
+     * @throws IllegalArgumentException
+     *             if {@code date} is not after the date of the last record
+     * @throws UncheckedIOException  if the file could not grow
+     */
+    public int append(short date, long amount) {
+        if (size > 0 && date <= dateAt(size - 1)) {
+            throw new IllegalArgumentException(
+                    "Date " + LocalDates.fromShort(date) + " is not after " +
+                    LocalDates.fromShort(dateAt(size - 1)) + ".");
+        }
+        
+        if (size == capacity) {
+            try {
+                map(Math.max(capacity * 2, MIN_CAPACITY));
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        final int offset = offset(size);
+        buffer.putShort(offset, date);
+        buffer.putLong(offset + 2, amount);
+        
+        if (size % INDEX_STRIDE == 0) {
+            final int i = size / INDEX_STRIDE;
+            
+            if (i == index.length) {
+                index = Arrays.copyOf(index, i * 2);
+            }
+            
+            index[i] = date;
+        }
+        
+        buffer.putInt(4, ++size);
+        return size - 1;
+    }
+    
+    /**
+     * Returns the number of records.
+     * 
+     * @return the number of records
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Returns the number of bytes in use, header included.
+     * 
+     * @return the number of bytes in use
+     */
+    public long byteSize() {
+        return HEADER_SIZE + (long) size * RECORD_SIZE;
+    }
+    
+    /**
+     * Returns the packed date of the specified record.
+     * 
+     * @param index  index of record
+     * 
+     * @return the packed date of the specified record
+     */
+    public short dateAt(int index) {
+        return buffer.getShort(offset(checkIndex(index)));
+    }
+    
+    /**
+     * Returns the scaled amount of the specified record.
+     * 
+     * @param index  index of record
+     * 
+     * @return the scaled amount of the specified record
+     */
+    public long amountAt(int index) {
+        return buffer.getLong(offset(checkIndex(index)) + 2);
+    }
+    
+    /**
+     * Find the record of the specified {@code date}.
+     * 
+     * @param date  packed date
+     * 
+     * @return index of the record, or {@code (-(insertion point) - 1)}, as
+     *         {@code Arrays.binarySearch()}
+     */
+    public int indexOf(short date) {
+        // Last block whose first date is <= date:
+        int block = Arrays.binarySearch(index, 0, blocks(), date);
+        
+        if (block >= 0) {
+            return block * INDEX_STRIDE;
+        }
+        
+        block = -block - 2;
+        
+        if (block < 0) {
+            return -1;
+        }
+        
+        int low  = block * INDEX_STRIDE + 1,
+            high = Math.min(size, low - 1 + INDEX_STRIDE) - 1;
+        
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final short d = buffer.getShort(offset(mid));
+            
+            if (d < date) {
+                low = mid + 1;
+            }
+            else if (d > date) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        
+        return -(low + 1);
+    }
+    
+    /**
+     * Find the record of the specified {@code date}.
+     * 
+     * @param date  date
+     * 
+     * @return index of the record, or {@code (-(insertion point) - 1)}, as
+     *         {@code Arrays.binarySearch()}
+     */
+    public int indexOf(LocalDate date) {
+        return indexOf(LocalDates.toShort(date));
+    }
+    
+    /**
+     * Returns the index of the last record with a date less than or equal to
+     * the specified {@code date}, or -1 if there is no such record.
+     * 
+     * @param date  packed date
+     * 
+     * @return the index of the floor record, or -1
+     */
+    public int floorIndex(short date) {
+        final int i = indexOf(date);
+        return i >= 0 ? i : -i - 2;
+    }
+    
+    /**
+     * Returns the index of the first record with a date greater than or equal
+     * to the specified {@code date}, or -1 if there is no such record.
+     * 
+     * @param date  packed date
+     * 
+     * @return the index of the ceiling record, or -1
+     */
+    public int ceilingIndex(short date) {
+        int i = indexOf(date);
+        
+        if (i < 0) {
+            i = -i - 1;
+        }
+        
+        return i < size ? i : -1;
+    }
+    
+    /**
+     * Feed the records in the specified range to the specified {@code
+     * consumer}.
+     * 
+     * @param fromIndex  first record, inclusive
+     * @param toIndex    last record, exclusive
+     * @param consumer   consumer
+     */
+    public void forEach(int fromIndex, int toIndex, PriceConsumer consumer) {
+        checkRange(fromIndex, toIndex);
+        
+        for (int i = fromIndex, o = offset(i); i < toIndex; ++i, o += RECORD_SIZE) {
+            consumer.accept(buffer.getShort(o), buffer.getLong(o + 2));
+        }
+    }
+    
+    /**
+     * Feed all records with a date in the specified range to the specified
+     * {@code consumer}.
+     * 
+     * @param fromDate  first date, inclusive
+     * @param toDate    last date, inclusive
+     * @param consumer  consumer
+     */
+    public void forEach(LocalDate fromDate, LocalDate toDate, PriceConsumer consumer) {
+        final int from = ceilingIndex(LocalDates.toShort(fromDate)),
+                  to   = floorIndex(LocalDates.toShort(toDate)) + 1;
+        
+        if (from != -1 && from < to) {
+            forEach(from, to, consumer);
+        }
+    }
+    
+    /**
+     * Returns a read-only view of the records in the specified range.<p>
+     * 
+     * The view is little-endian, positioned at 0 and record {@code n} of the
+     * view start at byte {@code n * RECORD_SIZE}. Nothing is copied. The view
+     * is not updated if the log grow.
+     * 
+     * @param fromIndex  first record, inclusive
+     * @param toIndex    last record, exclusive
+     * 
+     * @return a read-only view of the records in the specified range
+     */
+    public ByteBuffer slice(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        
+        ByteBuffer b = buffer.duplicate();
+        b.limit(offset(toIndex)).position(offset(fromIndex));
+        
+        return b.slice().asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    /**
+     * Force written records to the storage device.
+     */
+    public void flush() {
+        buffer.force();
+    }
+    
+    /**
+     * Flush, truncate and close the log.<p>
+     * 
+     * The log must not be used after it has been closed.
+     * 
+     * @throws UncheckedIOException  on I/O error
+     */
+    @Override
+    public void close() {
+        try {
+            flush();
+            
+            // Writing past the end of a truncated file crash the JVM:
+            buffer = null;
+            
+            try {
+                channel.truncate(byteSize());
+            }
+            catch (IOException e) {
+                // Still mapped, and the platform does not allow it. Leave the slack.
+            }
+            
+            channel.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    
+    
+    private void map(int capacity) throws IOException {
+        final long bytes = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+        
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Log too large: " + file);
+        }
+        
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.capacity = capacity;
+    }
+    
+    private int blocks() {
+        return (size + INDEX_STRIDE - 1) / INDEX_STRIDE;
+    }
+    
+    private static int offset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+    
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", size: " + size);
+        }
+        
+        return index;
+    }
+    
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(
+                    "From: " + fromIndex + ", to: " + toIndex + ", size: " + size);
+        }
+    }
+    
+    private IllegalArgumentException notALog() {
+        return new IllegalArgumentException("Not a price log: " + file);
+    }
+}
\ No newline at end of file
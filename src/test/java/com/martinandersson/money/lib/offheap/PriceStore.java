@@ -0,0 +1,231 @@
+package com.martinandersson.money.lib.offheap;
+
+import com.martinandersson.money.lib.CurrencyCodes;
+import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.MonetaHack;
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.series.PriceConsumer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.javamoney.moneta.FastMoney;
+
+/**
+ * An append-only store of fixed-width price records, kept in a direct {@code
+ * ByteBuffer}.<p>
+ * 
+ * The layout of a record is:
+ * 
+ * <pre>
+ *   offset 0:  packed date     (short, 2 bytes)
+ *   offset 2:  scaled amount   (long,  8 bytes)
+ *   offset 10: currency        (short, 2 bytes, only if the store has currencies)
+ * </pre>
+ * 
+ * A store {@linkplain #create(int) created} without currencies use 10 bytes per
+ * record and the currency of all prices is "USD". A store {@linkplain
+ * #withCurrencies(int) with currencies} use 12 bytes per record and the
+ * currency is stored as an ordinal of {@link CurrencyCodes}. Being fixed-width,
+ * there is no room for an escaped currency code. Codes not in {@code
+ * CurrencyCodes} are rejected.<p>
+ * 
+ * Records are read using a {@link PriceCursor}. The store grows as needed,
+ * doubling the capacity. Cursors read the current buffer of the store and
+ * survive a growth.<p>
+ * 
+ * The store is not thread-safe.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see com.martinandersson.money.lib.offheap package-info.java
+ */
+public final class PriceStore implements PriceConsumer
+{
+    static final int DATE_OFFSET = 0,
+                     AMOUNT_OFFSET = 2,
+                     CURRENCY_OFFSET = 10;
+    
+    static final String DEFAULT_CURRENCY = "USD";
+    
+    /**
+     * Returns a new store without currencies (all prices are in USD).
+     * 
+     * @param initialCapacity  initial capacity in records
+     * 
+     * @return a new store
+     */
+    public static PriceStore create(int initialCapacity) {
+        return new PriceStore(initialCapacity, false);
+    }
+    
+    /**
+     * Returns a new store with a currency per record.
+     * 
+     * @param initialCapacity  initial capacity in records
+     * 
+     * @return a new store
+     */
+    public static PriceStore withCurrencies(int initialCapacity) {
+        return new PriceStore(initialCapacity, true);
+    }
+    
+    
+    
+    private final boolean currencies;
+    
+    private final int recordSize;
+    
+    /** Package-private for {@code PriceCursor}. */
+    ByteBuffer buffer;
+    
+    private int size;
+    
+    
+    
+    private PriceStore(int initialCapacity, boolean currencies) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException(
+                    "Initial capacity is negative: " + initialCapacity);
+        }
+        
+        this.currencies = currencies;
+        this.recordSize = currencies ? CURRENCY_OFFSET + 2 : CURRENCY_OFFSET;
+        this.buffer = allocate(Math.max(1, initialCapacity) * recordSize);
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void accept(short date, long amount) {
+        append(date, amount);
+    }
+    
+    /**
+     * Append a price in USD.
+     * 
+     * @param date    packed date
+     * @param amount  scaled amount
+     * 
+     * @return index of the record
+     */
+    public int append(short date, long amount) {
+        return append(date, amount, DEFAULT_CURRENCY);
+    }
+    
+    /**
+     * Append a price.
+     * 
+     * @param date          packed date
+     * @param amount        scaled amount
+     * @param currencyCode  currency code, for example "USD"
+     * 
+     * @return index of the record
+     * 
+     * @throws IllegalArgumentException
+     *             if this store has no currencies and the code is not "USD",
+     *             or if the code is not in {@code CurrencyCodes}
+     */
+    public int append(short date, long amount, String currencyCode) {
+        final int ordinal;
+        
+        if (currencies) {
+            ordinal = CurrencyCodes.ordinal(currencyCode);
+            
+            if (ordinal == CurrencyCodes.ESCAPE) {
+                throw new IllegalArgumentException(
+                        "Currency code not in registry: " + currencyCode);
+            }
+        }
+        else if (!currencyCode.equals(DEFAULT_CURRENCY)) {
+            throw new IllegalArgumentException(
+                    "Store has no currencies, can not append: " + currencyCode);
+        }
+        else {
+            ordinal = CurrencyCodes.ESCAPE;
+        }
+        
+        final int offset = size * recordSize;
+        
+        if (offset + recordSize > buffer.capacity()) {
+            grow();
+        }
+        
+        buffer.putShort(offset + DATE_OFFSET, date);
+        buffer.putLong(offset + AMOUNT_OFFSET, amount);
+        
+        if (currencies) {
+            buffer.putShort(offset + CURRENCY_OFFSET, (short) ordinal);
+        }
+        
+        return size++;
+    }
+    
+    /**
+     * Append a price.
+     * 
+     * @param price  price
+     * 
+     * @return index of the record
+     */
+    public int append(FastMoneyPrice price) {
+        final FastMoney money = (FastMoney) price.getAdjClose();
+        
+        return append(LocalDates.toShort(price.getDate()),
+                      MonetaHack.getNumber(money),
+                      money.getCurrency().getCurrencyCode());
+    }
+    
+    /**
+     * Returns a new cursor positioned before the first record.
+     * 
+     * @return a new cursor
+     */
+    public PriceCursor cursor() {
+        return new PriceCursor(this);
+    }
+    
+    /**
+     * Returns the number of records.
+     * 
+     * @return the number of records
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Returns {@code true} if this store has a currency per record.
+     * 
+     * @return {@code true} if this store has a currency per record
+     */
+    public boolean hasCurrencies() {
+        return currencies;
+    }
+    
+    /**
+     * Returns the byte size of a record.
+     * 
+     * @return the byte size of a record
+     */
+    public int recordSize() {
+        return recordSize;
+    }
+    
+    
+    
+    private void grow() {
+        ByteBuffer old = buffer.duplicate();
+        old.limit(size * recordSize).position(0);
+        
+        ByteBuffer bigger = allocate(buffer.capacity() * 2);
+        bigger.put(old).clear();
+        
+        buffer = bigger;
+    }
+    
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+}
\ No newline at end of file
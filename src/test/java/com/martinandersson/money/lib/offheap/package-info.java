@@ -0,0 +1,16 @@
+/**
+ * Package of prices stored off-heap.<p>
+ * 
+ * A price is a fixed-width record in a direct {@code ByteBuffer}. The date is
+ * packed into a {@code short} using {@link
+ * com.martinandersson.money.lib.LocalDates#toShort(java.time.LocalDate)} and the
+ * amount is a {@code long} scaled {@value
+ * com.martinandersson.money.lib.model.FastMoneyPrice#MAX_SCALE} decimal places
+ * to the right, just as in {@link com.martinandersson.money.lib.series}.<p>
+ * 
+ * Records are read through a flyweight, {@link
+ * com.martinandersson.money.lib.offheap.PriceCursor}, which is moved from one
+ * record to the next. Iterating any number of prices therefore allocates
+ * nothing and the garbage collector never see the prices at all.
+ */
+package com.martinandersson.money.lib.offheap;
\ No newline at end of file
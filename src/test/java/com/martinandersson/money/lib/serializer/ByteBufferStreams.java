@@ -0,0 +1,85 @@
+package com.martinandersson.money.lib.serializer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Streams that read from and write to a {@code ByteBuffer}.<p>
+ * 
+ * Used by serializers that have no native support for {@code ByteBuffer}s. The
+ * streams operate on the buffer directly, relative to its position. No bytes
+ * are copied into an intermediate array.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+final class ByteBufferStreams
+{
+    private ByteBufferStreams() {
+        // Empty
+    }
+    
+    
+    
+    /**
+     * Returns an output stream that put all bytes written in the specified
+     * {@code buffer}.<p>
+     * 
+     * Writing more bytes than there are remaining in the buffer throws {@code
+     * BufferOverflowException}.
+     * 
+     * @param buffer  target
+     * 
+     * @return an output stream
+     */
+    static OutputStream output(ByteBuffer buffer) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                buffer.put((byte) b);
+            }
+            
+            @Override
+            public void write(byte[] b, int off, int len) {
+                buffer.put(b, off, len);
+            }
+        };
+    }
+    
+    /**
+     * Returns an input stream that read the remaining bytes of the specified
+     * {@code buffer}.
+     * 
+     * @param buffer  source
+     * 
+     * @return an input stream
+     */
+    static InputStream input(ByteBuffer buffer) {
+        return new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+            
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                
+                len = Math.min(len, buffer.remaining());
+                buffer.get(b, off, len);
+                return len;
+            }
+            
+            @Override
+            public int available() {
+                return buffer.remaining();
+            }
+        };
+    }
+}
\ No newline at end of file
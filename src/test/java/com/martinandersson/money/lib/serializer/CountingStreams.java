@@ -0,0 +1,183 @@
+package com.martinandersson.money.lib.serializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Streams that count the bytes passing through them.<p>
+ * 
+ * Used by {@code SerializationFramework} to report the size of an object
+ * written to or read from a stream. Each thread has one stream of each kind
+ * that is reused, so counting allocate nothing. If the thread's stream is
+ * already in use, a new one is returned.<p>
+ * 
+ * The stream must be {@linkplain Output#release() released} when done, after
+ * which the count remain readable.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+final class CountingStreams
+{
+    private static final ThreadLocal<Output> OUTPUT = ThreadLocal.withInitial(Output::new);
+    
+    private static final ThreadLocal<Input> INPUT = ThreadLocal.withInitial(Input::new);
+    
+    private CountingStreams() {
+        // Empty
+    }
+    
+    
+    
+    /**
+     * Returns an output stream that count the bytes written to the specified
+     * {@code out}.
+     * 
+     * @param out  target
+     * 
+     * @return an output stream
+     */
+    static Output output(OutputStream out) {
+        Output o = OUTPUT.get();
+        
+        if (o.out != null) {
+            o = new Output();
+        }
+        
+        o.out = out;
+        o.count = 0;
+        return o;
+    }
+    
+    /**
+     * Returns an input stream that count the bytes read from the specified
+     * {@code in}.<p>
+     * 
+     * Note that the count is what the reader pulled from the stream. A reader
+     * that buffer may read ahead, beyond the end of the object.
+     * 
+     * @param in  source
+     * 
+     * @return an input stream
+     */
+    static Input input(InputStream in) {
+        Input i = INPUT.get();
+        
+        if (i.in != null) {
+            i = new Input();
+        }
+        
+        i.in = in;
+        i.count = 0;
+        return i;
+    }
+    
+    
+    
+    static final class Output extends OutputStream
+    {
+        private OutputStream out;
+        
+        private long count;
+        
+        /**
+         * Returns the number of bytes written.
+         * 
+         * @return the number of bytes written
+         */
+        long count() {
+            return count;
+        }
+        
+        /**
+         * Let go of the target stream so that this stream may be reused.
+         */
+        void release() {
+            out = null;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            ++count;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+    
+    static final class Input extends InputStream
+    {
+        private InputStream in;
+        
+        private long count;
+        
+        /**
+         * Returns the number of bytes read.
+         * 
+         * @return the number of bytes read
+         */
+        long count() {
+            return count;
+        }
+        
+        /**
+         * Let go of the source stream so that this stream may be reused.
+         */
+        void release() {
+            in = null;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            final int b = in.read();
+            
+            if (b != -1) {
+                ++count;
+            }
+            
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int n = in.read(b, off, len);
+            
+            if (n > 0) {
+                count += n;
+            }
+            
+            return n;
+        }
+        
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+        
+        @Override
+        public int available() throws IOException {
+            return in.available();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.martinandersson.money.lib.serializer;
 
+import com.martinandersson.money.lib.Currencies;
+import com.martinandersson.money.lib.CurrencyCodes;
 import com.martinandersson.money.lib.LocalDates;
 import com.martinandersson.money.lib.MonetaHack;
+import com.martinandersson.money.lib.model.MutableLongPrice;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 import java.time.LocalDate;
@@ -45,6 +50,8 @@ public final class FSTSerializers
         conf.registerSerializer(Money.class,      MONEY,       false);
         conf.registerSerializer(FastMoney.class,  FAST_MONEY,  false);
         
+        conf.registerSerializer(MutableLongPrice.class, MUTABLE_LONG_PRICE, false);
+        
         return conf;
     }
     
@@ -121,7 +128,7 @@ public final class FSTSerializers
                     referencedBy,
                     streamPosition);
             
-            out.writeStringUTF(money.getCurrency().getCurrencyCode());
+            CurrencyCodes.write(out, money.getCurrency().getCurrencyCode());
         }
 
         @Override
@@ -135,21 +142,102 @@ public final class FSTSerializers
             BigDecimal number = (BigDecimal) BIG_DECIMAL.instantiate(
                     objectClass, in, serializationInfo, reference, streamPosition);
             
-            String currency = in.readStringUTF();
+            String currency = CurrencyCodes.read(in);
             
-            return Money.of(number, currency);
+            return Money.of(number, Currencies.get(currency));
         }
     };
     
+    /**
+     * FST serializer for {@code FastMoney}.<p>
+     * 
+     * The currency is not written if the stream is a {@link BatchOutput}
+     * with a run currency, the reader then use the run currency of the {@link
+     * BatchInput}.
+     */
     public static final FSTBasicObjectSerializer FAST_MONEY = newSerializer(
             (obj, out) -> {
                 FastMoney money = (FastMoney) obj;
                 out.writeLong(MonetaHack.getNumber(money));
-                out.writeStringUTF(money.getCurrency().getCurrencyCode());
+                
+                final String code = money.getCurrency().getCurrencyCode(),
+                             run  = out instanceof BatchOutput ?
+                                     ((BatchOutput) out).runCurrency : null;
+                
+                if (run == null) {
+                    CurrencyCodes.write(out, code);
+                }
+                else if (!run.equals(code)) {
+                    throw new IllegalStateException(
+                            "Currency " + code + " in a run of " + run + ".");
+                }
             },
-            in -> MonetaHack.newFastMoney(in.readLong(), in.readStringUTF()));
+            in -> {
+                final long number = in.readLong();
+                final String run = in instanceof BatchInput ?
+                        ((BatchInput) in).runCurrency : null;
+                
+                return MonetaHack.newFastMoney(number,
+                        run == null ? CurrencyCodes.read(in) : run);
+            });
+    
+    /**
+     * FST serializer for {@code MutableLongPrice}.<p>
+     * 
+     * Will read into the reuse target given to {@code
+     * Serializer.deserialize(InputStream, Object)}, if there is one.<p>
+     * 
+     * The packed date is written as an {@code int}, see {@link #LOCAL_DATE}
+     * for why we stay away from {@code writeShort()}.
+     */
+    public static final FSTBasicObjectSerializer MUTABLE_LONG_PRICE = newSerializer(
+            (obj, out) -> {
+                MutableLongPrice price = (MutableLongPrice) obj;
+                out.writeInt(price.getPackedDate());
+                out.writeLong(price.getScaledAdjClose());
+            },
+            in -> {
+                MutableLongPrice price = ReuseTarget.take(MutableLongPrice.class);
+                
+                if (price == null) {
+                    price = new MutableLongPrice();
+                }
+                
+                return price.set((short) in.readInt(), in.readLong());
+            });
+    
     
     
+    /**
+     * Output of batch serialization, which write the currency once per run of
+     * {@code FastMoney}s instead of once per {@code FastMoney}.<p>
+     * 
+     * The run currency belong to this stream only. Other streams, for example
+     * one used by a nested serialization on the same thread, write the
+     * currency as usual.
+     */
+    static final class BatchOutput extends FSTObjectOutput
+    {
+        /** Currency of the current run, or {@code null} if there is none. */
+        String runCurrency;
+        
+        BatchOutput(OutputStream out, FSTConfiguration conf) {
+            super(out, conf);
+        }
+    }
+    
+    /**
+     * Input of batch deserialization, see {@link BatchOutput}.
+     */
+    static final class BatchInput extends FSTObjectInput
+    {
+        /** Currency of the current run, or {@code null} if there is none. */
+        String runCurrency;
+        
+        BatchInput(InputStream in, FSTConfiguration conf) {
+            super(in, conf);
+        }
+    }
     
     private static FSTBasicObjectSerializer newSerializer(
             IOBiConsumer<Object, FSTObjectOutput> write,
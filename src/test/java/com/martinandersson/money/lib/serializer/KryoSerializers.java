@@ -5,8 +5,13 @@ import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.serializers.DefaultSerializers;
+import com.martinandersson.money.lib.Currencies;
+import com.martinandersson.money.lib.CurrencyCodes;
 import com.martinandersson.money.lib.LocalDates;
 import com.martinandersson.money.lib.MonetaHack;
+import com.martinandersson.money.lib.model.MutableLongPrice;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import org.javamoney.moneta.FastMoney;
@@ -63,29 +68,134 @@ public final class KryoSerializers
         @Override
         public void write(Kryo kryo, Output out, Money money) {
             BIG_DECIMAL.write(kryo, out, MonetaHack.getNumber(money));
-            out.writeString(money.getCurrency().getCurrencyCode());
+            writeCurrency(out, money.getCurrency().getCurrencyCode());
         }
         
         @Override
         public Money read(Kryo kryo, Input in, Class<Money> type) {
             BigDecimal number = BIG_DECIMAL.read(kryo, in, BigDecimal.class);
-            String currency = in.readString();
-            return Money.of(number, currency);
+            String currency = readCurrency(in);
+            return Money.of(number, Currencies.get(currency));
         }
     };
     
+    /**
+     * Kryo serializer for {@code FastMoney}.<p>
+     * 
+     * The currency is not written if the output is a {@link BatchOutput} with a
+     * run currency, the reader then use the run currency of the {@link
+     * BatchInput}.
+     */
     public static final Serializer<FastMoney> FAST_MONEY = new Serializer<FastMoney>(false, true) {
         @Override
         public void write(Kryo kryo, Output out, FastMoney money) {
             out.writeLong(MonetaHack.getNumber(money), true);
-            out.writeString(money.getCurrency().getCurrencyCode());
+            
+            final String code = money.getCurrency().getCurrencyCode(),
+                         run  = out instanceof BatchOutput ?
+                                 ((BatchOutput) out).runCurrency : null;
+            
+            if (run == null) {
+                writeCurrency(out, code);
+            }
+            else if (!run.equals(code)) {
+                throw new IllegalStateException(
+                        "Currency " + code + " in a run of " + run + ".");
+            }
         }
         
         @Override
         public FastMoney read(Kryo kryo, Input in, Class<FastMoney> type) {
-            long number = in.readLong(true);
-            String currency = in.readString();
-            return MonetaHack.newFastMoney(number, currency);
+            final long number = in.readLong(true);
+            final String run = in instanceof BatchInput ?
+                    ((BatchInput) in).runCurrency : null;
+            
+            return MonetaHack.newFastMoney(number,
+                    run == null ? readCurrency(in) : run);
         }
     };
+    
+    
+    
+    /**
+     * Kryo serializer for {@code MutableLongPrice}.<p>
+     * 
+     * Will read into the reuse target given to {@code
+     * Serializer.deserialize(InputStream, Object)}, if there is one.
+     */
+    public static final Serializer<MutableLongPrice> MUTABLE_LONG_PRICE = new Serializer<MutableLongPrice>(false, false) {
+        @Override
+        public void write(Kryo kryo, Output out, MutableLongPrice price) {
+            out.writeShort(price.getPackedDate());
+            out.writeLong(price.getScaledAdjClose(), true);
+        }
+        
+        @Override
+        public MutableLongPrice read(Kryo kryo, Input in, Class<MutableLongPrice> type) {
+            MutableLongPrice price = ReuseTarget.take(MutableLongPrice.class);
+            
+            if (price == null) {
+                price = new MutableLongPrice();
+            }
+            
+            return price.set(in.readShort(), in.readLong(true));
+        }
+    };
+    
+    
+    
+    /**
+     * Output of batch serialization, which write the currency once per run of
+     * {@code FastMoney}s instead of once per {@code FastMoney}.<p>
+     * 
+     * The run currency belong to this output only. Other outputs, for example
+     * one used by a nested serialization on the same thread, write the
+     * currency as usual.
+     */
+    static final class BatchOutput extends Output
+    {
+        /** Currency of the current run, or {@code null} if there is none. */
+        String runCurrency;
+        
+        BatchOutput(OutputStream out, int bufferSize) {
+            super(out, bufferSize);
+        }
+    }
+    
+    /**
+     * Input of batch deserialization, see {@link BatchOutput}.
+     */
+    static final class BatchInput extends Input
+    {
+        /** Currency of the current run, or {@code null} if there is none. */
+        String runCurrency;
+        
+        BatchInput(InputStream in, int bufferSize) {
+            super(in, bufferSize);
+        }
+    }
+    
+    
+    
+    /**
+     * Write the currency code as a variable-length ordinal, see {@link
+     * CurrencyCodes}.
+     */
+    static void writeCurrency(Output out, String currencyCode) {
+        final int ordinal = CurrencyCodes.ordinal(currencyCode);
+        
+        out.writeVarInt(ordinal, true);
+        
+        if (ordinal == CurrencyCodes.ESCAPE) {
+            out.writeString(currencyCode);
+        }
+    }
+    
+    static String readCurrency(Input in) {
+        final int ordinal = in.readVarInt(true);
+        
+        return ordinal == CurrencyCodes.ESCAPE ?
+                in.readString() :
+                CurrencyCodes.code(ordinal);
+    }
 }
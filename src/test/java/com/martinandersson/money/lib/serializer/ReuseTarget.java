@@ -0,0 +1,69 @@
+package com.martinandersson.money.lib.serializer;
+
+/**
+ * Holds the object that the current thread's deserialization should read into,
+ * if any.<p>
+ * 
+ * Neither Kryo nor FST offer an API to deserialize into an existing object.
+ * Our serializers that support reuse instead ask this class for a target
+ * before they create a new object; see {@link Serializer#deserialize(
+ * java.io.InputStream, Object)}.<p>
+ * 
+ * A target is only handed out once, and only to a serializer of the exact same
+ * type. So if the deserialized graph contains more than one object of that
+ * type, only the first will be reused.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+final class ReuseTarget
+{
+    private ReuseTarget() {
+        // Empty
+    }
+    
+    
+    
+    private static final ThreadLocal<Object> TARGET = new ThreadLocal<>();
+    
+    
+    
+    /**
+     * Set the target of the current thread.
+     * 
+     * @param using  target (may be {@code null})
+     */
+    static void set(Object using) {
+        TARGET.set(using);
+    }
+    
+    /**
+     * Take the target of the current thread, if it is of the specified type.
+     * 
+     * @param <T>   type of target
+     * @param type  type of target
+     * 
+     * @return the target, or {@code null} if there is no target of the
+     *         specified type
+     */
+    static <T> T take(Class<T> type) {
+        final Object using = TARGET.get();
+        
+        if (using == null || using.getClass() != type) {
+            return null;
+        }
+        
+        TARGET.set(null);
+        
+        @SuppressWarnings("unchecked")
+        T t = (T) using;
+        
+        return t;
+    }
+    
+    /**
+     * Clear the target of the current thread.
+     */
+    static void clear() {
+        TARGET.set(null);
+    }
+}
\ No newline at end of file
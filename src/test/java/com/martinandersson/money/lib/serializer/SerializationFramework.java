@@ -1,10 +1,21 @@
 package com.martinandersson.money.lib.serializer;
 
+import com.martinandersson.money.lib.CurrencyCodes;
 import com.martinandersson.money.lib.model.DoublePrice;
 import com.martinandersson.money.lib.model.BigDecimalPrice;
 import com.martinandersson.money.lib.model.MoneyPrice;
 import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.model.LongPrice;
+import com.martinandersson.money.lib.model.MutableLongPrice;
+import com.martinandersson.money.lib.model.Price;
+import com.martinandersson.money.lib.jfr.EventGate;
+import com.martinandersson.money.lib.jfr.SerializationEvent;
+import com.martinandersson.money.lib.metrics.Distribution;
+import com.martinandersson.money.lib.metrics.MetricsRegistry;
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
+import com.esotericsoftware.kryo.io.ByteBufferOutput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.pool.KryoFactory;
@@ -19,11 +30,18 @@ import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Currency;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import javax.money.CurrencyContext;
@@ -32,6 +50,7 @@ import org.javamoney.moneta.FastMoney;
 import org.javamoney.moneta.Money;
 import org.javamoney.moneta.internal.JDKCurrencyAdapter;
 import org.nustaq.serialization.FSTConfiguration;
+import org.nustaq.serialization.FSTObjectInput;
 import org.nustaq.serialization.FSTObjectOutput;
 import org.objenesis.strategy.SerializingInstantiatorStrategy;
 
@@ -60,7 +79,42 @@ import org.objenesis.strategy.SerializingInstantiatorStrategy;
  * create new instances. Even though the latter configuration actually make
  * sense for our domain model (since all our prices and the fields within them
  * represents truly unique objects), none of these configuration night hacks has
- * been applied.
+ * been applied.<p>
+ * 
+ * Only the custom variants can deserialize into an existing object ({@link
+ * Serializer#deserialize(InputStream, Object)}), and only for {@code
+ * MutableLongPrice}. All other combinations create a new object.<p>
+ * 
+ * Buffers are reused per thread. Kryo's {@code Output} and {@code Input} are
+ * kept in thread locals and FST keep its {@code FSTObjectOutput} and {@code
+ * FSTObjectInput} in thread locals of its own. Hence, Kryo and FST allocate
+ * little more than the deserialized object or the returned {@code byte[]}.
+ * Java's serialization reuse the {@code ByteArrayOutputStream} only. A
+ * serializer must therefore not be called from within another serializer
+ * running on the same thread, for example from within a custom Kryo
+ * serializer.<p>
+ * 
+ * Heap and direct {@code ByteBuffer}s are supported by all serializers. Kryo
+ * read and write the buffer directly. FST serialize into its per-thread buffer
+ * and copy the result in bulk, but read through a stream. Java's
+ * serialization use streams both ways.<p>
+ * 
+ * Each call to a serializer emit a {@link SerializationEvent}, which shows up
+ * in a Java Flight Recorder recording with the event enabled. Calls that use a
+ * stream count the bytes passing through it; when reading, this may include
+ * bytes that the framework buffered ahead. The {@code
+ * Consumer<String>} duration argument is still supported, but the event is
+ * what to use for profiling.<p>
+ * 
+ * If {@linkplain #recordMetrics(boolean) enabled}, each call also record its
+ * time cost, the number of objects and the number of bytes in the {@linkplain
+ * MetricsRegistry#global() global metrics registry}, keyed by framework and the
+ * class of the (first) object. The metrics can be exported to a file using a
+ * {@link com.martinandersson.money.lib.metrics.MetricsFormat}. Recording is
+ * disabled by default, so that it does not add to the time and allocation
+ * measured by benchmarks. The metrics are looked up once per framework and
+ * class and then kept. The duration string is only formatted if a consumer is
+ * given.
  * 
  * @author Martin Andersson (webmaster at martinandersson.com)
  */
@@ -73,94 +127,7 @@ public enum SerializationFramework implements Serializer
      * The objects themselves may customize this protocol ({@code Serializable})
      * or fully replace it {@code (Externalizable}).
      */
-    JAVA ("Java") {
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public byte[] serialize(Object object, Consumer<String> duration) {
-            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_SIZE);
-            
-            final long nanos;
-
-            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
-                final long then = System.nanoTime();
-                out.writeObject(object);
-                nanos = System.nanoTime() - then;
-            }
-            catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
-            
-            forward(duration, nanos);
-            return bytes.toByteArray();
-        }
-        
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public void serialize(Object object, OutputStream out) {
-            try (ObjectOutputStream os = new ObjectOutputStream(out)) {
-                os.writeObject(object);
-            }
-            catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
-        }
-        
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public <T> T deserialize(byte[] bytes, Consumer<String> duration) {
-            final ByteArrayInputStream obj = new ByteArrayInputStream(bytes);
-            
-            final T t;
-            
-            final long nanos;
-
-            try (ObjectInputStream in = new ObjectInputStream(obj)) {
-                final long then = System.nanoTime();
-                
-                @SuppressWarnings("unchecked")
-                T t0 = (T) in.readObject();
-                
-                nanos = System.nanoTime() - then;
-                t = t0;
-                
-            }
-            catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
-            catch (ClassNotFoundException e) {
-                throw new RuntimeException(e);
-            }
-            
-            forward(duration, nanos);
-            return t;
-        }
-        
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public <T> T deserialize(InputStream in) {
-            try (ObjectInputStream ios = new ObjectInputStream(in)) {
-                @SuppressWarnings("unchecked")
-                T t = (T) ios.readObject();
-                
-                return t;
-            }
-            catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
-            catch (ClassNotFoundException e) {
-                throw new RuntimeException(e);
-            }
-        }
-        
-    },
+    JAVA ("Java", new JavaImpl()),
     
     /**
      * This serializer uses Kryo for serialization/deserialization.
@@ -200,6 +167,8 @@ public enum SerializationFramework implements Serializer
         kryo.register(BigDecimalPrice.class);
         kryo.register(MoneyPrice.class);
         kryo.register(FastMoneyPrice.class);
+        kryo.register(LongPrice.class);
+        kryo.register(MutableLongPrice.class, KryoSerializers.MUTABLE_LONG_PRICE);
         
         kryo.setInstantiatorStrategy(new SerializingInstantiatorStrategy());
         return kryo;
@@ -225,7 +194,9 @@ public enum SerializationFramework implements Serializer
                 DoublePrice.class,
                 BigDecimalPrice.class,
                 MoneyPrice.class,
-                FastMoneyPrice.class);
+                FastMoneyPrice.class,
+                LongPrice.class,
+                MutableLongPrice.class);
     }));
     
     
@@ -234,10 +205,13 @@ public enum SerializationFramework implements Serializer
      */
     private static final int BUFFER_SIZE = 1361;
     
+    private static final ThreadLocal<ByteArrayOutputStream> JAVA_BYTES
+            = ThreadLocal.withInitial(() -> new ByteArrayOutputStream(BUFFER_SIZE));
+    
     private static Stream<Class<?>> classes() {
         return Stream.of(LocalDate.class,
                          BigDecimal.class,
-                         
+        
                          Money.class,
                          JDKCurrencyAdapter.class,
                          Currency.class,
@@ -246,13 +220,61 @@ public enum SerializationFramework implements Serializer
                          MonetaryContext.class,
                          Class.class,
                          RoundingMode.class,
-                         
+        
                          FastMoney.class,
-                         
+        
                          DoublePrice.class,
                          BigDecimalPrice.class,
                          MoneyPrice.class,
-                         FastMoneyPrice.class);
+                         FastMoneyPrice.class,
+                         LongPrice.class,
+                         MutableLongPrice.class);
+    }
+    
+    /**
+     * Returns the currency shared by a run of prices that hold the specified
+     * {@code price}, or {@code null} if the price does not share its currency.
+     * 
+     * @param price  price
+     * @param custom  {@code true} if {@code FastMoney} is written by a custom
+     *                serializer that understand a run currency
+     */
+    private static String runCurrency(Price price, boolean custom) {
+        return custom && price instanceof FastMoneyPrice ?
+                ((FastMoneyPrice) price).getAdjClose().getCurrency().getCurrencyCode() :
+                null;
+    }
+    
+    private static volatile boolean recordMetrics;
+    
+    /**
+     * Enable or disable recording of metrics into the global metrics registry,
+     * for all serializers. Disabled by default.
+     * 
+     * @param enabled  {@code true} to record metrics
+     */
+    public static void recordMetrics(boolean enabled) {
+        recordMetrics = enabled;
+    }
+    
+    private static long start() {
+        return recordMetrics ? System.nanoTime() : 0;
+    }
+    
+    private static final EventGate EVENTS = EventGate.of(SerializationEvent.class);
+    
+    /**
+     * Returns a begun serialization event, or {@code null} if no recording
+     * has the event enabled.
+     */
+    private static SerializationEvent beginEvent() {
+        if (!EVENTS.isOpen()) {
+            return null;
+        }
+        
+        SerializationEvent event = new SerializationEvent();
+        event.begin();
+        return event;
     }
     
     private static final ThreadLocal<NumberFormat> DECIMAL_FORMATTER
@@ -267,66 +289,495 @@ public enum SerializationFramework implements Serializer
             return;
         }
         
-        double ms = nanos / 1_000_000.;
-        duration.accept(DECIMAL_FORMATTER.get().format(ms) + " ms");
-    }
-    
-    
-    private final String name;
-    
-    private final Serializer delegate;
-    
-    private SerializationFramework(String name) {
-        this(name, null);
-    }
-    
-    private SerializationFramework(String name, Serializer delegate) {
-        this.name = name;
-        this.delegate = delegate;
-    }
-    
-    
-    
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public byte[] serialize(Object object, Consumer<String> duration) {
-        return delegate.serialize(object, duration);
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public void serialize(Object object, OutputStream out) {
-        delegate.serialize(object, out); }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public <T> T deserialize(byte[] bytes, Consumer<String> duration) {
-        return delegate.deserialize(bytes, duration); }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public <T> T deserialize(InputStream in) {
-        return delegate.deserialize(in);
-    }
-    
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public final String toString() {
-        return name;
+        double ms = nanos / 1_000_000.;
+        duration.accept(DECIMAL_FORMATTER.get().format(ms) + " ms");
+    }
+    
+    
+    private final String name;
+    
+    private final Serializer delegate;
+    
+    private final ClassValue<Metrics> metrics = new ClassValue<Metrics>() {
+        @Override
+        protected Metrics computeValue(Class<?> type) {
+            return new Metrics(name, type == Void.class ? "" : type.getName());
+        }
+    };
+    
+    private SerializationFramework(String name, Serializer delegate) {
+        this.name = name;
+        this.delegate = delegate;
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] serialize(Object object, Consumer<String> duration) {
+        SerializationEvent event = beginEvent();
+        final long then = start();
+        
+        byte[] bytes = delegate.serialize(object, duration);
+        record(event, then, Operation.SERIALIZE, object, 1, bytes.length);
+        
+        return bytes;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void serialize(Object object, OutputStream out) {
+        SerializationEvent event = beginEvent();
+        final long then = start();
+        
+        final CountingStreams.Output counter = CountingStreams.output(out);
+        
+        try {
+            delegate.serialize(object, counter);
+        }
+        finally {
+            counter.release();
+        }
+        
+        record(event, then, Operation.SERIALIZE, object, 1, counter.count());
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T deserialize(byte[] bytes, Consumer<String> duration) {
+        SerializationEvent event = beginEvent();
+        final long then = start();
+        
+        T t = delegate.deserialize(bytes, duration);
+        record(event, then, Operation.DESERIALIZE, t, 1, bytes.length);
+        
+        return t;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T deserialize(InputStream in) {
+        SerializationEvent event = beginEvent();
+        final long then = start();
+        
+        final CountingStreams.Input counter = CountingStreams.input(in);
+        final T t;
+        
+        try {
+            t = delegate.deserialize(counter);
+        }
+        finally {
+            counter.release();
+        }
+        
+        record(event, then, Operation.DESERIALIZE, t, 1, counter.count());
+        
+        return t;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T deserialize(InputStream in, T using) {
+        SerializationEvent event = beginEvent();
+        final long then = start();
+        
+        final CountingStreams.Input counter = CountingStreams.input(in);
+        final T t;
+        
+        try {
+            t = delegate.deserialize(counter, using);
+        }
+        finally {
+            counter.release();
+        }
+        
+        record(event, then, Operation.DESERIALIZE, t, 1, counter.count());
+        
+        return t;
+    }
+    
+    /**
+     * {@inheritDoc}<p>
+     * 
+     * {@link #JAVA} use the default implementation, bridging to {@code
+     * ObjectOutputStream}.
+     */
+    @Override
+    public int serialize(Object object, ByteBuffer buffer) {
+        SerializationEvent event = beginEvent();
+        final long then = start();
+        
+        int bytes = delegate.serialize(object, buffer);
+        record(event, then, Operation.SERIALIZE, object, 1, bytes);
+        
+        return bytes;
+    }
+    
+    /**
+     * {@inheritDoc}<p>
+     * 
+     * {@link #JAVA} use the default implementation, bridging to {@code
+     * ObjectInputStream}.
+     */
+    @Override
+    public <T> T deserialize(ByteBuffer buffer) {
+        SerializationEvent event = beginEvent();
+        final long then = start();
+        
+        final int position = buffer.position();
+        
+        T t = delegate.deserialize(buffer);
+        record(event, then, Operation.DESERIALIZE, t, 1, buffer.position() - position);
+        
+        return t;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void serializeAll(Collection<? extends Price> prices, OutputStream out) {
+        SerializationEvent event = beginEvent();
+        final long then = start();
+        
+        final CountingStreams.Output counter = CountingStreams.output(out);
+        
+        try {
+            delegate.serializeAll(prices, counter);
+        }
+        finally {
+            counter.release();
+        }
+        
+        record(event, then, Operation.SERIALIZE_ALL,
+                prices.isEmpty() ? null : prices.iterator().next(), prices.size(), counter.count());
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <P extends Price> List<P> deserializeAll(InputStream in) {
+        SerializationEvent event = beginEvent();
+        final long then = start();
+        
+        final CountingStreams.Input counter = CountingStreams.input(in);
+        final List<P> prices;
+        
+        try {
+            prices = delegate.deserializeAll(counter);
+        }
+        finally {
+            counter.release();
+        }
+        
+        record(event, then, Operation.DESERIALIZE_ALL,
+                prices.isEmpty() ? null : prices.get(0), prices.size(), counter.count());
+        
+        return prices;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final String toString() {
+        return name;
+    }
+    
+    /**
+     * Record the metrics of a completed operation if enabled, and commit the
+     * serialization event if there is one and it is enabled.<p>
+     * 
+     * Nothing is recorded if the operation did not return normally.
+     */
+    private void record(SerializationEvent event, long then,
+            Operation operation, Object object, int count, long bytes)
+    {
+        if (recordMetrics) {
+            final long nanos = System.nanoTime() - then;
+            final Class<?> type = object == null ? Void.class : object.getClass();
+            
+            Metrics m = metrics.get(type);
+            
+            if (m.generation != MetricsRegistry.global().generation()) {
+                // Registry cleared, look up again:
+                metrics.remove(type);
+                m = metrics.get(type);
+            }
+            
+            m.timer(operation).record(nanos);
+            m.objects(operation).add(count);
+            
+            if (bytes > 0) {
+                m.sizes(operation).record(bytes);
+            }
+        }
+        
+        if (event != null && event.shouldCommit()) {
+            event.framework = name;
+            event.operation = operation.method;
+            event.type = object == null ? null : object.getClass().getName();
+            event.count = count;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+    
+    /**
+     * The operations that are recorded, and their metric names.
+     */
+    private enum Operation
+    {
+        SERIALIZE ("serialize"),
+        DESERIALIZE ("deserialize"),
+        SERIALIZE_ALL ("serializeAll"),
+        DESERIALIZE_ALL ("deserializeAll");
+        
+        /** Name of the Serializer method. */
+        final String method;
+        
+        /** Metric names. */
+        final String timer,
+                     bytes,
+                     objects;
+        
+        private Operation(String method) {
+            this.method = method;
+            this.timer = "serializer." + method;
+            this.bytes = timer + ".bytes";
+            this.objects = timer + ".objects";
+        }
+    }
+    
+    /**
+     * The metrics of one framework and class, looked up in the global registry
+     * when first used.<p>
+     * 
+     * Racy but benign; two threads may look up the same metric, and the
+     * registry return the same instance to both.
+     */
+    private static final class Metrics
+    {
+        final String framework,
+                     type;
+        
+        final int generation = MetricsRegistry.global().generation();
+        
+        private final Distribution[] timers = new Distribution[Operation.values().length],
+                                     sizes  = new Distribution[Operation.values().length];
+        
+        private final LongAdder[] objects = new LongAdder[Operation.values().length];
+        
+        Metrics(String framework, String type) {
+            this.framework = framework;
+            this.type = type;
+        }
+        
+        Distribution timer(Operation op) {
+            Distribution d = timers[op.ordinal()];
+            
+            if (d == null) {
+                timers[op.ordinal()] = d = MetricsRegistry.global().timer(op.timer, framework, type);
+            }
+            
+            return d;
+        }
+        
+        Distribution sizes(Operation op) {
+            Distribution d = sizes[op.ordinal()];
+            
+            if (d == null) {
+                sizes[op.ordinal()] = d = MetricsRegistry.global().sizes(op.bytes, framework, type);
+            }
+            
+            return d;
+        }
+        
+        LongAdder objects(Operation op) {
+            LongAdder a = objects[op.ordinal()];
+            
+            if (a == null) {
+                objects[op.ordinal()] = a = MetricsRegistry.global().counter(op.objects, framework, type);
+            }
+            
+            return a;
+        }
+    }
+    
+    
+    
+    private static class JavaImpl implements Serializer
+    {
+        /*
+         * Each ObjectOutputStream write a stream header and keep a table of
+         * handles that is not reset between streams, so neither the object
+         * streams nor their internal buffers are reused. Only the buffer that
+         * receive the bytes is.
+         */
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public byte[] serialize(Object object, Consumer<String> duration) {
+            final ByteArrayOutputStream bytes = JAVA_BYTES.get();
+            bytes.reset();
+            
+            final long nanos;
+
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                final long then = System.nanoTime();
+                out.writeObject(object);
+                nanos = System.nanoTime() - then;
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            
+            forward(duration, nanos);
+            return bytes.toByteArray();
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void serialize(Object object, OutputStream out) {
+            try (ObjectOutputStream os = new ObjectOutputStream(out)) {
+                os.writeObject(object);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <T> T deserialize(byte[] bytes, Consumer<String> duration) {
+            final ByteArrayInputStream obj = new ByteArrayInputStream(bytes);
+            
+            final T t;
+            
+            final long nanos;
+
+            try (ObjectInputStream in = new ObjectInputStream(obj)) {
+                final long then = System.nanoTime();
+                
+                @SuppressWarnings("unchecked")
+                T t0 = (T) in.readObject();
+                
+                nanos = System.nanoTime() - then;
+                t = t0;
+                
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            catch (ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+            
+            forward(duration, nanos);
+            return t;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <T> T deserialize(InputStream in) {
+            try (ObjectInputStream ios = new ObjectInputStream(in)) {
+                @SuppressWarnings("unchecked")
+                T t = (T) ios.readObject();
+                
+                return t;
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            catch (ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        
+        /**
+         * {@inheritDoc}<p>
+         * 
+         * Java's serialization always create a new object, {@code using} is
+         * ignored.
+         */
+        @Override
+        public <T> T deserialize(InputStream in, T using) {
+            return deserialize(in);
+        }
+        
+        /**
+         * {@inheritDoc}<p>
+         * 
+         * All prices share one {@code ObjectOutputStream}. The stream header
+         * and each class descriptor is written once, objects seen before (for
+         * example a {@code CurrencyUnit}) are written as a handle.
+         */
+        @Override
+        public void serializeAll(Collection<? extends Price> prices, OutputStream out) {
+            try {
+                // Not closed, that would close the caller's stream:
+                ObjectOutputStream os = new ObjectOutputStream(out);
+                os.writeInt(prices.size());
+                
+                for (Price p : prices) {
+                    os.writeObject(p);
+                }
+                
+                os.flush();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <P extends Price> List<P> deserializeAll(InputStream in) {
+            try {
+                ObjectInputStream ios = new ObjectInputStream(in);
+                
+                final int n = ios.readInt();
+                final List<P> prices = new ArrayList<>(n);
+                
+                for (int i = 0; i < n; ++i) {
+                    @SuppressWarnings("unchecked")
+                    P p = (P) ios.readObject();
+                    
+                    prices.add(p);
+                }
+                
+                return prices;
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            catch (ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        }
     }
     
-    
-    
     private static class KryoImpl implements Serializer
     {
         /**
@@ -338,6 +789,46 @@ public enum SerializationFramework implements Serializer
          */
         private static final int MIN_BUFFER = 8;
         
+        /**
+         * Target of {@link #serialize(Object, Consumer)}, grows as needed.
+         */
+        private static final ThreadLocal<Output> BYTES_OUTPUT
+                = ThreadLocal.withInitial(() -> new Output(BUFFER_SIZE, -1));
+        
+        /**
+         * Used by {@link #serialize(Object, OutputStream)}.
+         */
+        private static final ThreadLocal<Output> STREAM_OUTPUT
+                = ThreadLocal.withInitial(() -> new Output(MIN_BUFFER));
+        
+        /**
+         * Used by {@link #deserialize(byte[], Consumer)}, wraps the caller's
+         * array.
+         */
+        private static final ThreadLocal<Input> BYTES_INPUT
+                = ThreadLocal.withInitial(Input::new);
+        
+        /**
+         * Used by {@link #deserialize(InputStream)}.
+         */
+        private static final ThreadLocal<Input> STREAM_INPUT
+                = ThreadLocal.withInitial(() -> new Input(MIN_BUFFER));
+        
+        /**
+         * Used by {@link #serialize(Object, ByteBuffer)}, wraps the caller's
+         * buffer.
+         */
+        private static final ThreadLocal<BufferOutput> BUFFER_OUTPUT
+                = ThreadLocal.withInitial(BufferOutput::new);
+        
+        /**
+         * Used by {@link #deserialize(ByteBuffer)}, wraps the caller's buffer.
+         */
+        private static final ThreadLocal<ByteBufferInput> BUFFER_INPUT
+                = ThreadLocal.withInitial(ByteBufferInput::new);
+        
+        private static final byte[] EMPTY = {};
+        
         private final KryoPool pool;
         
         public KryoImpl(KryoFactory factory) {
@@ -354,9 +845,8 @@ public enum SerializationFramework implements Serializer
             Kryo kryo = pool.borrow();
             
             try {
-                ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
-                
-                Output o = new Output(out, MIN_BUFFER);
+                Output o = BYTES_OUTPUT.get();
+                o.clear();
                 
                 final long nanos;
                 final long then = System.nanoTime();
@@ -364,9 +854,8 @@ public enum SerializationFramework implements Serializer
                 kryo.writeClassAndObject(o, object);
                 nanos = System.nanoTime() - then;
                 
-                o.flush();
                 forward(duration, nanos);
-                return out.toByteArray();
+                return o.toBytes();
             }
             finally {
                 pool.release(kryo);
@@ -379,11 +868,15 @@ public enum SerializationFramework implements Serializer
         @Override
         public void serialize(Object object, OutputStream out) {
             Kryo kryo = pool.borrow();
+            Output o = STREAM_OUTPUT.get();
             
-            try (Output o = new Output(out, MIN_BUFFER)) {
+            try {
+                o.setOutputStream(out);
                 kryo.writeClassAndObject(o, object);
+                o.flush();
             }
             finally {
+                o.setOutputStream(null);
                 pool.release(kryo);
             }
         }
@@ -394,8 +887,10 @@ public enum SerializationFramework implements Serializer
         @Override
         public <T> T deserialize(byte[] bytes, Consumer<String> duration) {
             Kryo kryo = pool.borrow();
+            Input i = BYTES_INPUT.get();
             
-            try (Input i = new Input(bytes)) {
+            try {
+                i.setBuffer(bytes);
                 final long then = System.nanoTime();
                 
                 @SuppressWarnings("unchecked")
@@ -405,6 +900,7 @@ public enum SerializationFramework implements Serializer
                 return t;
             }
             finally {
+                i.setBuffer(EMPTY);
                 pool.release(kryo);
             }
         }
@@ -415,9 +911,91 @@ public enum SerializationFramework implements Serializer
         @Override
         public <T> T deserialize(InputStream in) {
             Kryo kryo = pool.borrow();
+            Input i = STREAM_INPUT.get();
+            
+            try {
+                i.setInputStream(in);
+                
+                @SuppressWarnings("unchecked")
+                T t = (T) kryo.readClassAndObject(i);
+                
+                return t;
+            }
+            finally {
+                i.setInputStream(null);
+                pool.release(kryo);
+            }
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <T> T deserialize(InputStream in, T using) {
+            ReuseTarget.set(using);
+            
+            try {
+                return deserialize(in);
+            }
+            finally {
+                ReuseTarget.clear();
+            }
+        }
+        
+        /**
+         * {@inheritDoc}<p>
+         * 
+         * Kryo's {@code ByteBufferOutput} write straight into the buffer, from
+         * its position up to its limit.
+         */
+        @Override
+        public int serialize(Object object, ByteBuffer buffer) {
+            Kryo kryo = pool.borrow();
+            
+            final int start = buffer.position();
+            
+            try {
+                BufferOutput o = BUFFER_OUTPUT.get();
+                o.wrap(buffer);
+                kryo.writeClassAndObject(o, object);
+                
+                // Kryo put relative to the buffer, which is where o is:
+                return o.position() - start;
+            }
+            catch (BufferOverflowException e) {
+                buffer.position(start);
+                throw e;
+            }
+            catch (KryoException e) {
+                // A field serializer wrap it, with a serialization trace:
+                if (e.getCause() instanceof BufferOverflowException) {
+                    buffer.position(start);
+                    
+                    BufferOverflowException bo = new BufferOverflowException();
+                    bo.initCause(e);
+                    throw bo;
+                }
+                
+                throw e;
+            }
+            finally {
+                pool.release(kryo);
+            }
+        }
+        
+        /**
+         * {@inheritDoc}<p>
+         * 
+         * Kryo's {@code ByteBufferInput} read straight from the buffer, from
+         * its position up to its limit.
+         */
+        @Override
+        public <T> T deserialize(ByteBuffer buffer) {
+            Kryo kryo = pool.borrow();
             
             try {
-                Input i = new Input(in, MIN_BUFFER);
+                ByteBufferInput i = BUFFER_INPUT.get();
+                i.setBuffer(buffer);
                 
                 @SuppressWarnings("unchecked")
                 T t = (T) kryo.readClassAndObject(i);
@@ -425,19 +1003,157 @@ public enum SerializationFramework implements Serializer
                 return t;
             }
             finally {
+                buffer.position(buffer.limit());
+                pool.release(kryo);
+            }
+        }
+        
+        /**
+         * {@inheritDoc}<p>
+         * 
+         * The batch start with the total count. Then follow runs of prices of
+         * the same type. Each run start with its length and the class, then the
+         * prices of the run without class. A zero length ends the batch. Kryo
+         * is not reset between the prices, so an object already written (for
+         * example a {@code CurrencyUnit}) is written as a reference.<p>
+         * 
+         * If {@code FastMoney} is written by {@link KryoSerializers#FAST_MONEY},
+         * then a run of {@code FastMoneyPrice}s in the same currency write the
+         * currency once, after the class, and the prices skip it. Each run has
+         * a flag telling whether it has a currency.
+         */
+        @Override
+        public void serializeAll(Collection<? extends Price> prices, OutputStream out) {
+            final Price[] all = prices.toArray(new Price[prices.size()]);
+            
+            Kryo kryo = pool.borrow();
+            kryo.setAutoReset(false);
+            
+            try {
+                final boolean custom = kryo.getSerializer(FastMoney.class) == KryoSerializers.FAST_MONEY;
+                
+                KryoSerializers.BatchOutput o = new KryoSerializers.BatchOutput(out, BUFFER_SIZE);
+                o.writeVarInt(all.length, true);
+                
+                for (int from = 0, to; from < all.length; from = to) {
+                    final Class<?> type = all[from].getClass();
+                    final String currency = runCurrency(all[from], custom);
+                    
+                    to = from + 1;
+                    
+                    while (to < all.length && all[to].getClass() == type &&
+                            Objects.equals(runCurrency(all[to], custom), currency)) {
+                        ++to;
+                    }
+                    
+                    o.writeVarInt(to - from, true);
+                    kryo.writeClass(o, type);
+                    o.writeBoolean(currency != null);
+                    
+                    if (currency != null) {
+                        KryoSerializers.writeCurrency(o, currency);
+                    }
+                    
+                    o.runCurrency = currency;
+                    
+                    for (int i = from; i < to; ++i) {
+                        kryo.writeObject(o, all[i]);
+                    }
+                }
+                
+                o.writeVarInt(0, true);
+                o.flush();
+            }
+            finally {
+                kryo.reset();
+                kryo.setAutoReset(true);
+                pool.release(kryo);
+            }
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <P extends Price> List<P> deserializeAll(InputStream in) {
+            Kryo kryo = pool.borrow();
+            kryo.setAutoReset(false);
+            
+            try {
+                KryoSerializers.BatchInput i = new KryoSerializers.BatchInput(in, BUFFER_SIZE);
+                
+                final List<P> prices = new ArrayList<>(i.readVarInt(true));
+                
+                for (int run; (run = i.readVarInt(true)) > 0;) {
+                    @SuppressWarnings("unchecked")
+                    Class<P> type = kryo.readClass(i).getType();
+                    
+                    i.runCurrency = i.readBoolean() ?
+                            KryoSerializers.readCurrency(i) : null;
+                    
+                    for (int j = 0; j < run; ++j) {
+                        prices.add(kryo.readObject(i, type));
+                    }
+                }
+                
+                return prices;
+            }
+            finally {
+                kryo.reset();
+                kryo.setAutoReset(true);
                 pool.release(kryo);
             }
         }
+        
+        /**
+         * A {@code ByteBufferOutput} that write into a caller's buffer and
+         * never grow it.<p>
+         * 
+         * Kryo's own output throw a {@code KryoException} when out of space.
+         * This one throw {@code BufferOverflowException}, as promised by
+         * {@link Serializer#serialize(Object, ByteBuffer)}.
+         */
+        private static final class BufferOutput extends ByteBufferOutput
+        {
+            /**
+             * Write from the position of the specified buffer up to its
+             * limit.
+             */
+            void wrap(ByteBuffer buffer) {
+                setBuffer(buffer, buffer.limit());
+                
+                // setBuffer() use the capacity, but we must stop at the limit:
+                capacity = buffer.limit();
+            }
+            
+            @Override
+            protected boolean require(int required) {
+                if (capacity - position >= required) {
+                    return false;
+                }
+                
+                throw new BufferOverflowException();
+            }
+        }
     }
     
     private static class FSTImpl implements Serializer
     {
         private final FSTConfiguration conf;
         
+        /**
+         * {@code true} if {@code FastMoney} is written by {@link
+         * FSTSerializers#FAST_MONEY}, which understand a run currency.
+         */
+        private final boolean custom;
+        
         public FSTImpl(Consumer<FSTConfiguration> configure) {
             FSTConfiguration conf0 = FSTConfiguration.createDefaultConfiguration();
             configure.accept(conf0);
             conf = conf0;
+            
+            custom = conf.getCLInfoRegistry().getSerializerRegistry()
+                    .getSerializer(FastMoney.class) == FSTSerializers.FAST_MONEY;
         }
         
         /**
@@ -517,5 +1233,133 @@ public enum SerializationFramework implements Serializer
                 throw new RuntimeException(e);
             }
         }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <T> T deserialize(InputStream in, T using) {
+            ReuseTarget.set(using);
+            
+            try {
+                return deserialize(in);
+            }
+            finally {
+                ReuseTarget.clear();
+            }
+        }
+        
+        /**
+         * {@inheritDoc}<p>
+         * 
+         * FST serialize into the internal buffer of the current thread's
+         * {@code FSTObjectOutput} which is then copied to the buffer in one
+         * bulk operation. Nothing is allocated.
+         */
+        @Override
+        public int serialize(Object object, ByteBuffer buffer) {
+            try {
+                FSTObjectOutput fout = conf.getObjectOutput();
+                fout.writeObject(object);
+                
+                final int written = fout.getWritten();
+                
+                // Throws BufferOverflowException before anything is put:
+                buffer.put(fout.getBuffer(), 0, written);
+                return written;
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        /**
+         * {@inheritDoc}<p>
+         * 
+         * The batch start with the total count, then follow runs of prices,
+         * each run start with its length, and a zero length ends the batch.<p>
+         * 
+         * If {@code FastMoney} is written by {@link FSTSerializers#FAST_MONEY},
+         * then a run of {@code FastMoneyPrice}s in the same currency write the
+         * currency once, after the length, and the prices skip it. A run of
+         * other prices write no currency and the prices write their own, if
+         * any.<p>
+         * 
+         * Unlike Kryo, each price is written with its class. FST write a
+         * registered class as a small index, and {@code writeObject(Object,
+         * Class...)} is not safe to use; FST share the possible classes of a
+         * field between configurations and the reader of FST Custom fail
+         * after FST Vanilla has been used.
+         */
+        @Override
+        public void serializeAll(Collection<? extends Price> prices, OutputStream out) {
+            final Price[] all = prices.toArray(new Price[prices.size()]);
+            
+            try {
+                FSTSerializers.BatchOutput fout = new FSTSerializers.BatchOutput(out, conf);
+                fout.writeInt(all.length);
+                
+                for (int from = 0, to; from < all.length; from = to) {
+                    final String currency = runCurrency(all[from], custom);
+                    
+                    to = from + 1;
+                    
+                    while (to < all.length && Objects.equals(runCurrency(all[to], custom), currency)) {
+                        ++to;
+                    }
+                    
+                    fout.writeInt(to - from);
+                    fout.writeBoolean(currency != null);
+                    
+                    if (currency != null) {
+                        CurrencyCodes.write(fout, currency);
+                    }
+                    
+                    fout.runCurrency = currency;
+                    
+                    for (int i = from; i < to; ++i) {
+                        fout.writeObject(all[i]);
+                    }
+                }
+                
+                fout.writeInt(0);
+                fout.flush();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <P extends Price> List<P> deserializeAll(InputStream in) {
+            try {
+                FSTSerializers.BatchInput fin = new FSTSerializers.BatchInput(in, conf);
+                
+                final List<P> prices = new ArrayList<>(fin.readInt());
+                
+                for (int run; (run = fin.readInt()) > 0;) {
+                    fin.runCurrency = fin.readBoolean() ?
+                            CurrencyCodes.read(fin) : null;
+                    
+                    for (int j = 0; j < run; ++j) {
+                        @SuppressWarnings("unchecked")
+                        P p = (P) fin.readObject();
+                        
+                        prices.add(p);
+                    }
+                }
+                
+                return prices;
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            catch (ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        }
     }
 }
\ No newline at end of file
@@ -1,13 +1,18 @@
 package com.martinandersson.money.lib.serializer;
 
+import com.martinandersson.money.lib.model.Price;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
  * A serializer know how to serialize and deserialize any given object to/from
- * a {@code byte[]} as well as to/from {@code OutputStream}/{@code
- * InputStream}.<p>
+ * a {@code byte[]}, to/from {@code OutputStream}/{@code InputStream} as well as
+ * to/from a {@code ByteBuffer}.<p>
  * 
  * You may call this interface an adapter, that bridge our code base to
  * different serialization frameworks.<p>
@@ -58,6 +63,43 @@ public interface Serializer
      */
     void serialize(Object object, OutputStream out);
     
+    /**
+     * Serialize specified {@code object} into the specified {@code buffer},
+     * starting at the buffer's position.<p>
+     * 
+     * The position is advanced past the bytes written. If the object do not
+     * fit in the bytes remaining, then {@code BufferOverflowException} is
+     * thrown and the position is left unchanged (the bytes after the position
+     * may have been modified).<p>
+     * 
+     * The buffer may be a heap buffer or a direct buffer. Its byte order is
+     * not used.
+     * 
+     * @implSpec
+     * The default implementation wraps the buffer in an {@code OutputStream}
+     * and call {@link #serialize(Object, OutputStream)}.
+     * 
+     * @param object  object to serialize
+     * @param buffer  where to put the serialized bytes
+     * 
+     * @return number of bytes written
+     * 
+     * @throws BufferOverflowException  if the object do not fit
+     */
+    default int serialize(Object object, ByteBuffer buffer) {
+        final int start = buffer.position();
+        
+        try {
+            serialize(object, ByteBufferStreams.output(buffer));
+        }
+        catch (RuntimeException e) {
+            buffer.position(start);
+            throw e;
+        }
+        
+        return buffer.position() - start;
+    }
+    
     /**
      * Deserialize the specified {@code bytes}.
      * 
@@ -99,4 +141,90 @@ public interface Serializer
      * @return an object
      */
     <T> T deserialize(InputStream in);
+    
+    /**
+     * Deserialize an {@code object}, reading into {@code using} if
+     * possible.<p>
+     * 
+     * If the serializer support reading into an existing object of the type
+     * found in the stream, then {@code using} is populated and returned.
+     * Otherwise, a new object is returned just as if {@link
+     * #deserialize(InputStream)} had been called. Thus, the client must always
+     * use the returned object.<p>
+     * 
+     * Please note that this method do not close the specified input stream.
+     * 
+     * @implSpec
+     * The default implementation ignores {@code using} and return {@code
+     * deserialize(in)}.
+     * 
+     * @param <T>    deserialized type
+     * @param in     input stream
+     * @param using  object to reuse (may be {@code null})
+     * 
+     * @return an object, possibly {@code using}
+     */
+    default <T> T deserialize(InputStream in, T using) {
+        return deserialize(in);
+    }
+    
+    /**
+     * Deserialize an {@code object} from the bytes remaining in the specified
+     * {@code buffer}.<p>
+     * 
+     * The bytes between the buffer's position and limit must be exactly one
+     * object, as written by {@link #serialize(Object, ByteBuffer)}. Hence, a
+     * buffer holding many objects must be sliced, or have its limit set, before
+     * calling this method. On return, the position is equal to the limit.
+     * 
+     * @implSpec
+     * The default implementation wraps the buffer in an {@code InputStream}
+     * and call {@link #deserialize(InputStream)}.
+     * 
+     * @param <T>     deserialized type
+     * @param buffer  bytes to deserialize
+     * 
+     * @return an object
+     */
+    default <T> T deserialize(ByteBuffer buffer) {
+        try {
+            return deserialize(ByteBufferStreams.input(buffer));
+        }
+        finally {
+            buffer.position(buffer.limit());
+        }
+    }
+    
+    /**
+     * Serialize all specified {@code prices} as one batch.<p>
+     * 
+     * Compared to serializing one price at a time, what the serialization
+     * framework write once per stream (headers, class descriptors and so on)
+     * is written once per batch. The prices may be of different types.<p>
+     * 
+     * Please note that this method do not close the specified output stream.
+     * 
+     * @param prices  prices to serialize
+     * @param out     where to put the serialized bytes
+     * 
+     * @see #deserializeAll(InputStream)
+     */
+    void serializeAll(Collection<? extends Price> prices, OutputStream out);
+    
+    /**
+     * Deserialize a batch of prices written by {@link
+     * #serializeAll(Collection, OutputStream) serializeAll()}.<p>
+     * 
+     * The serializer may read ahead and consume bytes past the end of the
+     * batch. Hence, unless the batch is the last thing in the stream, the
+     * stream must be limited to the batch.<p>
+     * 
+     * Please note that this method do not close the specified input stream.
+     * 
+     * @param <P>  price type
+     * @param in   input stream
+     * 
+     * @return all prices, in the order they were written
+     */
+    <P extends Price> List<P> deserializeAll(InputStream in);
 }
\ No newline at end of file
@@ -0,0 +1,283 @@
+package com.martinandersson.money.lib.series;
+
+import static java.text.MessageFormat.format;
+import java.util.Arrays;
+
+/**
+ * Encodes a {@code PriceSeries} into a compact {@code byte[]} using delta and
+ * variable-length encoding.<p>
+ * 
+ * A daily closing price change slowly and the next date is most often the next
+ * trading day. So instead of writing each packed date and scaled amount in
+ * full (2 + 8 bytes), this codec write the difference from the previous price.
+ * Each difference is zig-zag encoded, which map small negative and positive
+ * numbers to small positive numbers, and then written as a varint; 7 bits per
+ * byte, the high bit set if more bytes follow. A date difference of a few days
+ * take one byte. An amount difference take one byte if it is less than 64 in
+ * the scaled unit, two bytes if less than 8 192 and so on.<p>
+ * 
+ * Every {@code interval}:th price is a checkpoint, written in full (still as
+ * varints) rather than as a difference. The byte offset of each checkpoint is
+ * stored in the header, so that a range can be decoded without decoding all
+ * prices before it; see {@link #forEach(byte[], int, int, PriceConsumer)}. A
+ * larger interval save a few bytes, a smaller interval make random access
+ * cheaper.<p>
+ * 
+ * The encoded format is:
+ * <pre>
+ *   varint    size
+ *   varint    interval
+ *   int[]     offset of each checkpoint relative to the first, big-endian
+ *   byte[]    prices
+ * </pre>
+ * 
+ * The codec has no state and all methods are thread-safe.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see com.martinandersson.money.benchmark.DeltaCodecBenchmark
+ */
+public final class DeltaCodec
+{
+    private DeltaCodec() {
+        // Empty
+    }
+    
+    
+    
+    /**
+     * The interval used by {@link #encode(PriceSeries)}.
+     */
+    public static final int DEFAULT_INTERVAL = 128;
+    
+    /**
+     * Maximum bytes of one price: 3 for the date and 10 for the amount.
+     */
+    private static final int MAX_PRICE_BYTES = 13;
+    
+    
+    
+    /**
+     * Encode the specified {@code series} using a checkpoint interval of
+     * {@value #DEFAULT_INTERVAL}.
+     * 
+     * @param series  series to encode
+     * 
+     * @return the encoded series
+     */
+    public static byte[] encode(PriceSeries series) {
+        return encode(series, DEFAULT_INTERVAL);
+    }
+    
+    /**
+     * Encode the specified {@code series}.
+     * 
+     * @param series    series to encode
+     * @param interval  number of prices between two checkpoints
+     * 
+     * @return the encoded series
+     * 
+     * @throws IllegalArgumentException if {@code interval} is less than 1
+     */
+    public static byte[] encode(PriceSeries series, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be positive: " + interval);
+        }
+        
+        final int size = series.size(),
+                  checkpoints = checkpoints(size, interval);
+        
+        final byte[] header = new byte[5 + 5 + 4 * checkpoints],
+                     data   = new byte[size * MAX_PRICE_BYTES];
+        
+        int h = putVarint(header, 0, size);
+        h = putVarint(header, h, interval);
+        
+        int pos = 0;
+        
+        short prevDate = 0;
+        long prevAmount = 0;
+        
+        for (int i = 0; i < size; ++i) {
+            final short date = series.dateAt(i);
+            final long amount = series.amountAt(i);
+            
+            if (i % interval == 0) {
+                h = putInt(header, h, pos);
+                pos = putVarint(data, pos, zigZag(date));
+                pos = putVarint(data, pos, zigZag(amount));
+            }
+            else {
+                pos = putVarint(data, pos, zigZag(date - prevDate));
+                pos = putVarint(data, pos, zigZag(amount - prevAmount));
+            }
+            
+            prevDate = date;
+            prevAmount = amount;
+        }
+        
+        final byte[] encoded = Arrays.copyOf(header, h + pos);
+        System.arraycopy(data, 0, encoded, h, pos);
+        return encoded;
+    }
+    
+    /**
+     * Decode the specified {@code encoded} series.
+     * 
+     * @param encoded  series encoded by this codec
+     * 
+     * @return the decoded series
+     */
+    public static PriceSeries decode(byte[] encoded) {
+        PriceSeries.Builder b = PriceSeries.builder(size(encoded));
+        forEach(encoded, b);
+        return b.build();
+    }
+    
+    /**
+     * Returns the number of prices in the specified {@code encoded} series.
+     * 
+     * @param encoded  series encoded by this codec
+     * 
+     * @return the number of prices in the specified {@code encoded} series
+     */
+    public static int size(byte[] encoded) {
+        return (int) new Reader(encoded, 0).varint();
+    }
+    
+    /**
+     * Feed all prices in the specified {@code encoded} series to the specified
+     * {@code consumer}, in date order.
+     * 
+     * @param encoded   series encoded by this codec
+     * @param consumer  price consumer
+     * 
+     * @return number of prices decoded
+     */
+    public static int forEach(byte[] encoded, PriceConsumer consumer) {
+        final int size = size(encoded);
+        forEach(encoded, 0, size, consumer);
+        return size;
+    }
+    
+    /**
+     * Feed the prices at index {@code fromIndex}, inclusive, to {@code
+     * toIndex}, exclusive, to the specified {@code consumer}, in date
+     * order.<p>
+     * 
+     * Decoding start at the closest checkpoint at or before {@code
+     * fromIndex}.
+     * 
+     * @param encoded    series encoded by this codec
+     * @param fromIndex  low endpoint (inclusive)
+     * @param toIndex    high endpoint (exclusive)
+     * @param consumer   price consumer
+     * 
+     * @throws IndexOutOfBoundsException if an index is out of range
+     */
+    public static void forEach(byte[] encoded, int fromIndex, int toIndex, PriceConsumer consumer) {
+        final Reader r = new Reader(encoded, 0);
+        
+        final int size = (int) r.varint(),
+                  interval = (int) r.varint();
+        
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(format(
+                    "From: {0}, to: {1}, size: {2}.", fromIndex, toIndex, size));
+        }
+        
+        if (fromIndex == toIndex) {
+            return;
+        }
+        
+        final int checkpoint = fromIndex / interval,
+                  data = r.pos + 4 * checkpoints(size, interval);
+        
+        r.pos = data + getInt(encoded, r.pos + 4 * checkpoint);
+        
+        short date = 0;
+        long amount = 0;
+        
+        for (int i = checkpoint * interval; i < toIndex; ++i) {
+            if (i % interval == 0) {
+                date = (short) unZigZag(r.varint());
+                amount = unZigZag(r.varint());
+            }
+            else {
+                date += (short) unZigZag(r.varint());
+                amount += unZigZag(r.varint());
+            }
+            
+            if (i >= fromIndex) {
+                consumer.accept(date, amount);
+            }
+        }
+    }
+    
+    
+    
+    private static int checkpoints(int size, int interval) {
+        return (size + interval - 1) / interval;
+    }
+    
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    private static int putVarint(byte[] dst, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            dst[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        
+        dst[pos++] = (byte) value;
+        return pos;
+    }
+    
+    private static int putInt(byte[] dst, int pos, int value) {
+        dst[pos]     = (byte) (value >>> 24);
+        dst[pos + 1] = (byte) (value >>> 16);
+        dst[pos + 2] = (byte) (value >>> 8);
+        dst[pos + 3] = (byte) value;
+        return pos + 4;
+    }
+    
+    private static int getInt(byte[] src, int pos) {
+        return (src[pos] & 0xFF) << 24 |
+               (src[pos + 1] & 0xFF) << 16 |
+               (src[pos + 2] & 0xFF) << 8 |
+               (src[pos + 3] & 0xFF);
+    }
+    
+    /**
+     * Reads varints from a {@code byte[]}.
+     */
+    private static final class Reader
+    {
+        final byte[] src;
+        
+        int pos;
+        
+        Reader(byte[] src, int pos) {
+            this.src = src;
+            this.pos = pos;
+        }
+        
+        long varint() {
+            long value = 0;
+            
+            for (int shift = 0;; shift += 7) {
+                final byte b = src[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
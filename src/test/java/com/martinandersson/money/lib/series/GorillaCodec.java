@@ -0,0 +1,452 @@
+package com.martinandersson.money.lib.series;
+
+import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.model.DoublePrice;
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Double.longBitsToDouble;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+/**
+ * Compresses a series of {@code double} prices using the bit packing of
+ * Facebook's Gorilla time series database.<p>
+ * 
+ * The other types in this package store a scaled {@code long}. This codec is
+ * for prices kept as {@code double}s, such as {@code DoublePrice}.<p>
+ * 
+ * Dates are encoded as the difference between two consecutive date
+ * differences, the "delta of delta". For prices that arrive at a regular
+ * interval, that is most often 0, which is written as one bit. Otherwise a
+ * prefix of 2 - 4 bits tell how many bits follow: 7, 9, 12 or 32.<p>
+ * 
+ * Values are XOR:ed with the previous value. An unchanged value is written as
+ * one bit. Otherwise, what remains after the XOR often has many leading and
+ * trailing zero bits. Only the bits in between, the "meaningful" bits, are
+ * written. If they fit within the window of the previous value, then the window
+ * is reused ('10'), otherwise the number of leading zeros (5 bits) and the
+ * number of meaningful bits (6 bits) are written first ('11').<p>
+ * 
+ * How well this compress depend on the data. Values that repeat or that change
+ * only in the lower bits of the mantissa compress well. Decimal prices such as
+ * 93.4 followed by 96.1 are not exact in binary and the XOR tend to have few
+ * zero bits. {@code GorillaCodecTest} print the bits per price for {@code
+ * AppleData}. For decimal prices, a scaled {@code long} encoded by {@link
+ * DeltaCodec} is likely much smaller.<p>
+ * 
+ * The encoded format is an {@code int} count followed by the bits, written as
+ * big-endian {@code long}s. The last word is truncated to the bytes used.
+ * Encoder and decoder work directly on a {@code ByteBuffer}, heap or direct,
+ * and neither allocate anything per price. Neither is thread-safe. The decoder
+ * read whole words and may read up to 7 bytes past the end of the encoding,
+ * so its buffer should be limited to the encoding if something else follow.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see com.martinandersson.money.benchmark.GorillaCodecBenchmark
+ */
+public final class GorillaCodec
+{
+    private GorillaCodec() {
+        // Empty
+    }
+    
+    
+    
+    /**
+     * Returns an encoder that write into the specified {@code buffer}, starting
+     * at its position.
+     * 
+     * @param buffer  target
+     * 
+     * @return an encoder
+     * 
+     * @see #maxBytes(int)
+     */
+    public static Encoder encoder(ByteBuffer buffer) {
+        return new Encoder(buffer);
+    }
+    
+    /**
+     * Returns a decoder that read from the specified {@code buffer}, starting
+     * at its position.
+     * 
+     * @param buffer  source, as written by an {@code Encoder}
+     * 
+     * @return a decoder
+     */
+    public static Decoder decoder(ByteBuffer buffer) {
+        return new Decoder(buffer);
+    }
+    
+    /**
+     * Returns the maximum number of bytes needed to encode the specified
+     * number of prices.<p>
+     * 
+     * A price cost at most 36 bits for the date and 77 bits for the value.
+     * 
+     * @param count  number of prices
+     * 
+     * @return the maximum number of bytes needed
+     */
+    public static int maxBytes(int count) {
+        return Integer.BYTES + (int) (((long) count * 113 + 7) / 8) + Long.BYTES;
+    }
+    
+    
+    
+    private static long mask(int bits) {
+        return bits == 64 ? -1L : (1L << bits) - 1;
+    }
+    
+    
+    
+    /**
+     * Writes prices to a {@code ByteBuffer}.<p>
+     * 
+     * The encoding is not complete until {@link #finish()} has been called.
+     */
+    public static final class Encoder
+    {
+        private final ByteBuffer buffer;
+        
+        private final int start;
+        
+        private long word;
+        
+        private int free = 64;
+        
+        private int count;
+        
+        private int prevDate, prevDelta;
+        
+        private long prevBits;
+        
+        /** No window until the first non-zero XOR. */
+        private int prevLeading = Integer.MAX_VALUE,
+                    prevTrailing;
+        
+        private Encoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.start = buffer.position();
+            
+            // Count is written by finish():
+            buffer.putInt(0);
+        }
+        
+        /**
+         * Add a price.
+         * 
+         * @param price  price
+         * 
+         * @return this encoder
+         */
+        public Encoder add(DoublePrice price) {
+            return add(LocalDates.toShort(price.getDate()), price.getAdjClose());
+        }
+        
+        /**
+         * Add a price.
+         * 
+         * @param date   packed date
+         * @param value  value
+         * 
+         * @return this encoder
+         * 
+         * @throws java.nio.BufferOverflowException if the buffer is full
+         */
+        public Encoder add(short date, double value) {
+            final long bits = doubleToRawLongBits(value);
+            
+            if (count == 0) {
+                write(date, 16);
+                write(bits, 64);
+                prevDate = date;
+                prevBits = bits;
+                ++count;
+                return this;
+            }
+            
+            final int delta = date - prevDate,
+                      dod = delta - prevDelta;
+            
+            if (dod == 0) {
+                write(0b0, 1);
+            }
+            else if (dod >= -64 && dod <= 63) {
+                write(0b10, 2);
+                write(dod, 7);
+            }
+            else if (dod >= -256 && dod <= 255) {
+                write(0b110, 3);
+                write(dod, 9);
+            }
+            else if (dod >= -2048 && dod <= 2047) {
+                write(0b1110, 4);
+                write(dod, 12);
+            }
+            else {
+                write(0b1111, 4);
+                write(dod, 32);
+            }
+            
+            final long xor = bits ^ prevBits;
+            
+            if (xor == 0) {
+                write(0b0, 1);
+            }
+            else {
+                final int leading = Math.min(31, Long.numberOfLeadingZeros(xor)),
+                          trailing = Long.numberOfTrailingZeros(xor);
+                
+                if (leading >= prevLeading && trailing >= prevTrailing) {
+                    write(0b10, 2);
+                    write(xor >>> prevTrailing, 64 - prevLeading - prevTrailing);
+                }
+                else {
+                    final int meaningful = 64 - leading - trailing;
+                    
+                    write(0b11, 2);
+                    write(leading, 5);
+                    write(meaningful, 6); // 64 becomes 0
+                    write(xor >>> trailing, meaningful);
+                    
+                    prevLeading = leading;
+                    prevTrailing = trailing;
+                }
+            }
+            
+            prevDate = date;
+            prevDelta = delta;
+            prevBits = bits;
+            ++count;
+            
+            return this;
+        }
+        
+        /**
+         * Returns the number of prices added.
+         * 
+         * @return the number of prices added
+         */
+        public int size() {
+            return count;
+        }
+        
+        /**
+         * Write what remains and the count.<p>
+         * 
+         * The buffer's position is left after the last byte written.
+         * 
+         * @return number of bytes written since this encoder was created
+         */
+        public int finish() {
+            for (int used = 64 - free; used > 0; used -= 8) {
+                buffer.put((byte) (word >>> 56));
+                word <<= 8;
+            }
+            
+            word = 0;
+            free = 64;
+            
+            buffer.putInt(start, count);
+            return buffer.position() - start;
+        }
+        
+        /**
+         * Write the {@code bits} lowest bits of {@code value}.
+         */
+        private void write(long value, int bits) {
+            value &= mask(bits);
+            
+            if (bits <= free) {
+                free -= bits;
+                word |= value << free;
+                
+                if (free == 0) {
+                    buffer.putLong(word);
+                    word = 0;
+                    free = 64;
+                }
+            }
+            else {
+                final int rest = bits - free;
+                
+                buffer.putLong(word | value >>> rest);
+                free = 64 - rest;
+                word = value << free;
+            }
+        }
+    }
+    
+    /**
+     * Reads prices from a {@code ByteBuffer}.<p>
+     * 
+     * The decoder is a cursor. Call {@link #next()} to move to the next price
+     * and then read it using {@link #date()} and {@link #value()}.
+     */
+    public static final class Decoder
+    {
+        private final ByteBuffer buffer;
+        
+        private final int count;
+        
+        private long word;
+        
+        private int left;
+        
+        private int index = -1;
+        
+        private int date, delta;
+        
+        private long bits;
+        
+        private int leading, trailing;
+        
+        private Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.count = buffer.getInt();
+        }
+        
+        /**
+         * Returns the number of prices.
+         * 
+         * @return the number of prices
+         */
+        public int size() {
+            return count;
+        }
+        
+        /**
+         * Move to the next price.
+         * 
+         * @return {@code true} if there was a next price, otherwise {@code
+         *         false}
+         */
+        public boolean next() {
+            if (index + 1 >= count) {
+                return false;
+            }
+            
+            if (++index == 0) {
+                date = (short) read(16);
+                bits = read(64);
+                return true;
+            }
+            
+            final int dod;
+            
+            if (read(1) == 0) {
+                dod = 0;
+            }
+            else if (read(1) == 0) {
+                dod = signed(read(7), 7);
+            }
+            else if (read(1) == 0) {
+                dod = signed(read(9), 9);
+            }
+            else if (read(1) == 0) {
+                dod = signed(read(12), 12);
+            }
+            else {
+                dod = (int) read(32);
+            }
+            
+            delta += dod;
+            date += delta;
+            
+            if (read(1) == 1) {
+                if (read(1) == 1) {
+                    leading = (int) read(5);
+                    
+                    int meaningful = (int) read(6);
+                    
+                    if (meaningful == 0) {
+                        meaningful = 64;
+                    }
+                    
+                    trailing = 64 - leading - meaningful;
+                }
+                
+                bits ^= read(64 - leading - trailing) << trailing;
+            }
+            
+            return true;
+        }
+        
+        /**
+         * Returns the index of the current price.
+         * 
+         * @return the index of the current price, -1 before the first call to
+         *         {@code next()}
+         */
+        public int index() {
+            return index;
+        }
+        
+        /**
+         * Returns the packed date of the current price.
+         * 
+         * @return the packed date of the current price
+         */
+        public short date() {
+            return (short) date;
+        }
+        
+        /**
+         * Returns the date of the current price.
+         * 
+         * @return the date of the current price
+         */
+        public LocalDate localDate() {
+            return LocalDates.fromShort(date());
+        }
+        
+        /**
+         * Returns the value of the current price.
+         * 
+         * @return the value of the current price
+         */
+        public double value() {
+            return longBitsToDouble(bits);
+        }
+        
+        private static int signed(long value, int bits) {
+            return (int) (value << (64 - bits) >> (64 - bits));
+        }
+        
+        /**
+         * Read {@code bits} bits, 1 to 64.
+         */
+        private long read(int bits) {
+            if (bits <= left) {
+                left -= bits;
+                return (word >>> left) & mask(bits);
+            }
+            
+            final int rest = bits - left;
+            final long high = word & mask(left);
+            
+            refill();
+            left -= rest;
+            
+            final long low = (word >>> left) & mask(rest);
+            return high << rest | low;
+        }
+        
+        private void refill() {
+            if (buffer.remaining() >= Long.BYTES) {
+                word = buffer.getLong();
+                left = 64;
+            }
+            else {
+                // Last word, truncated:
+                word = 0;
+                left = 64;
+                
+                for (int shift = 56; buffer.hasRemaining(); shift -= 8) {
+                    word |= (buffer.get() & 0xFFL) << shift;
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
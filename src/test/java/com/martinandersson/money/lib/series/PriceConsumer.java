@@ -0,0 +1,23 @@
+package com.martinandersson.money.lib.series;
+
+/**
+ * Accepts one price in its packed form.<p>
+ * 
+ * The point of this interface is to let producers and consumers of price data
+ * exchange the data without boxing nor allocating a model object per price.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see com.martinandersson.money.lib.series package-info.java
+ */
+@FunctionalInterface
+public interface PriceConsumer
+{
+    /**
+     * Accept a price.
+     * 
+     * @param date    packed date
+     * @param amount  scaled amount
+     */
+    void accept(short date, long amount);
+}
\ No newline at end of file
@@ -0,0 +1,463 @@
+package com.martinandersson.money.lib.series;
+
+import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.model.LongPrice;
+import static java.text.MessageFormat.format;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * An immutable price history stored as two parallel primitive arrays: a {@code
+ * short[]} of packed dates and a {@code long[]} of scaled amounts, sorted by
+ * date in ascending order.<p>
+ * 
+ * A {@code TreeMap<LocalDate, FastMoneyPrice>} of the 8 961 rows in {@code
+ * AppleData} is made of 8 961 tree entries, 8 961 {@code LocalDate}s, 8 961
+ * prices and 8 961 {@code FastMoney}s. Looking up a date is a walk through
+ * objects scattered all over the heap, and so is a range scan. This class store
+ * the same information in two arrays. A lookup is a binary search over a
+ * {@code short[]} and a range scan is a linear walk over a {@code long[]}.<p>
+ * 
+ * Dates are packed using {@link LocalDates#toShort(LocalDate)} which retain the
+ * natural order of {@code LocalDate}. Hence, the binary search can be made
+ * directly on the packed dates.<p>
+ * 
+ * Methods that return a series, such as {@link #subSeries(LocalDate,
+ * LocalDate) subSeries()}, return a view that share the arrays of this series.
+ * No data is copied.<p>
+ * 
+ * Methods that accept an index expect the index to be relative to the series
+ * (or view) on which the method is invoked, 0 being the first and oldest price.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see com.martinandersson.money.lib.series package-info.java
+ */
+public final class PriceSeries
+{
+    /**
+     * Returns a new builder.
+     * 
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder(16);
+    }
+    
+    /**
+     * Returns a new builder.
+     * 
+     * @param expectedSize  expected amount of prices
+     * 
+     * @return a new builder
+     */
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+    
+    
+    
+    private final short[] dates;
+    
+    private final long[] amounts;
+    
+    /** First index, inclusive. */
+    private final int from;
+    
+    /** Last index, exclusive. */
+    private final int to;
+    
+    
+    
+    private PriceSeries(short[] dates, long[] amounts, int from, int to) {
+        this.dates = dates;
+        this.amounts = amounts;
+        this.from = from;
+        this.to = to;
+    }
+    
+    
+    
+    /**
+     * Returns the number of prices in this series.
+     * 
+     * @return the number of prices in this series
+     */
+    public int size() {
+        return to - from;
+    }
+    
+    /**
+     * Returns {@code true} if this series has no prices, otherwise {@code
+     * false}.
+     * 
+     * @return {@code true} if this series has no prices, otherwise {@code
+     * false}
+     */
+    public boolean isEmpty() {
+        return from == to;
+    }
+    
+    /**
+     * Returns the packed date at the specified {@code index}.
+     * 
+     * @param index  index of price
+     * 
+     * @return the packed date at the specified {@code index}
+     * 
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public short dateAt(int index) {
+        return dates[checkIndex(index)];
+    }
+    
+    /**
+     * Returns the date at the specified {@code index}.
+     * 
+     * @param index  index of price
+     * 
+     * @return the date at the specified {@code index}
+     * 
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public LocalDate localDateAt(int index) {
+        return LocalDates.fromShort(dateAt(index));
+    }
+    
+    /**
+     * Returns the scaled amount at the specified {@code index}.
+     * 
+     * @param index  index of price
+     * 
+     * @return the scaled amount at the specified {@code index}
+     * 
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public long amountAt(int index) {
+        return amounts[checkIndex(index)];
+    }
+    
+    /**
+     * Returns the price at the specified {@code index}.
+     * 
+     * @param index  index of price
+     * 
+     * @return the price at the specified {@code index}
+     * 
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public LongPrice priceAt(int index) {
+        int i = checkIndex(index);
+        return LongPrice.ofPacked(dates[i], amounts[i]);
+    }
+    
+    /**
+     * Search this series for the specified {@code date}.<p>
+     * 
+     * The return value follow the same contract as {@link
+     * Arrays#binarySearch(short[], short)}: the index of the date if found,
+     * otherwise {@code (-(insertion point) - 1)}.
+     * 
+     * @param date  packed date to search for
+     * 
+     * @return index of the date if found, otherwise {@code (-(insertion point)
+     * - 1)}
+     */
+    public int indexOf(short date) {
+        int i = Arrays.binarySearch(dates, from, to, date);
+        return i >= 0 ? i - from : i + from;
+    }
+    
+    /**
+     * Search this series for the specified {@code date}.
+     * 
+     * @param date  date to search for
+     * 
+     * @return index of the date if found, otherwise {@code (-(insertion point)
+     * - 1)}
+     * 
+     * @see #indexOf(short)
+     */
+    public int indexOf(LocalDate date) {
+        return indexOf(LocalDates.toShort(date));
+    }
+    
+    /**
+     * Returns the index of the greatest date less than or equal to the
+     * specified {@code date}, or {@code -1} if there is no such date.
+     * 
+     * @param date  packed date
+     * 
+     * @return the index of the greatest date less than or equal to the
+     * specified {@code date}, or {@code -1} if there is no such date
+     */
+    public int floorIndex(short date) {
+        int i = indexOf(date);
+        return i >= 0 ? i : -i - 2;
+    }
+    
+    /**
+     * Returns the index of the least date greater than or equal to the
+     * specified {@code date}, or {@code -1} if there is no such date.
+     * 
+     * @param date  packed date
+     * 
+     * @return the index of the least date greater than or equal to the
+     * specified {@code date}, or {@code -1} if there is no such date
+     */
+    public int ceilingIndex(short date) {
+        int i = indexOf(date);
+        
+        if (i >= 0) {
+            return i;
+        }
+        
+        int insertion = -i - 1;
+        return insertion < size() ? insertion : -1;
+    }
+    
+    /**
+     * Returns a view of the prices at index {@code fromIndex}, inclusive, to
+     * {@code toIndex}, exclusive.
+     * 
+     * @param fromIndex  low endpoint (inclusive)
+     * @param toIndex    high endpoint (exclusive)
+     * 
+     * @return a view of the prices at index {@code fromIndex}, inclusive, to
+     * {@code toIndex}, exclusive
+     * 
+     * @throws IndexOutOfBoundsException if an index is out of range
+     */
+    public PriceSeries subSeries(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(format(
+                    "From: {0}, to: {1}, size: {2}.", fromIndex, toIndex, size()));
+        }
+        
+        return new PriceSeries(dates, amounts, from + fromIndex, from + toIndex);
+    }
+    
+    /**
+     * Returns a view of the prices dated {@code fromDate} to {@code toDate},
+     * both inclusive.<p>
+     * 
+     * The dates need not be present in the series. If there are no prices in
+     * the range, then an empty series is returned.
+     * 
+     * @param fromDate  low endpoint (inclusive)
+     * @param toDate    high endpoint (inclusive)
+     * 
+     * @return a view of the prices dated {@code fromDate} to {@code toDate},
+     * both inclusive
+     * 
+     * @throws IllegalArgumentException if {@code fromDate} is after {@code
+     *         toDate}
+     */
+    public PriceSeries subSeries(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException(format(
+                    "From ({0}) is after to ({1}).", fromDate, toDate));
+        }
+        
+        int lo = indexOf(LocalDates.toShort(fromDate)),
+            hi = indexOf(LocalDates.toShort(toDate));
+        
+        lo = lo >= 0 ? lo     : -lo - 1;
+        hi = hi >= 0 ? hi + 1 : -hi - 1;
+        
+        return subSeries(lo, hi);
+    }
+    
+    /**
+     * Feed all prices in this series to the specified {@code consumer}, in
+     * date order.
+     * 
+     * @param consumer  price consumer
+     */
+    public void forEach(PriceConsumer consumer) {
+        for (int i = from; i < to; ++i) {
+            consumer.accept(dates[i], amounts[i]);
+        }
+    }
+    
+    /**
+     * Returns the sum of all scaled amounts in this series.
+     * 
+     * @return the sum of all scaled amounts in this series
+     * 
+     * @throws ArithmeticException if the sum overflows a long
+     */
+    public long sum() {
+        long sum = 0;
+        
+        for (int i = from; i < to; ++i) {
+            sum = Math.addExact(sum, amounts[i]);
+        }
+        
+        return sum;
+    }
+    
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+                "size=" + size() +
+                (isEmpty() ? "" : ", first=" + localDateAt(0) +
+                                  ", last=" + localDateAt(size() - 1)) +
+                "}";
+    }
+    
+    
+    
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(format(
+                    "Index: {0}, size: {1}.", index, size()));
+        }
+        
+        return from + index;
+    }
+    
+    
+    
+    /**
+     * Builder of {@code PriceSeries}.<p>
+     * 
+     * Prices may be added in any order. If the prices were not added in
+     * ascending date order, then they are sorted when the series is built
+     * (prices added in descending order, like the rows of the Quandl data set,
+     * are simply reversed).<p>
+     * 
+     * The builder is not thread-safe and should not be reused after {@link
+     * #build()}.
+     */
+    public static final class Builder implements PriceConsumer
+    {
+        private short[] dates;
+        
+        private long[] amounts;
+        
+        private int size;
+        
+        private boolean ascending = true,
+                        descending = true;
+        
+        
+        private Builder(int expectedSize) {
+            if (expectedSize < 0) {
+                throw new IllegalArgumentException(
+                        "Expected size is negative: " + expectedSize);
+            }
+            
+            dates = new short[expectedSize];
+            amounts = new long[expectedSize];
+        }
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void accept(short date, long amount) {
+            add(date, amount);
+        }
+        
+        /**
+         * Add a price.
+         * 
+         * @param date    packed date
+         * @param amount  scaled amount
+         * 
+         * @return this builder
+         */
+        public Builder add(short date, long amount) {
+            if (size == dates.length) {
+                int newSize = Math.max(16, size + (size >> 1));
+                dates = Arrays.copyOf(dates, newSize);
+                amounts = Arrays.copyOf(amounts, newSize);
+            }
+            
+            if (size > 0) {
+                short prev = dates[size - 1];
+                ascending  &= prev < date;
+                descending &= prev > date;
+            }
+            
+            dates[size] = date;
+            amounts[size] = amount;
+            ++size;
+            
+            return this;
+        }
+        
+        /**
+         * Add a price.
+         * 
+         * @param date    date
+         * @param amount  scaled amount
+         * 
+         * @return this builder
+         */
+        public Builder add(LocalDate date, long amount) {
+            return add(LocalDates.toShort(date), amount);
+        }
+        
+        /**
+         * Build the series.
+         * 
+         * @return a new series
+         * 
+         * @throws IllegalArgumentException if a date was added more than once
+         */
+        public PriceSeries build() {
+            short[] d = Arrays.copyOf(dates, size);
+            long[]  a = Arrays.copyOf(amounts, size);
+            
+            if (!ascending) {
+                if (descending) {
+                    reverse(d, a);
+                }
+                else {
+                    sort(d, a);
+                }
+            }
+            
+            return new PriceSeries(d, a, 0, size);
+        }
+        
+        private static void reverse(short[] d, long[] a) {
+            for (int i = 0, j = d.length - 1; i < j; ++i, --j) {
+                short ds = d[i]; d[i] = d[j]; d[j] = ds;
+                long  as = a[i]; a[i] = a[j]; a[j] = as;
+            }
+        }
+        
+        private static void sort(short[] d, long[] a) {
+            // Sort indices by date, then permute. Only happens once per series.
+            Integer[] order = new Integer[d.length];
+            
+            for (int i = 0; i < order.length; ++i) {
+                order[i] = i;
+            }
+            
+            Arrays.sort(order, (x, y) -> Short.compare(d[x], d[y]));
+            
+            short[] dCopy = d.clone();
+            long[]  aCopy = a.clone();
+            
+            for (int i = 0; i < order.length; ++i) {
+                d[i] = dCopy[order[i]];
+                a[i] = aCopy[order[i]];
+                
+                if (i > 0 && d[i] == d[i - 1]) {
+                    throw new IllegalArgumentException(
+                            "Duplicated date: " + LocalDates.fromShort(d[i]));
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+/**
+ * Package of price series.<p>
+ * 
+ * A model in package {@link com.martinandersson.money.lib.model} represent one
+ * price, and many prices is typically one object per day stored in a {@code
+ * Map}. The types in this package represent an entire price history of an
+ * instrument, laid out in memory as primitives rather than objects.<p>
+ * 
+ * The date is always packed into a {@code short} using {@link
+ * com.martinandersson.money.lib.LocalDates#toShort(java.time.LocalDate)} and the
+ * amount is always a {@code long} scaled {@value
+ * com.martinandersson.money.lib.model.FastMoneyPrice#MAX_SCALE} decimal places
+ * to the right, i.e. the same number {@code FastMoney} store internally. The
+ * one exception is {@link com.martinandersson.money.lib.series.GorillaCodec},
+ * which compress {@code double}s.
+ */
+package com.martinandersson.money.lib.series;
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.chroniclemap.BulkLoader;
+import com.martinandersson.money.lib.chroniclemap.ChronicleMapMarshaller;
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.serializer.SerializationFramework;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.Stream;
+import net.openhft.chronicle.map.ChronicleMap;
+import net.openhft.chronicle.map.ChronicleMapBuilder;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.javamoney.moneta.FastMoney;
+
+/**
+ * Test of {@code BulkLoader}.<p>
+ * 
+ * All {@code AppleData} is loaded into a new map using different parallelism
+ * and serialization frameworks, then read back one by one.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class BulkLoaderTest
+{
+    private static final List<FastMoneyPrice> PRICES
+            = AppleData.rowsAs(FastMoneyPrice::ofJson).collect(toList());
+    
+    
+    
+    @DataProvider
+    public Object[][] parallelismAndSerializer() {
+        return Arrays.stream(SerializationFramework.values())
+                .flatMap(s -> Arrays.stream(new Integer[]{1, 2, 4, 16})
+                        .map(b -> new Object[]{b, s}))
+                .toArray(Object[][]::new);
+    }
+    
+    
+    
+    @Test(dataProvider = "parallelismAndSerializer")
+    public void test_load(int parallelism, SerializationFramework serializer) {
+        try (ChronicleMap<LocalDate, FastMoneyPrice> map
+                = BulkLoader.createAndLoad(builder(serializer), PRICES, parallelism))
+        {
+            assertEquals(map.size(), PRICES.size());
+            
+            for (FastMoneyPrice p : PRICES) {
+                assertEquals(map.get(p.getDate()), p);
+            }
+        }
+    }
+    
+    @Test
+    public void test_replace() {
+        try (ChronicleMap<LocalDate, FastMoneyPrice> map
+                = BulkLoader.createAndLoad(builder(SerializationFramework.KRYO_CUSTOM), PRICES, 4))
+        {
+            FastMoneyPrice first = PRICES.get(0),
+                           other = PRICES.get(1);
+            
+            // Put a value from another date under the first key:
+            FastMoneyPrice moved = FastMoneyPrice.ofFastMoney(
+                    first.getDate(), FastMoney.from(other.getAdjClose()));
+            
+            assertEquals(BulkLoader.load(map, Stream.of(moved), 4), 1);
+            
+            assertEquals(map.size(), PRICES.size());
+            assertEquals(map.get(first.getDate()), moved);
+        }
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_badParallelism() {
+        BulkLoader.load(null, PRICES.stream(), 0);
+    }
+    
+    
+    
+    private static ChronicleMapBuilder<LocalDate, FastMoneyPrice> builder(SerializationFramework serializer) {
+        ChronicleMapMarshaller<LocalDate> keyMarshaller = new ChronicleMapMarshaller<>(serializer);
+        
+        @SuppressWarnings("unchecked")
+        ChronicleMapMarshaller<FastMoneyPrice> valueMarshaller
+                = (ChronicleMapMarshaller<FastMoneyPrice>) (ChronicleMapMarshaller) keyMarshaller;
+        
+        return ChronicleMapBuilder.of(LocalDate.class, FastMoneyPrice.class)
+                .keyMarshaller(keyMarshaller)
+                .valueMarshaller(valueMarshaller)
+                .constantKeySizeBySample(LocalDate.now())
+                .averageValue(FastMoneyPrice.EXACT_SIZE);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.chroniclemap.ChronicleMapLogger;
+import com.martinandersson.money.lib.chroniclemap.SizeLogger;
+import com.martinandersson.money.lib.chroniclemap.TimeLogger;
+import net.openhft.chronicle.map.ChronicleMap;
+import net.openhft.chronicle.map.ChronicleMapBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Test of {@code ChronicleMapLogger}, and of {@code TimeLogger} and {@code
+ * SizeLogger}, the two loggers it use.<p>
+ * 
+ * All invocations of {@code test_concurrentRecord()} record into the same
+ * loggers, from many threads at once. The totals are verified when all
+ * invocations have completed.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class ChronicleMapLoggerTest
+{
+    private static final int THREADS = 8,
+                             RECORDS = 10_000;
+    
+    private final TimeLogger time = new TimeLogger();
+    
+    private final SizeLogger size = new SizeLogger();
+    
+    
+    
+    /**
+     * Records the values 1 to {@code RECORDS}, and start/complete overlapping
+     * operations.
+     */
+    @Test(invocationCount = THREADS, threadPoolSize = THREADS)
+    public void test_concurrentRecord() {
+        for (int i = 1; i <= RECORDS; ++i) {
+            time.record(i);
+            size.record(i, 2 * i);
+        }
+        
+        final long outer = time.start(),
+                   inner = time.start();
+        
+        time.complete(inner);
+        time.complete(outer);
+    }
+    
+    /**
+     * Each operation on a map is logged once, by the time logger of the
+     * operation. compute(), computeIfAbsent(), computeIfPresent() and merge()
+     * share one.
+     */
+    @Test
+    public void test_mapOperations() {
+        ChronicleMapLogger<Integer, Long, ?> logger = new ChronicleMapLogger<>();
+        
+        try (ChronicleMap<Integer, Long> map = newMap(logger)) {
+            for (int i = 0; i < 10; ++i) {
+                map.put(i, (long) i);
+            }
+            
+            assertEquals(map.get(1), (Long) 1L);
+            assertEquals(map.remove(9), (Long) 9L);
+            assertEquals(map.acquireUsing(0, 5L), (Long) 0L);
+            assertEquals(map.compute(1, (k, v) -> v + 1), (Long) 2L);
+            assertEquals(map.computeIfAbsent(50, k -> 50L), (Long) 50L);
+            assertEquals(map.computeIfPresent(50, (k, v) -> v + 1), (Long) 51L);
+            assertEquals(map.merge(2, 1L, Long::sum), (Long) 3L);
+        }
+        
+        final String str = logger.toString();
+        
+        assertEquals(count(str, "put()"), 10, str);
+        assertEquals(count(str, "get()"), 1, str);
+        assertEquals(count(str, "remove()"), 1, str);
+        assertEquals(count(str, "acquireUsing()"), 1, str);
+        assertEquals(count(str, "compute()"), 4, str);
+    }
+    
+    /**
+     * Only put() and get() are part of the string if nothing else has been
+     * used.
+     */
+    @Test
+    public void test_toString_unusedOperations() {
+        ChronicleMapLogger<Integer, Long, ?> logger = new ChronicleMapLogger<>();
+        
+        try (ChronicleMap<Integer, Long> map = newMap(logger)) {
+            map.put(1, 1L);
+            map.get(1);
+        }
+        
+        final String str = logger.toString();
+        
+        assertEquals(count(str, "put()"), 1, str);
+        assertEquals(count(str, "get()"), 1, str);
+        assertEquals(count(str, "remove()"), -1, str);
+        assertEquals(count(str, "acquireUsing()"), -1, str);
+        assertEquals(count(str, "compute()"), -1, str);
+    }
+    
+    @AfterClass
+    public void verify() {
+        final long sum = (long) RECORDS * (RECORDS + 1) / 2;
+        
+        assertEquals(time.count(), THREADS * (RECORDS + 2));
+        assertTrue(time.getMinCost() <= 1);
+        assertTrue(time.getMaxCost() >= RECORDS);
+        
+        assertEquals(size.count(), THREADS * RECORDS);
+        assertEquals(size.getMinKeySize(), 1);
+        assertEquals(size.getMaxKeySize(), RECORDS);
+        assertEquals(size.getMinValueSize(), 2);
+        assertEquals(size.getMaxValueSize(), 2 * RECORDS);
+        assertEquals(size.getTotKeySize(), THREADS * sum);
+        assertEquals(size.getTotValueSize(), THREADS * 2 * sum);
+        assertEquals(size.avgKeySize(), Math.round(sum / (double) RECORDS));
+    }
+    
+    
+    
+    private static ChronicleMap<Integer, Long> newMap(ChronicleMapLogger<Integer, Long, ?> logger) {
+        return ChronicleMapBuilder.of(Integer.class, Long.class)
+                .entries(100)
+                .mapMethods(logger)
+                .create();
+    }
+    
+    /**
+     * Returns the count printed for the specified operation, or -1 if the
+     * operation is not part of the string.
+     */
+    private static int count(String str, String operation) {
+        final String section = "Map statistics for " + operation + ':',
+                     count = "count=";
+        
+        int i = str.indexOf(section);
+        
+        if (i == -1) {
+            return -1;
+        }
+        
+        i = str.indexOf(count, i) + count.length();
+        
+        int end = i;
+        
+        while (end < str.length() && Character.isDigit(str.charAt(end))) {
+            ++end;
+        }
+        
+        return Integer.parseInt(str.substring(i, end));
+    }
+}
\ No newline at end of file
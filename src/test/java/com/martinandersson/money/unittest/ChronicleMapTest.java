@@ -3,10 +3,13 @@ package com.martinandersson.money.unittest;
 import com.martinandersson.money.lib.AppleData;
 import com.martinandersson.money.lib.model.BigDecimalPrice;
 import com.martinandersson.money.lib.chroniclemap.ChronicleMapMarshaller;
+import com.martinandersson.money.lib.chroniclemap.FastMoneyPriceMarshaller;
+import com.martinandersson.money.lib.chroniclemap.LocalDateMarshaller;
 import com.martinandersson.money.lib.model.CustomFastMoneyPrice1;
 import com.martinandersson.money.lib.model.CustomFastMoneyPrice2;
 import com.martinandersson.money.lib.model.DoublePrice;
 import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.model.LongPrice;
 import com.martinandersson.money.lib.model.MoneyPrice;
 import com.martinandersson.money.lib.model.Price;
 import com.martinandersson.money.lib.chroniclemap.ChronicleMapLogger;
@@ -62,6 +65,28 @@ import static org.testng.Assert.assertNotNull;
  * Time cost is irrelevant for the purpose of comparison, but speaking of file
  * sizes, it might be interesting to know that I run Windows 10, NTFS.<p>
  * 
+ * The file size is also printed divided by the number of entries written.<p>
+ * 
+ * All outputs quoted in this class was recorded before the custom serializers,
+ * {@code CustomFastMoneyPrice1} and {@code CustomFastMoneyPrice2} started to
+ * write the currency code as an ordinal of {@code CurrencyCodes}. For "USD",
+ * the ordinal is 1 byte. Average value size of all {@code AppleData}, before
+ * and after:
+ * <pre>
+ *   Kryo Custom, FastMoneyPrice:    12.21 to 10.21 bytes
+ *   Kryo Custom, MoneyPrice:        16.98 to 14.98 bytes
+ *   FST Custom, FastMoneyPrice:     16.89 to 13.89 bytes
+ *   FST Custom, MoneyPrice:         28.14 to 25.14 bytes
+ *   Java, CustomFastMoneyPrice1/2:  97 to 92 bytes
+ * </pre>
+ * 
+ * Vanilla frameworks and Java's serialization of {@code Money} and {@code
+ * FastMoney} do not use our serializers and are unaffected. So are {@code
+ * DoublePrice}, {@code BigDecimalPrice} and {@code LongPrice}, which has no
+ * currency. {@link #test_fastMoney_valueSize(SerializationFramework)
+ * test_fastMoney_valueSize()} assert the current size of a {@code
+ * FastMoneyPrice} per framework.<p>
+ * 
  * Please note that time performance of Chronicle Map is more accurately
  * benchmarked in {@code ChronicleMapBaselineBenchmark} and {@code
  * ChronicleMapRealBenchmark}.<p>
@@ -93,6 +118,21 @@ public class ChronicleMapTest
                 .toArray(SerializationFramework[][]::new);
     }
     
+    private static final String VALUE_SIZE_PROVIDER = "valueSizeProvider";
+    
+    /**
+     * TestNG data provider that provide all serialization frameworks, without
+     * {@code null}.
+     * 
+     * @return all serialization frameworks
+     */
+    @DataProvider(name = VALUE_SIZE_PROVIDER)
+    private static SerializationFramework[][] frameworks() {
+        return Arrays.stream(SerializationFramework.values())
+                .map(s -> new SerializationFramework[]{s})
+                .toArray(SerializationFramework[][]::new);
+    }
+    
     
     
     /**
@@ -103,6 +143,12 @@ public class ChronicleMapTest
      */
     private SerializationFramework serializer;
     
+    /**
+     * If {@code true}, use {@code LocalDateMarshaller} and {@code
+     * FastMoneyPriceMarshaller} instead of a serializer.
+     */
+    private boolean nativeMarshallers;
+    
     /**
      * Real [temporary] file used by Chronicle Map for persistence.
      */
@@ -125,7 +171,8 @@ public class ChronicleMapTest
                     "Unexpected. Either no arg, or just 1 serializer.");
         }
         
-        mapLogger = new ChronicleMapLogger<>();
+        nativeMarshallers = false;
+        mapLogger = new ChronicleMapLogger<>(serializer == null ? "" : serializer.toString());
     }
     
     @AfterMethod
@@ -518,6 +565,73 @@ public class ChronicleMapTest
                 .run();
     }
     
+    /**
+     * Same as {@link #test_fastMoney(SerializationFramework) test_fastMoney()},
+     * but using {@code LocalDateMarshaller} and {@code
+     * FastMoneyPriceMarshaller} which write primitives directly into
+     * Chronicle's {@code Bytes}. The key is 2 bytes and the value 11 bytes.
+     */
+    @Test
+    public void test_fastMoney_native() {
+        nativeMarshallers = true;
+        
+        new TestSpecification<>(FastMoneyPrice.class)
+                .constantSize(FastMoneyPrice.EXACT_SIZE)
+                .converter(FastMoneyPrice::ofJson)
+                .run();
+    }
+    
+    /**
+     * Assert the serialized size of {@link FastMoneyPrice#EXACT_SIZE} per
+     * serialization framework.<p>
+     * 
+     * Before the currency code was written as an ordinal of {@code
+     * CurrencyCodes}, Kryo Custom wrote 12 bytes and FST Custom 17 bytes.
+     * 
+     * @param serializer  provided by TestNG
+     */
+    @Test(dataProvider = VALUE_SIZE_PROVIDER)
+    public void test_fastMoney_valueSize(SerializationFramework serializer) {
+        final int expected;
+        
+        switch (serializer) {
+            case JAVA:         expected = 735; break;
+            case KRYO_VANILLA: expected = 53;  break;
+            case KRYO_CUSTOM:  expected = 10;  break;
+            case FST_VANILLA:  expected = 79;  break;
+            case FST_CUSTOM:   expected = 14;  break;
+            default:
+                throw new AssertionError("Unknown serializer: " + serializer);
+        }
+        
+        byte[] bytes = serializer.serialize(FastMoneyPrice.EXACT_SIZE);
+        
+        assertEquals(bytes.length, expected);
+        assertEquals(serializer.deserialize(bytes), FastMoneyPrice.EXACT_SIZE);
+    }
+    
+    /**
+     * {@code LongPrice} carry the same information as {@code FastMoneyPrice}
+     * but is made of two primitives only; no {@code LocalDate}, no {@code
+     * FastMoney} and no {@code CurrencyUnit}.<p>
+     * 
+     * Compare the output of this test with {@link
+     * #test_fastMoney(SerializationFramework) test_fastMoney()}. Vanilla
+     * frameworks no longer have a currency object graph to write and should
+     * therefore come out close to their custom counterparts.
+     * 
+     * @param alreadySet  provided by TestNG
+     */
+    @Test(dataProvider = PROVIDER)
+    public void test_long(SerializationFramework alreadySet) {
+        // Average size for the same reason as test_fastMoney().
+        
+        new TestSpecification<>(LongPrice.class)
+                .averageSize(LongPrice.EXACT_SIZE)
+                .converter(LongPrice::ofJson)
+                .run();
+    }
+    
     /**
      * Author's output:
      * <pre>
@@ -629,7 +743,16 @@ public class ChronicleMapTest
                         .removeReturnsNull(true)
                         .mapMethods(logger);
         
-        if (serializer != null) {
+        if (nativeMarshallers) {
+            // Only FastMoneyPrice is supported
+            @SuppressWarnings("unchecked")
+            ChronicleMapBuilder<LocalDate, FastMoneyPrice> fmp
+                    = (ChronicleMapBuilder<LocalDate, FastMoneyPrice>) (ChronicleMapBuilder) b;
+            
+            fmp.keyMarshaller(LocalDateMarshaller.INSTANCE)
+               .valueMarshaller(FastMoneyPriceMarshaller.INSTANCE);
+        }
+        else if (serializer != null) {
             ChronicleMapMarshaller<LocalDate> key = new ChronicleMapMarshaller<>(serializer);
             
             @SuppressWarnings("unchecked")
@@ -694,13 +817,18 @@ public class ChronicleMapTest
             throw new UncheckedIOException(e);
         }
         
-        final String s = serializer == null ?
-                "Chronicle Map's default" :
-                serializer.toString();
+        final String s = nativeMarshallers ? "Native marshallers" :
+                         serializer == null ? "Chronicle Map's default" :
+                         serializer.toString();
         
         System.out.println("--- " + s + " ---");
         System.out.printf("Wrote %s %s's. File size: %s bytes = %s Mb." + System.lineSeparator(),
                 count, valueType.getSimpleName(), bytes, bytes / 1024. / 1024);
+        
+        if (count > 0) {
+            System.out.printf("File bytes per entry: %.2f" + System.lineSeparator(),
+                    (double) bytes / count);
+        }
     }
     
     private void printMapStatistics() {
@@ -0,0 +1,35 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.Currencies;
+import javax.money.CurrencyUnit;
+import javax.money.Monetary;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Test of {@code Currencies}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class CurrenciesTest
+{
+    /**
+     * Will look up all currencies known to Moneta, from many threads at once.
+     */
+    @Test(invocationCount = 8, threadPoolSize = 8)
+    public void test_allCurrencies() {
+        for (CurrencyUnit expected : Monetary.getCurrencies()) {
+            String code = expected.getCurrencyCode();
+            
+            CurrencyUnit first  = Currencies.get(code),
+                         second = Currencies.get(code);
+            
+            assertEquals(first, expected);
+            assertSame(first, second);
+        }
+        
+        assertTrue(Currencies.size() <= Monetary.getCurrencies().size());
+    }
+}
\ No newline at end of file
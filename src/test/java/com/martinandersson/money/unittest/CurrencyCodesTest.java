@@ -0,0 +1,91 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.CurrencyCodes;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import javax.money.CurrencyUnit;
+import javax.money.Monetary;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import org.testng.annotations.Test;
+
+/**
+ * Test of {@code CurrencyCodes}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class CurrencyCodesTest
+{
+    /**
+     * The ordinals are persisted and must never change.
+     */
+    @Test
+    public void test_ordinalsAreStable() {
+        assertEquals(CurrencyCodes.ordinal("USD"), 1);
+        assertEquals(CurrencyCodes.ordinal("EUR"), 2);
+        assertEquals(CurrencyCodes.ordinal("JPY"), 3);
+        assertEquals(CurrencyCodes.ordinal("GBP"), 4);
+        assertEquals(CurrencyCodes.ordinal("SEK"), 9);
+    }
+    
+    @Test
+    public void test_allOrdinals() throws IOException {
+        for (int i = 1; i <= CurrencyCodes.size(); ++i) {
+            String code = CurrencyCodes.code(i);
+            
+            assertEquals(CurrencyCodes.ordinal(code), i);
+            assertSame(roundTrip(code, i < 0x80 ? 1 : 2), code);
+        }
+    }
+    
+    @Test
+    public void test_allCurrencies() throws IOException {
+        for (CurrencyUnit unit : Monetary.getCurrencies()) {
+            String code = unit.getCurrencyCode();
+            assertEquals(roundTrip(code, -1), code);
+        }
+    }
+    
+    @Test
+    public void test_escape() throws IOException {
+        assertEquals(CurrencyCodes.ordinal("BTC"), CurrencyCodes.ESCAPE);
+        assertEquals(CurrencyCodes.ordinal("usd"), CurrencyCodes.ESCAPE);
+        assertEquals(CurrencyCodes.ordinal("XBTC"), CurrencyCodes.ESCAPE);
+        
+        // 1 byte escape + 2 bytes length + 4 bytes code:
+        assertEquals(roundTrip("XBTC", 7), "XBTC");
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_noCodeForEscape() {
+        CurrencyCodes.code(CurrencyCodes.ESCAPE);
+    }
+    
+    /**
+     * Write and read the specified {@code code}.
+     * 
+     * @param code           currency code
+     * @param expectedBytes  expected byte count, or -1 if not known
+     * 
+     * @return the code read
+     */
+    private static String roundTrip(String code, int expectedBytes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            CurrencyCodes.write(out, code);
+        }
+        
+        if (expectedBytes != -1) {
+            assertEquals(bytes.size(), expectedBytes, code);
+        }
+        
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            return CurrencyCodes.read(in);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.serializer.SerializationFramework;
+import com.martinandersson.money.lib.series.DeltaCodec;
+import com.martinandersson.money.lib.series.PriceSeries;
+import java.io.ByteArrayOutputStream;
+import static java.lang.System.out;
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Test of {@code DeltaCodec}.<p>
+ * 
+ * {@link #test_appleData()} print the encoded size of all {@code AppleData}
+ * next to the size of the same prices serialized as one batch by {@link
+ * SerializationFramework#KRYO_CUSTOM}, the smallest of the serialization
+ * frameworks.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class DeltaCodecTest
+{
+    @Test
+    public void test_appleData() {
+        PriceSeries series = AppleData.series();
+        
+        byte[] encoded = DeltaCodec.encode(series);
+        
+        ByteArrayOutputStream kryo = new ByteArrayOutputStream();
+        SerializationFramework.KRYO_CUSTOM.serializeAll(
+                AppleData.rowsAs(FastMoneyPrice::ofJson).collect(toList()), kryo);
+        
+        out.println("Number of bytes, delta codec: " + encoded.length +
+                " (" + (double) encoded.length / series.size() + " per price)");
+        
+        out.println("Number of bytes, Kryo Custom: " + kryo.size() +
+                " (" + (double) kryo.size() / series.size() + " per price)");
+        
+        assertEquals(DeltaCodec.size(encoded), series.size());
+        assertSeries(DeltaCodec.decode(encoded), series);
+        assertTrue(encoded.length < kryo.size());
+    }
+    
+    @Test
+    public void test_interval() {
+        PriceSeries series = AppleData.series();
+        
+        for (int interval : new int[]{1, 7, 64, series.size(), series.size() + 1}) {
+            assertSeries(DeltaCodec.decode(DeltaCodec.encode(series, interval)), series);
+        }
+    }
+    
+    @Test
+    public void test_range() {
+        PriceSeries series = AppleData.series();
+        
+        byte[] encoded = DeltaCodec.encode(series, 100);
+        
+        int[][] ranges = {{0, 0}, {0, 1}, {99, 101}, {100, 200}, {150, 4321},
+                          {series.size() - 1, series.size()}, {0, series.size()}};
+        
+        for (int[] r : ranges) {
+            PriceSeries.Builder b = PriceSeries.builder();
+            DeltaCodec.forEach(encoded, r[0], r[1], b);
+            assertSeries(b.build(), series.subSeries(r[0], r[1]));
+        }
+    }
+    
+    @Test
+    public void test_empty() {
+        PriceSeries empty = PriceSeries.builder().build();
+        
+        byte[] encoded = DeltaCodec.encode(empty);
+        
+        assertEquals(DeltaCodec.size(encoded), 0);
+        assertTrue(DeltaCodec.decode(encoded).isEmpty());
+    }
+    
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void test_range_outOfBounds() {
+        PriceSeries series = AppleData.series();
+        DeltaCodec.forEach(DeltaCodec.encode(series), 0, series.size() + 1, (d, a) -> {});
+    }
+    
+    
+    
+    private static void assertSeries(PriceSeries actual, PriceSeries expected) {
+        assertEquals(actual.size(), expected.size());
+        
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(actual.dateAt(i), expected.dateAt(i));
+            assertEquals(actual.amountAt(i), expected.amountAt(i));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.SystemProperties;
+import com.martinandersson.money.lib.chroniclemap.ChronicleMapLogger;
+import com.martinandersson.money.lib.chroniclemap.ChronicleMapMarshaller;
+import com.martinandersson.money.lib.jfr.AppleDataLoadEvent;
+import com.martinandersson.money.lib.jfr.EventGate;
+import com.martinandersson.money.lib.jfr.MapOperationEvent;
+import com.martinandersson.money.lib.jfr.SerializationEvent;
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.serializer.SerializationFramework;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+import static java.util.stream.Collectors.toList;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.openhft.chronicle.map.ChronicleMap;
+import net.openhft.chronicle.map.ChronicleMapBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Will record a Java Flight Recorder file while using a serializer, a Chronicle
+ * Map and {@code AppleData}, then read the file back and look for our events.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ * 
+ * @see com.martinandersson.money.lib.jfr
+ */
+public class FlightRecorderTest
+{
+    private static final int N = 10;
+    
+    private static final SerializationFramework SERIALIZER
+            = SerializationFramework.KRYO_CUSTOM;
+    
+    private Path file;
+    
+    @BeforeMethod
+    public void before_createTempFile() throws IOException {
+        Path tempDir = Paths.get(SystemProperties.GRADLE_TEST_TEMP_DIR.require());
+        file = Files.createTempFile(tempDir, null, ".jfr");
+    }
+    
+    @AfterMethod
+    public void after_deleteTempFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+    
+    
+    
+    @Test
+    public void test_events() throws IOException {
+        final List<FastMoneyPrice> prices = AppleData.rowsAs(FastMoneyPrice::ofJson)
+                .limit(N)
+                .collect(toList());
+        
+        try (Recording r = new Recording()) {
+            r.enable(SerializationEvent.class).withoutThreshold();
+            r.enable(MapOperationEvent.class).withoutThreshold();
+            r.enable(AppleDataLoadEvent.class).withoutThreshold();
+            r.start();
+            
+            for (FastMoneyPrice p : prices) {
+                assertEquals(SERIALIZER.deserialize(SERIALIZER.serialize(p)), p);
+            }
+            
+            try (ChronicleMap<LocalDate, FastMoneyPrice> map = newMap()) {
+                prices.forEach(p -> map.put(p.getDate(), p));
+                prices.forEach(p -> assertEquals(map.get(p.getDate()), p));
+            }
+            
+            AppleData.stream((date, amount) -> {});
+            
+            r.stop();
+            r.dump(file);
+        }
+        
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        
+        List<RecordedEvent> serialize = named(events, SerializationEvent.NAME, "operation", "serialize"),
+                            deserialize = named(events, SerializationEvent.NAME, "operation", "deserialize"),
+                            put = named(events, MapOperationEvent.NAME, "operation", "put"),
+                            get = named(events, MapOperationEvent.NAME, "operation", "get"),
+                            load = named(events, AppleDataLoadEvent.NAME, "parser", "stream");
+        
+        // The map's marshaller use the serializer too:
+        assertTrue(serialize.size() >= N);
+        assertTrue(deserialize.size() >= N);
+        
+        for (RecordedEvent e : serialize) {
+            assertEquals(e.getString("framework"), SERIALIZER.toString());
+            assertTrue(e.getLong("bytes") > 0);
+        }
+        
+        for (RecordedEvent e : deserialize) {
+            assertTrue(e.getLong("bytes") > 0);
+        }
+        
+        assertFalse(serialize.stream()
+                .filter(e -> FastMoneyPrice.class.getName().equals(e.getString("type")))
+                .collect(toList())
+                .isEmpty());
+        
+        assertEquals(put.size(), N);
+        assertEquals(get.size(), N);
+        
+        for (RecordedEvent e : put) {
+            assertEquals(e.getString("map"), SERIALIZER.toString());
+            assertEquals(e.getString("type"), FastMoneyPrice.class.getName());
+            assertTrue(e.getLong("valueBytes") > 0);
+        }
+        
+        assertEquals(load.size(), 1);
+        assertEquals(load.get(0).getInt("rows"), AppleData.count());
+        assertEquals(load.get(0).getLong("bytes"), Files.size(AppleData.file()));
+    }
+    
+    /**
+     * The gate follow the running recordings. Please note that a recording
+     * enable our events by default.
+     */
+    @Test
+    public void test_gate() {
+        EventGate gate = EventGate.of(SerializationEvent.class);
+        assertFalse(gate.isOpen());
+        
+        try (Recording r = new Recording()) {
+            r.disable(SerializationEvent.class);
+            r.start();
+            assertFalse(gate.isOpen());
+            
+            try (Recording r2 = new Recording()) {
+                r2.enable(SerializationEvent.class);
+                r2.start();
+                assertTrue(gate.isOpen());
+                
+                r2.stop();
+                assertFalse(gate.isOpen());
+            }
+            
+            r.stop();
+        }
+        
+        assertFalse(gate.isOpen());
+    }
+    
+    
+    
+    private static ChronicleMap<LocalDate, FastMoneyPrice> newMap() {
+        ChronicleMapMarshaller<LocalDate> keyMarshaller = new ChronicleMapMarshaller<>(SERIALIZER);
+        
+        @SuppressWarnings("unchecked")
+        ChronicleMapMarshaller<FastMoneyPrice> valueMarshaller
+                = (ChronicleMapMarshaller<FastMoneyPrice>) (ChronicleMapMarshaller) keyMarshaller;
+        
+        return ChronicleMapBuilder.of(LocalDate.class, FastMoneyPrice.class)
+                .keyMarshaller(keyMarshaller)
+                .valueMarshaller(valueMarshaller)
+                .constantKeySizeBySample(LocalDate.now())
+                .averageValue(FastMoneyPrice.EXACT_SIZE)
+                .entries(N)
+                .mapMethods(new ChronicleMapLogger<>(SERIALIZER.toString()))
+                .create();
+    }
+    
+    private static List<RecordedEvent> named(
+            List<RecordedEvent> events, String name, String field, String value)
+    {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .filter(e -> value.equals(e.getString(field)))
+                .collect(toList());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.model.DoublePrice;
+import com.martinandersson.money.lib.series.GorillaCodec;
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.System.out;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import org.testng.annotations.Test;
+
+/**
+ * Test of {@code GorillaCodec}.<p>
+ * 
+ * {@link #test_appleData()} print the number of bits per price for {@code
+ * AppleData}. Uncompressed, a packed date and a {@code double} is 80 bits.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class GorillaCodecTest
+{
+    @Test
+    public void test_appleData() {
+        List<DoublePrice> prices = AppleData.rowsAs(DoublePrice::ofJson)
+                .sorted(Comparator.comparing(DoublePrice::getDate))
+                .collect(toList());
+        
+        for (ByteBuffer buffer : new ByteBuffer[]{
+                ByteBuffer.allocate(GorillaCodec.maxBytes(prices.size())),
+                ByteBuffer.allocateDirect(GorillaCodec.maxBytes(prices.size())) })
+        {
+            GorillaCodec.Encoder encoder = GorillaCodec.encoder(buffer);
+            prices.forEach(encoder::add);
+            
+            int bytes = encoder.finish();
+            
+            out.println("Number of bytes: " + bytes +
+                    " (" + bytes * 8. / prices.size() + " bits per price)");
+            
+            buffer.flip();
+            
+            GorillaCodec.Decoder decoder = GorillaCodec.decoder(buffer);
+            assertEquals(decoder.size(), prices.size());
+            
+            for (DoublePrice p : prices) {
+                decoder.next();
+                assertEquals(decoder.localDate(), p.getDate());
+                assertEquals(decoder.value(), p.getAdjClose());
+            }
+            
+            assertFalse(decoder.next());
+        }
+    }
+    
+    /**
+     * Repeated values, special values, dates far apart and dates out of order.
+     */
+    @Test
+    public void test_edgeCases() {
+        LocalDate[] dates = {
+            LocalDates.MIN, LocalDates.MIN.plusDays(1), LocalDates.MIN.plusDays(2),
+            LocalDates.MAX, LocalDates.MIN.plusDays(3), LocalDates.MIN.plusDays(3),
+            LocalDates.MIN.plusDays(100), LocalDates.MIN.plusDays(400),
+            LocalDates.MIN.plusDays(5000), LocalDates.MIN.plusDays(5001) };
+        
+        double[] values = {
+            1.0, 1.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY,
+            Double.MIN_VALUE, Double.MAX_VALUE, 1.0, 93.4, 96.1 };
+        
+        ByteBuffer buffer = ByteBuffer.allocate(GorillaCodec.maxBytes(dates.length));
+        GorillaCodec.Encoder encoder = GorillaCodec.encoder(buffer);
+        
+        for (int i = 0; i < dates.length; ++i) {
+            encoder.add(LocalDates.toShort(dates[i]), values[i]);
+        }
+        
+        encoder.finish();
+        buffer.flip();
+        
+        GorillaCodec.Decoder decoder = GorillaCodec.decoder(buffer);
+        
+        for (int i = 0; i < dates.length; ++i) {
+            decoder.next();
+            assertEquals(decoder.index(), i);
+            assertEquals(decoder.localDate(), dates[i]);
+            assertEquals(doubleToRawLongBits(decoder.value()), doubleToRawLongBits(values[i]));
+        }
+        
+        assertFalse(decoder.next());
+    }
+    
+    @Test
+    public void test_empty() {
+        ByteBuffer buffer = ByteBuffer.allocate(GorillaCodec.maxBytes(0));
+        assertEquals(GorillaCodec.encoder(buffer).finish(), Integer.BYTES);
+        
+        buffer.flip();
+        
+        GorillaCodec.Decoder decoder = GorillaCodec.decoder(buffer);
+        assertEquals(decoder.size(), 0);
+        assertFalse(decoder.next());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.metrics.LatencyHistogram;
+import java.util.Arrays;
+import java.util.Random;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Test of {@code LatencyHistogram}.<p>
+ * 
+ * Percentiles are tested against a sorted array of the same values.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class LatencyHistogramTest
+{
+    @Test
+    public void test_empty() {
+        LatencyHistogram h = new LatencyHistogram();
+        
+        assertEquals(h.count(), 0);
+        assertEquals(h.getValueAtPercentile(99), 0);
+    }
+    
+    /**
+     * Small values are counted exactly.
+     */
+    @Test
+    public void test_exact() {
+        LatencyHistogram h = new LatencyHistogram();
+        
+        for (int i = 0; i < 2 * LatencyHistogram.SUB_BUCKETS; ++i) {
+            h.record(i);
+        }
+        
+        assertEquals(h.count(), 2 * LatencyHistogram.SUB_BUCKETS);
+        assertEquals(h.getValueAtPercentile(0), 0);
+        assertEquals(h.getValueAtPercentile(50), LatencyHistogram.SUB_BUCKETS - 1);
+        assertEquals(h.getValueAtPercentile(100), 2 * LatencyHistogram.SUB_BUCKETS - 1);
+    }
+    
+    @Test
+    public void test_maxValue() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(Integer.MAX_VALUE);
+        
+        assertEquals(h.getValueAtPercentile(100), Integer.MAX_VALUE);
+    }
+    
+    @DataProvider
+    public Object[][] bounds() {
+        return new Object[][] {{1_000}, {100_000}, {Integer.MAX_VALUE}};
+    }
+    
+    /**
+     * A percentile is never less than the true value and never more than
+     * 1/{@code SUB_BUCKETS} above it.
+     */
+    @Test(dataProvider = "bounds")
+    public void test_relativeError(int bound) {
+        Random rnd = new Random(bound);
+        LatencyHistogram h = new LatencyHistogram();
+        
+        int[] values = rnd.ints(10_000, 0, bound).toArray();
+        Arrays.stream(values).forEach(h::record);
+        Arrays.sort(values);
+        
+        for (double p : new double[]{0, 10, 50, 90, 99, 99.9, 99.99, 100}) {
+            int i = Math.max(0, (int) Math.ceil(p / 100 * values.length) - 1);
+            long expected = values[i],
+                 actual = h.getValueAtPercentile(p);
+            
+            assertTrue(actual >= expected, "p" + p + ": " + actual + " < " + expected);
+            assertTrue(actual <= expected + expected / LatencyHistogram.SUB_BUCKETS,
+                    "p" + p + ": " + actual + " too far above " + expected);
+        }
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_negative() {
+        new LatencyHistogram().record(-1);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_percentileOutOfRange() {
+        new LatencyHistogram().getValueAtPercentile(100.1);
+    }
+}
\ No newline at end of file
@@ -38,5 +38,7 @@ public class LocalDatesTest
         LocalDate d = LocalDates.fromShort(s);
         
         assertEquals(d, date);
+        
+        assertEquals(LocalDates.parseShort(date.toString()), s);
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.SystemProperties;
+import com.martinandersson.money.lib.metrics.Distribution;
+import com.martinandersson.money.lib.metrics.Metric;
+import com.martinandersson.money.lib.metrics.MetricsFormat;
+import com.martinandersson.money.lib.metrics.MetricsRegistry;
+import com.martinandersson.money.lib.model.DoublePrice;
+import com.martinandersson.money.lib.serializer.SerializationFramework;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Test of {@code MetricsRegistry} and {@code MetricsFormat}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class MetricsTest
+{
+    private static final String TYPE = DoublePrice.class.getName();
+    
+    private static final DoublePrice PRICE = DoublePrice.ofDouble(LocalDate.of(2016, 6, 24), 93.4);
+    
+    
+    
+    @Test
+    public void test_serializerFeedsGlobalRegistry() {
+        final SerializationFramework s = SerializationFramework.JAVA;
+        final MetricsRegistry global = MetricsRegistry.global();
+        
+        final Distribution timer = global.timer("serializer.serialize", s.toString(), TYPE),
+                           bytes = global.sizes("serializer.serialize.bytes", s.toString(), TYPE);
+        
+        final long before = timer.count(),
+                   objects = global.counter("serializer.serialize.objects", s.toString(), TYPE).sum();
+        
+        SerializationFramework.recordMetrics(true);
+        
+        try {
+            final byte[] serialized = s.serialize(PRICE);
+            assertEquals(s.deserialize(serialized), PRICE);
+            
+            assertEquals(timer.count(), before + 1);
+            assertEquals(global.counter("serializer.serialize.objects", s.toString(), TYPE).sum(), objects + 1);
+            assertEquals(bytes.max(), serialized.length);
+            assertTrue(global.timer("serializer.deserialize", s.toString(), TYPE).count() > 0);
+        }
+        finally {
+            SerializationFramework.recordMetrics(false);
+        }
+    }
+    
+    @Test
+    public void test_serializerDisabledByDefault() {
+        final SerializationFramework s = SerializationFramework.JAVA;
+        final Distribution timer = MetricsRegistry.global().timer("serializer.serialize", s.toString(), TYPE);
+        
+        final long before = timer.count();
+        s.serialize(PRICE);
+        assertEquals(timer.count(), before);
+    }
+    
+    /**
+     * The serializer keep its metrics, but must look them up again after the
+     * registry was cleared.
+     */
+    @Test
+    public void test_serializerAfterClear() {
+        final SerializationFramework s = SerializationFramework.JAVA;
+        final MetricsRegistry global = MetricsRegistry.global();
+        
+        SerializationFramework.recordMetrics(true);
+        
+        try {
+            s.serialize(PRICE);
+            global.clear();
+            s.serialize(PRICE);
+            
+            assertEquals(global.timer("serializer.serialize", s.toString(), TYPE).count(), 1);
+        }
+        finally {
+            SerializationFramework.recordMetrics(false);
+        }
+    }
+    
+    @Test
+    public void test_sameMetric() {
+        MetricsRegistry r = new MetricsRegistry();
+        
+        assertSame(r.timer("a", "b", "c"), r.timer("a", "b", "c"));
+        assertSame(r.counter("a", "b", ""), r.counter("a", "b", ""));
+        assertEquals(r.metrics().size(), 2);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_kindMismatch() {
+        MetricsRegistry r = new MetricsRegistry();
+        r.timer("a", "", "");
+        r.sizes("a", "", "");
+    }
+    
+    @Test
+    public void test_text() throws IOException {
+        String text = export(MetricsFormat.TEXT);
+        
+        assertTrue(text.contains("serializer.serialize [framework=Kryo, Custom, type=" + TYPE + "] (ns) count=100 sum=5050 min=1 max=100"),
+                text);
+        assertTrue(text.contains("serializer.serialize.objects [framework=Kryo, Custom, type=" + TYPE + "] count=7"),
+                text);
+    }
+    
+    @Test
+    public void test_csv() throws IOException {
+        String[] lines = export(MetricsFormat.CSV).split(System.lineSeparator());
+        
+        assertEquals(lines.length, 4);
+        assertEquals(lines[0], "name,kind,unit,framework,type,count,sum,min,max,mean,p50,p90,p99,p99.9,p99.99");
+        
+        for (String l : lines) {
+            // The quoted framework adds one comma:
+            int commas = l.length() - l.replace(",", "").length();
+            assertEquals(commas, l.contains("\"Kryo, Custom\"") ? 15 : 14, l);
+        }
+        
+        assertEquals(lines[1], "serializer.serialize,TIMER,ns,\"Kryo, Custom\"," + TYPE + ",100,5050,1,100,50.5,50,90,99,100,100");
+        assertEquals(lines[3], "serializer.serialize.objects,COUNTER,,\"Kryo, Custom\"," + TYPE + ",7,,,,,,,,,");
+    }
+    
+    @Test
+    public void test_prometheus() throws IOException {
+        String text = export(MetricsFormat.PROMETHEUS);
+        String labels = "{framework=\"Kryo, Custom\",type=\"" + TYPE + "\"";
+        
+        assertTrue(text.contains("# TYPE money_serializer_serialize_seconds summary\n"), text);
+        assertTrue(text.contains("money_serializer_serialize_seconds" + labels + ",quantile=\"0.5\"} 5.0E-8\n"), text);
+        assertTrue(text.contains("money_serializer_serialize_seconds" + labels + ",quantile=\"0.999\"} 1.0E-7\n"), text);
+        assertTrue(text.contains("money_serializer_serialize_seconds_count" + labels + "} 100\n"), text);
+        assertTrue(text.contains("# TYPE money_serializer_serialize_bytes summary\n"), text);
+        assertTrue(text.contains("money_serializer_serialize_bytes_count" + labels + "} 0\n"), text);
+        assertTrue(text.contains("# TYPE money_serializer_serialize_objects_total counter\n"), text);
+        assertTrue(text.contains("money_serializer_serialize_objects_total" + labels + "} 7\n"), text);
+    }
+    
+    @Test
+    public void test_exportToFile() throws IOException {
+        Path tempDir = Paths.get(SystemProperties.GRADLE_TEST_TEMP_DIR.require());
+        Path file = Files.createTempFile(tempDir, null, ".prom");
+        
+        try {
+            MetricsFormat.PROMETHEUS.export(registry(), file);
+            
+            assertEquals(new String(Files.readAllBytes(file), StandardCharsets.UTF_8),
+                    export(MetricsFormat.PROMETHEUS));
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+    
+    
+    
+    /**
+     * Returns a registry with a timer of the values 1 to 100, an empty size
+     * distribution and a counter of 7.
+     */
+    private static MetricsRegistry registry() {
+        MetricsRegistry r = new MetricsRegistry();
+        
+        Distribution timer = r.timer("serializer.serialize", "Kryo, Custom", TYPE);
+        
+        for (int i = 1; i <= 100; ++i) {
+            timer.record(i);
+        }
+        
+        r.sizes("serializer.serialize.bytes", "Kryo, Custom", TYPE);
+        r.counter("serializer.serialize.objects", "Kryo, Custom", TYPE).add(7);
+        
+        return r;
+    }
+    
+    private static String export(MetricsFormat format) throws IOException {
+        StringBuilder b = new StringBuilder();
+        List<Metric> metrics = registry().metrics();
+        format.export(metrics, b);
+        return b.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.chroniclemap.NavigableChronicleMap;
+import com.martinandersson.money.lib.model.LongPrice;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import static java.util.stream.Collectors.toList;
+import net.openhft.chronicle.map.ChronicleMap;
+import net.openhft.chronicle.map.ChronicleMapBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test of {@code NavigableChronicleMap}.<p>
+ * 
+ * The map is tested against a {@code TreeMap} holding the same data. Half of
+ * the prices are put in the Chronicle Map before it is wrapped, so that the
+ * initial index is built from existing keys. The other half is put through
+ * the wrapper.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class NavigableChronicleMapTest
+{
+    private NavigableMap<LocalDate, LongPrice> expected;
+    
+    private ChronicleMap<LocalDate, LongPrice> chronicleMap;
+    
+    private NavigableChronicleMap<LongPrice> map;
+    
+    
+    
+    @BeforeMethod
+    public void before_createMaps() {
+        List<LongPrice> prices = AppleData.rowsAs(LongPrice::ofJson).collect(toList());
+        
+        expected = new TreeMap<>();
+        prices.forEach(p -> expected.put(p.getDate(), p));
+        
+        chronicleMap = ChronicleMapBuilder.of(LocalDate.class, LongPrice.class)
+                .constantKeySizeBySample(LocalDate.now())
+                .averageValue(LongPrice.EXACT_SIZE)
+                .entries(prices.size())
+                .create();
+        
+        // Every other price before wrapping, the rest after:
+        for (int i = 0; i < prices.size(); i += 2) {
+            chronicleMap.put(prices.get(i).getDate(), prices.get(i));
+        }
+        
+        map = new NavigableChronicleMap<>(chronicleMap);
+        
+        for (int i = 1; i < prices.size(); i += 2) {
+            map.put(prices.get(i));
+        }
+    }
+    
+    @AfterMethod
+    public void after_closeMap() {
+        chronicleMap.close();
+    }
+    
+    
+    
+    @Test
+    public void test_keys() {
+        assertEquals(map.size(), expected.size());
+        assertEquals(map.firstKey(), expected.firstKey());
+        assertEquals(map.lastKey(), expected.lastKey());
+        
+        LocalDate first = expected.firstKey().minusDays(10),
+                  last  = expected.lastKey().plusDays(10);
+        
+        for (LocalDate d = first; !d.isAfter(last); d = d.plusDays(1)) {
+            assertEquals(map.floorKey(d), expected.floorKey(d), d.toString());
+            assertEquals(map.ceilingKey(d), expected.ceilingKey(d), d.toString());
+        }
+    }
+    
+    @Test
+    public void test_subMap() {
+        LocalDate from = LocalDate.of(2008, 9, 15),
+                  to   = LocalDate.of(2009, 3, 9);
+        
+        assertEquals(map.subMap(from, true, to, true),
+                expected.subMap(from, true, to, true));
+        
+        assertEquals(map.subMap(from, false, to, false),
+                expected.subMap(from, false, to, false));
+    }
+    
+    @Test
+    public void test_last() {
+        List<LongPrice> last = new ArrayList<>(expected.descendingMap().values())
+                .subList(0, 252);
+        
+        List<LongPrice> actual = map.last(252);
+        assertEquals(actual.size(), 252);
+        
+        for (int i = 0; i < 252; ++i) {
+            assertEquals(actual.get(i), last.get(251 - i));
+        }
+    }
+    
+    @Test
+    public void test_remove() {
+        LocalDate last = expected.lastKey();
+        
+        map.remove(last);
+        
+        assertEquals(map.size(), expected.size() - 1);
+        assertEquals(map.lastKey(), expected.lowerKey(last));
+        assertNull(map.get(last));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.Numbers;
+import static com.martinandersson.money.lib.model.FastMoneyPrice.MAX_SCALE;
+import java.math.BigDecimal;
+import javax.json.JsonNumber;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Test of {@code Numbers.parseScaled()}.<p>
+ * 
+ * The parser is tested against {@code Numbers.toScaled(new BigDecimal(text))}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class NumbersTest
+{
+    @Test
+    public void test_appleData() {
+        AppleData.numbers()
+                .map(JsonNumber::toString)
+                .forEach(text -> assertParsed(text, MAX_SCALE));
+    }
+    
+    @DataProvider
+    public Object[][] texts() {
+        return new Object[][] {
+            {"0"}, {"-0"}, {"93.4"}, {"0.42428790942135"}, {"00012.300"},
+            {"+1.2"}, {"1.5E-3"}, {"1e-10"}, {"1E+2"}, {"0e400"},
+            // Ties, HALF_EVEN:
+            {"0.000005"}, {"0.000015"}, {"-0.000025"}, {"0.0000051"},
+            // Largest possible:
+            {"92233720368547.75807"}, {"-92233720368547.75807"}};
+    }
+    
+    @Test(dataProvider = "texts")
+    public void test_edgeCases(String text) {
+        for (int scale = 0; scale <= MAX_SCALE; ++scale) {
+            assertParsed(text, scale);
+        }
+    }
+    
+    @Test(expectedExceptions = ArithmeticException.class)
+    public void test_overflow() {
+        Numbers.parseScaled("92233720368547.75808", MAX_SCALE);
+    }
+    
+    @Test(expectedExceptions = NumberFormatException.class)
+    public void test_malformed() {
+        Numbers.parseScaled("1.2.3", MAX_SCALE);
+    }
+    
+    private static void assertParsed(String text, int scale) {
+        assertEquals(Numbers.parseScaled(text, scale),
+                Numbers.toScaled(new BigDecimal(text), scale),
+                text);
+    }
+}
\ No newline at end of file
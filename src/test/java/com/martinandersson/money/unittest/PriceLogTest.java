@@ -0,0 +1,171 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.SystemProperties;
+import com.martinandersson.money.lib.offheap.PriceLog;
+import com.martinandersson.money.lib.series.PriceSeries;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Will unit test the full life-cycle of a {@code PriceLog} backed by a file on
+ * disk.<p>
+ * 
+ * Works like {@code ChronicleMapTest}: write all {@link AppleData}, close the
+ * log, open it again and read all prices back. The file size and the time cost
+ * of writing and reading is printed so that the output can be compared with
+ * the output of {@code ChronicleMapTest}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class PriceLogTest
+{
+    private Path file;
+    
+    @BeforeMethod
+    public void before_createTempFile() throws IOException {
+        Path tempDir = Paths.get(SystemProperties.GRADLE_TEST_TEMP_DIR.require());
+        file = Files.createTempFile(tempDir, null, null);
+        
+        // PriceLog create the file if it does not exist, and reject a file
+        // that is not a log:
+        Files.delete(file);
+    }
+    
+    @AfterMethod
+    public void after_deleteTempFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+    
+    
+    
+    @Test
+    public void test_appleData() {
+        final PriceSeries series = AppleData.series();
+        
+        final long writeNanos;
+        
+        try (PriceLog log = PriceLog.open(file, series.size())) {
+            final long then = System.nanoTime();
+            series.forEach(log);
+            writeNanos = System.nanoTime() - then;
+        }
+        
+        final long lookupNanos, scanNanos;
+        
+        try (PriceLog log = PriceLog.open(file)) {
+            assertEquals(log.size(), series.size());
+            
+            long then = System.nanoTime();
+            
+            for (int i = 0; i < series.size(); ++i) {
+                int j = log.indexOf(series.dateAt(i));
+                assertEquals(j, i);
+                assertEquals(log.amountAt(j), series.amountAt(i));
+            }
+            
+            lookupNanos = System.nanoTime() - then;
+            
+            long[] sum = {0};
+            then = System.nanoTime();
+            log.forEach(0, log.size(), (date, amount) -> sum[0] += amount);
+            scanNanos = System.nanoTime() - then;
+            
+            assertEquals(sum[0], series.sum());
+        }
+        
+        final long bytes = size();
+        
+        System.out.println("--- PriceLog ---");
+        System.out.printf("Wrote %s prices. File size: %s bytes = %s Mb." + System.lineSeparator(),
+                series.size(), bytes, bytes / 1024. / 1024);
+        System.out.printf("File bytes per entry: %.2f" + System.lineSeparator(),
+                (double) bytes / series.size());
+        System.out.println("Time spent writing: " + ms(writeNanos));
+        System.out.println("Time spent looking up each date: " + ms(lookupNanos));
+        System.out.println("Time spent scanning: " + ms(scanNanos));
+        System.out.println();
+        
+        assertEquals(bytes, 8 + series.size() * PriceLog.RECORD_SIZE);
+    }
+    
+    @Test
+    public void test_range() {
+        final PriceSeries series = AppleData.series();
+        
+        try (PriceLog log = PriceLog.open(file)) {
+            series.forEach(log);
+            
+            LocalDate from = LocalDate.of(2000, 1, 1),
+                      to   = LocalDate.of(2000, 12, 31);
+            
+            PriceSeries expected = series.subSeries(from, to);
+            PriceSeries.Builder actual = PriceSeries.builder();
+            
+            log.forEach(from, to, actual);
+            
+            PriceSeries built = actual.build();
+            assertEquals(built.size(), expected.size());
+            assertTrue(built.size() > 0);
+            assertEquals(built.sum(), expected.sum());
+        }
+    }
+    
+    /**
+     * A log opened without an expected size grow, but the file is truncated
+     * when closed. Opening a small log again must not inflate it.
+     */
+    @Test
+    public void test_truncate() {
+        try (PriceLog log = PriceLog.open(file)) {
+            for (int i = 0; i < 100; ++i) {
+                log.append((short) i, i);
+            }
+        }
+        
+        assertEquals(size(), 8 + 100 * PriceLog.RECORD_SIZE);
+        
+        try (PriceLog log = PriceLog.open(file)) {
+            assertEquals(log.size(), 100);
+        }
+        
+        assertEquals(size(), 8 + 100 * PriceLog.RECORD_SIZE);
+        
+        try (PriceLog log = PriceLog.open(file)) {
+            log.append((short) 100, 100);
+            assertEquals(log.amountAt(log.indexOf((short) 99)), 99);
+        }
+        
+        assertEquals(size(), 8 + 101 * PriceLog.RECORD_SIZE);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_outOfOrder() {
+        try (PriceLog log = PriceLog.open(file)) {
+            log.append((short) 1, 1);
+            log.append((short) 1, 1);
+        }
+    }
+    
+    private long size() {
+        try {
+            return Files.size(file);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String ms(long nanos) {
+        return String.format("%.3f ms", nanos / 1_000_000.);
+    }
+}
\ No newline at end of file
@@ -1,20 +1,34 @@
 package com.martinandersson.money.unittest;
 
+import com.martinandersson.money.lib.AppleData;
 import com.martinandersson.money.lib.model.BigDecimalPrice;
 import com.martinandersson.money.lib.model.CustomFastMoneyPrice1;
 import com.martinandersson.money.lib.model.CustomFastMoneyPrice2;
 import com.martinandersson.money.lib.model.DoublePrice;
 import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.model.LongPrice;
 import com.martinandersson.money.lib.model.MoneyPrice;
+import com.martinandersson.money.lib.model.MutableLongPrice;
 import com.martinandersson.money.lib.model.Price;
 import com.martinandersson.money.lib.serializer.SerializationFramework;
 import com.martinandersson.money.lib.serializer.Serializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
 import static java.lang.System.out;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import static java.util.stream.Collectors.toList;
+import org.javamoney.moneta.FastMoney;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
 
 /**
  * Will unit test serialization frameworks for different versions of {@code
@@ -232,6 +246,178 @@ public class PriceSerializationTest
         assertEquals(FastMoneyPrice.EXACT_SIZE, deserialize(s, bytes));
     }
     
+    /**
+     * {@code LongPrice} is a {@code FastMoneyPrice} stripped down to two
+     * primitives. Compare the output of this test with {@link
+     * #test_fastMoney(Serializer) test_fastMoney()}.
+     * 
+     * @param s  provided by TestNG
+     */
+    @Test(dataProvider = "serializer")
+    public void test_long(Serializer s) {
+        byte[] bytes = serialize(s, LongPrice.EXACT_SIZE);
+        assertEquals(LongPrice.EXACT_SIZE, deserialize(s, bytes));
+    }
+    
+    /**
+     * Deserialize a {@code MutableLongPrice} into an existing instance.<p>
+     * 
+     * The custom variants of Kryo and FST must reuse the instance. All other
+     * serializers must return a new, equal price.
+     * 
+     * @param s  provided by TestNG
+     */
+    @Test(dataProvider = "serializer")
+    public void test_mutableLong_using(Serializer s) {
+        byte[] bytes = serialize(s, MutableLongPrice.EXACT_SIZE);
+        
+        MutableLongPrice using = new MutableLongPrice(),
+                         read  = s.deserialize(new ByteArrayInputStream(bytes), using);
+        
+        assertEquals(MutableLongPrice.EXACT_SIZE, read);
+        
+        boolean reused = s == SerializationFramework.KRYO_CUSTOM ||
+                         s == SerializationFramework.FST_CUSTOM;
+        
+        assertEquals(reused, read == using);
+    }
+    
+    /**
+     * Serializers reuse their buffers per thread. Alternate between prices of
+     * different sizes, to and from {@code byte[]} and streams, on many threads
+     * at once.
+     * 
+     * @param s  provided by TestNG
+     */
+    @Test(dataProvider = "serializer", invocationCount = 4, threadPoolSize = 4)
+    public void test_pooledBuffers(Serializer s) {
+        Price[] prices = {
+            MoneyPrice.getAverageSize(),
+            LongPrice.EXACT_SIZE,
+            FastMoneyPrice.EXACT_SIZE };
+        
+        for (int i = 0; i < 100; ++i) {
+            for (Price p : prices) {
+                assertEquals(p, s.deserialize(s.serialize(p)));
+                
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                s.serialize(p, bytes);
+                
+                assertEquals(p, s.deserialize(new ByteArrayInputStream(bytes.toByteArray())));
+            }
+        }
+    }
+    
+    /**
+     * Serialize two prices back to back into a heap buffer and a direct
+     * buffer, then read them back using a slice each.
+     * 
+     * @param s  provided by TestNG
+     */
+    @Test(dataProvider = "serializer")
+    public void test_byteBuffer(Serializer s) {
+        for (ByteBuffer buffer : new ByteBuffer[]{
+                ByteBuffer.allocate(1024), ByteBuffer.allocateDirect(1024) })
+        {
+            Price first  = FastMoneyPrice.EXACT_SIZE,
+                  second = LongPrice.EXACT_SIZE;
+            
+            int n1 = s.serialize(first, buffer),
+                n2 = s.serialize(second, buffer);
+            
+            assertEquals(n1 + n2, buffer.position());
+            
+            buffer.flip();
+            
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit(n1);
+            assertEquals(first, s.deserialize(slice));
+            assertEquals(n1, slice.position());
+            
+            slice.limit(n1 + n2);
+            assertEquals(second, s.deserialize(slice));
+            assertEquals(n1 + n2, slice.position());
+        }
+    }
+    
+    /**
+     * A price that do not fit must leave the position unchanged. The space
+     * available end at the limit, not the capacity.
+     * 
+     * @param s  provided by TestNG
+     */
+    @Test(dataProvider = "serializer")
+    public void test_byteBuffer_overflow(Serializer s) {
+        for (ByteBuffer buffer : new ByteBuffer[]{
+                ByteBuffer.allocateDirect(16), ByteBuffer.allocate(1024) })
+        {
+            buffer.limit(16).position(8);
+            
+            try {
+                s.serialize(MoneyPrice.getAverageSize(), buffer);
+                fail("Expected BufferOverflowException");
+            }
+            catch (BufferOverflowException e) {
+                assertEquals(8, buffer.position());
+            }
+        }
+    }
+    
+    /**
+     * Serialize all {@code AppleData} as {@code FastMoneyPrice}s in one batch,
+     * and print the number of bytes next to the sum of serializing each price
+     * on its own.
+     * 
+     * @param s  provided by TestNG
+     */
+    @Test(dataProvider = "serializer")
+    public void test_all(Serializer s) {
+        List<FastMoneyPrice> prices = AppleData.rowsAs(FastMoneyPrice::ofJson).collect(toList());
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        s.serializeAll(prices, bytes);
+        
+        long separately = prices.stream().mapToInt(p -> s.serialize(p).length).sum();
+        
+        out.println("--- " + s + " ---");
+        out.println("Number of bytes, batch: " + bytes.size() + " (" + bytes.size() / prices.size() + " per price)");
+        out.println("Number of bytes, one by one: " + separately + " (" + separately / prices.size() + " per price)");
+        
+        assertEquals(prices, s.deserializeAll(new ByteArrayInputStream(bytes.toByteArray())));
+        assertTrue(bytes.size() < separately);
+    }
+    
+    /**
+     * A batch may hold prices of different types and currencies.
+     * 
+     * @param s  provided by TestNG
+     */
+    @Test(dataProvider = "serializer")
+    public void test_all_mixed(Serializer s) {
+        FastMoneyPrice sek = FastMoneyPrice.ofFastMoney(
+                LocalDate.of(2016, 6, 1), FastMoney.of(-3.5, "SEK"));
+        
+        List<Price> prices = Arrays.asList(
+                FastMoneyPrice.EXACT_SIZE,
+                FastMoneyPrice.EXACT_SIZE,
+                sek,
+                FastMoneyPrice.EXACT_SIZE,
+                LongPrice.EXACT_SIZE,
+                DoublePrice.EXACT_SIZE,
+                DoublePrice.EXACT_SIZE,
+                FastMoneyPrice.EXACT_SIZE);
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        s.serializeAll(prices, bytes);
+        
+        assertEquals(prices, s.deserializeAll(new ByteArrayInputStream(bytes.toByteArray())));
+        
+        bytes.reset();
+        s.serializeAll(Collections.emptyList(), bytes);
+        
+        assertTrue(s.deserializeAll(new ByteArrayInputStream(bytes.toByteArray())).isEmpty());
+    }
+    
     /**
      * Java:
      * <pre>
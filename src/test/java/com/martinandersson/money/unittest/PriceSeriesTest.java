@@ -0,0 +1,127 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.model.LongPrice;
+import com.martinandersson.money.lib.series.PriceSeries;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Test of {@code PriceSeries}.<p>
+ * 
+ * The series is tested against a {@code TreeMap} holding the same data.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class PriceSeriesTest
+{
+    private static final NavigableMap<LocalDate, LongPrice> EXPECTED = new TreeMap<>();
+    
+    static {
+        AppleData.rowsAs(LongPrice::ofJson)
+                .forEach(p -> EXPECTED.put(p.getDate(), p));
+    }
+    
+    
+    
+    @Test
+    public void test_appleData() {
+        PriceSeries series = AppleData.series();
+        
+        assertEquals(series.size(), EXPECTED.size());
+        
+        int i = 0;
+        
+        for (LongPrice p : EXPECTED.values()) {
+            assertEquals(series.indexOf(p.getDate()), i);
+            assertEquals(series.localDateAt(i), p.getDate());
+            assertEquals(series.amountAt(i), p.getScaledAdjClose());
+            assertEquals(series.priceAt(i), p);
+            ++i;
+        }
+    }
+    
+    @Test
+    public void test_floorCeiling() {
+        PriceSeries series = AppleData.series();
+        
+        LocalDate first = EXPECTED.firstKey(),
+                  last  = EXPECTED.lastKey();
+        
+        assertEquals(series.floorIndex(LocalDates.toShort(first.minusDays(1))), -1);
+        assertEquals(series.ceilingIndex(LocalDates.toShort(last.plusDays(1))), -1);
+        
+        for (LocalDate d = first; !d.isAfter(last); d = d.plusDays(1)) {
+            short s = LocalDates.toShort(d);
+            
+            assertEquals(series.localDateAt(series.floorIndex(s)), EXPECTED.floorKey(d));
+            assertEquals(series.localDateAt(series.ceilingIndex(s)), EXPECTED.ceilingKey(d));
+        }
+    }
+    
+    @Test
+    public void test_subSeries() {
+        PriceSeries series = AppleData.series();
+        
+        // A Saturday and a Sunday, neither is in the data set:
+        LocalDate from = LocalDate.of(2015, 1, 3),
+                  to   = LocalDate.of(2015, 12, 27);
+        
+        PriceSeries sub = series.subSeries(from, to);
+        List<LongPrice> expected = EXPECTED.subMap(from, true, to, true)
+                .values().stream().collect(toList());
+        
+        assertEquals(sub.size(), expected.size());
+        
+        for (int i = 0; i < sub.size(); ++i) {
+            assertEquals(sub.priceAt(i), expected.get(i));
+        }
+        
+        // Index of a view is relative the view:
+        assertEquals(sub.indexOf(expected.get(0).getDate()), 0);
+        
+        // Sub of sub:
+        PriceSeries subSub = sub.subSeries(1, 3);
+        assertEquals(subSub.priceAt(0), expected.get(1));
+        assertEquals(subSub.size(), 2);
+        
+        assertTrue(series.subSeries(from, from.plusDays(1)).isEmpty());
+    }
+    
+    @Test
+    public void test_builderOrder() {
+        LocalDate d1 = LocalDate.of(2000, 1, 1),
+                  d2 = d1.plusDays(1),
+                  d3 = d2.plusDays(1);
+        
+        PriceSeries descending = PriceSeries.builder()
+                .add(d3, 3).add(d2, 2).add(d1, 1).build();
+        
+        PriceSeries unordered = PriceSeries.builder()
+                .add(d2, 2).add(d3, 3).add(d1, 1).build();
+        
+        for (PriceSeries s : new PriceSeries[]{descending, unordered}) {
+            assertEquals(s.localDateAt(0), d1);
+            assertEquals(s.amountAt(0), 1);
+            assertEquals(s.localDateAt(2), d3);
+            assertEquals(s.amountAt(2), 3);
+            assertEquals(s.sum(), 6);
+        }
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_builderDuplicate() {
+        LocalDate d = LocalDate.of(2000, 1, 1);
+        
+        PriceSeries.builder()
+                .add(d, 1).add(d.plusDays(1), 2).add(d, 3)
+                .build();
+    }
+}
\ No newline at end of file
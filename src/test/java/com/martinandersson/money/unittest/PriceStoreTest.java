@@ -0,0 +1,107 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.LocalDates;
+import com.martinandersson.money.lib.model.FastMoneyPrice;
+import com.martinandersson.money.lib.model.LongPrice;
+import com.martinandersson.money.lib.offheap.PriceCursor;
+import com.martinandersson.money.lib.offheap.PriceStore;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import static java.util.stream.Collectors.toList;
+import javax.money.Monetary;
+import org.javamoney.moneta.FastMoney;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Test of {@code PriceStore} and {@code PriceCursor}.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class PriceStoreTest
+{
+    /**
+     * Start small so that the store must grow many times.
+     */
+    @Test
+    public void test_appleData() {
+        List<LongPrice> expected = AppleData.rowsAs(LongPrice::ofJson).collect(toList());
+        
+        // rowsAs() is ascending, stream() feed rows in file order which is descending:
+        Collections.reverse(expected);
+        
+        PriceStore store = PriceStore.create(1);
+        assertEquals(AppleData.stream(store), expected.size());
+        assertEquals(store.size(), expected.size());
+        
+        PriceCursor c = store.cursor();
+        
+        for (LongPrice p : expected) {
+            assertTrue(c.next());
+            assertEquals(c.toLongPrice(), p);
+            assertEquals(c.getDate(), p.getDate());
+            assertEquals(c.getAdjClose(), p.getAdjClose());
+        }
+        
+        assertFalse(c.next());
+        assertEquals(c.index(), expected.size() - 1);
+        
+        assertEquals(c.moveTo(0).toLongPrice(), expected.get(0));
+    }
+    
+    @Test
+    public void test_currencies() {
+        LocalDate date = LocalDate.of(2016, 6, 1);
+        
+        FastMoneyPrice usd = FastMoneyPrice.ofFastMoney(date, FastMoney.of(12.5, "USD")),
+                       sek = FastMoneyPrice.ofFastMoney(date, FastMoney.of(-3, "SEK"));
+        
+        PriceStore store = PriceStore.withCurrencies(0);
+        store.append(usd);
+        store.append(sek);
+        store.append(LocalDates.toShort(date), 1);
+        
+        assertEquals(store.recordSize(), 12);
+        
+        PriceCursor c = store.cursor();
+        
+        assertTrue(c.next());
+        assertEquals(c.getAdjClose(), usd.getAdjClose());
+        assertTrue(c.next());
+        assertEquals(c.getAdjClose(), sek.getAdjClose());
+        assertEquals(c.getCurrencyCode(), "SEK");
+        assertTrue(c.next());
+        assertEquals(c.getScaledAdjClose(), 1);
+        assertEquals(c.getCurrencyCode(), "USD");
+        assertEquals(c.getAdjClose(), FastMoney.of(new BigDecimal("0.00001"), Monetary.getCurrency("USD")));
+        assertFalse(c.next());
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_noCurrencies() {
+        PriceStore.create(1).append((short) 0, 0, "SEK");
+    }
+    
+    @Test
+    public void test_defaultCurrency() {
+        PriceStore store = PriceStore.create(1);
+        store.append((short) 0, 0);
+        
+        PriceCursor c = store.cursor();
+        
+        assertTrue(c.next());
+        assertEquals(c.getCurrencyCode(), "USD");
+    }
+    
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void test_notPositioned() {
+        PriceStore store = PriceStore.create(1);
+        store.append((short) 0, 0);
+        store.cursor().getScaledAdjClose();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.lib.AppleData;
+import com.martinandersson.money.lib.QuandlReader;
+import com.martinandersson.money.lib.series.PriceSeries;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import javax.json.JsonException;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * Test of {@code QuandlReader}.<p>
+ * 
+ * The streaming reader is tested against the tree-based reader.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class QuandlReaderTest
+{
+    @Test
+    public void test_appleData() throws IOException {
+        PriceSeries.Builder tree = PriceSeries.builder(),
+                            stream = PriceSeries.builder();
+        
+        try (Reader r = Files.newBufferedReader(AppleData.file(), StandardCharsets.UTF_8)) {
+            assertEquals(QuandlReader.tree(r, tree), AppleData.count());
+        }
+        
+        try (Reader r = Files.newBufferedReader(AppleData.file(), StandardCharsets.UTF_8)) {
+            assertEquals(QuandlReader.stream(r, stream), AppleData.count());
+        }
+        
+        PriceSeries expected = tree.build(),
+                    actual   = stream.build();
+        
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(actual.priceAt(i), expected.priceAt(i));
+        }
+    }
+    
+    @Test
+    public void test_rounding() {
+        String json = "{\"dataset\":{\"column_names\":[\"Date\",\"Adj. Close\"]," +
+                      "\"data\":[[\"2016-06-24\",93.4],[\"2016-06-23\",1.123455]]}}";
+        
+        long[] amounts = new long[2];
+        int[] i = {0};
+        
+        int rows = QuandlReader.stream(new StringReader(json),
+                (date, amount) -> amounts[i[0]++] = amount);
+        
+        assertEquals(rows, 2);
+        assertEquals(amounts[0], 9_340_000);
+        assertEquals(amounts[1], 112_346);
+    }
+    
+    @Test(expectedExceptions = JsonException.class)
+    public void test_malformedRow() {
+        String json = "{\"dataset\":{\"data\":[[\"2016-06-24\",93.4,1]]}}";
+        QuandlReader.stream(new StringReader(json), (date, amount) -> {});
+    }
+}
\ No newline at end of file
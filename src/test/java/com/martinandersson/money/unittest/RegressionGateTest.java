@@ -0,0 +1,243 @@
+package com.martinandersson.money.unittest;
+
+import com.martinandersson.money.benchmark.RegressionGate;
+import com.martinandersson.money.lib.SystemProperties;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.results.AverageTimeResult;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.IterationResultMetaData;
+import org.openjdk.jmh.results.ResultRole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.ThroughputResult;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.WorkloadParams;
+import org.openjdk.jmh.runner.options.TimeValue;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Test of {@code RegressionGate}.<p>
+ * 
+ * The baseline is the resource file "jmh-baseline.json". The current run is
+ * made up of synthetic {@code RunResult}s, one iteration per score. Time mode
+ * scores are in ns/op and throughput scores in ops/s.
+ * 
+ * @author Martin Andersson (webmaster at martinandersson.com)
+ */
+public class RegressionGateTest
+{
+    private static final double TOLERANCE = 0.1,
+                                CONFIDENCE = 0.999;
+    
+    private static final Path BASELINE = Paths.get(
+            SystemProperties.GRADLE_RESOURCE_DIR.require(), "jmh-baseline.json");
+    
+    private final RegressionGate gate = new RegressionGate(BASELINE, TOLERANCE, CONFIDENCE);
+    
+    
+    
+    /**
+     * A baseline benchmark without params is matched by name and mode.
+     */
+    @Test
+    public void test_unchanged_noParams() {
+        assertEquals(check(gate, run("gate.Bench.time", Mode.AverageTime, null, 99, 100, 101)),
+                "OK          gate.Bench.time avgt");
+    }
+    
+    /**
+     * A baseline benchmark with params is matched by the params too.
+     */
+    @Test
+    public void test_unchanged_params() {
+        assertEquals(check(gate, run("gate.Bench.throughput", Mode.Throughput, "size=10", 990, 1000, 1010)),
+                "OK          gate.Bench.throughput thrpt (size=10)");
+        
+        assertEquals(check(gate, run("gate.Bench.throughput", Mode.Throughput, "size=20", 990, 1000, 1010)),
+                "NEW         gate.Bench.throughput thrpt (size=20)");
+    }
+    
+    /**
+     * A higher time is worse.
+     */
+    @Test
+    public void test_timeMode() {
+        assertEquals(check(gate, run("gate.Bench.time", Mode.AverageTime, null, 129, 130, 131)),
+                "REGRESSION  gate.Bench.time avgt");
+        
+        assertEquals(check(gate, run("gate.Bench.time", Mode.AverageTime, null, 69, 70, 71)),
+                "OK          gate.Bench.time avgt");
+    }
+    
+    /**
+     * A lower throughput is worse.
+     */
+    @Test
+    public void test_throughputMode() {
+        assertEquals(check(gate, run("gate.Bench.throughput", Mode.Throughput, "size=10", 699, 700, 701)),
+                "REGRESSION  gate.Bench.throughput thrpt (size=10)");
+        
+        assertEquals(check(gate, run("gate.Bench.throughput", Mode.Throughput, "size=10", 1299, 1300, 1301)),
+                "OK          gate.Bench.throughput thrpt (size=10)");
+    }
+    
+    /**
+     * 30% worse, but the baseline is so noisy that the intervals overlap.
+     */
+    @Test
+    public void test_overlappingIntervals() {
+        assertEquals(check(gate, run("gate.Bench.noisy", Mode.AverageTime, null, 129, 130, 131)),
+                "OK          gate.Bench.noisy avgt");
+    }
+    
+    /**
+     * A baseline without raw data (SampleTime) use the interval JMH wrote,
+     * [90, 110].
+     */
+    @Test
+    public void test_baselineInterval() {
+        assertEquals(check(gate, run("gate.Bench.sample", Mode.SampleTime, null, 139, 140, 141)),
+                "REGRESSION  gate.Bench.sample sample");
+        
+        // Overlap [90, 110]:
+        assertEquals(check(gate, run("gate.Bench.sample", Mode.SampleTime, null, 80, 120, 160)),
+                "OK          gate.Bench.sample sample");
+    }
+    
+    /**
+     * Two measurements give no interval, the score itself is used.
+     */
+    @Test
+    public void test_tooFewMeasurements() {
+        assertEquals(check(gate, run("gate.Bench.time", Mode.AverageTime, null, 115, 115)),
+                "REGRESSION  gate.Bench.time avgt");
+    }
+    
+    /**
+     * 30% worse is a regression with 10% tolerance, but not with 50%.
+     */
+    @Test
+    public void test_tolerance() {
+        RunResult r = run("gate.Bench.time", Mode.AverageTime, null, 129, 130, 131);
+        
+        assertEquals(check(gate, r), "REGRESSION  gate.Bench.time avgt");
+        
+        assertEquals(check(new RegressionGate(BASELINE, 0.5, CONFIDENCE), r),
+                "OK          gate.Bench.time avgt");
+    }
+    
+    /**
+     * The baseline of "unit" is in us/op.
+     */
+    @Test
+    public void test_unitMismatch() {
+        assertEquals(check(gate, run("gate.Bench.unit", Mode.AverageTime, null, 999, 1000, 1001)),
+                "SKIPPED     gate.Bench.unit avgt");
+    }
+    
+    @Test
+    public void test_newBenchmark() {
+        assertEquals(check(gate, run("gate.Bench.other", Mode.AverageTime, null, 1, 2, 3)),
+                "NEW         gate.Bench.other avgt");
+    }
+    
+    /**
+     * Only regressions are counted.
+     */
+    @Test
+    public void test_count() {
+        List<RunResult> results = Arrays.asList(
+                run("gate.Bench.time", Mode.AverageTime, null, 129, 130, 131),
+                run("gate.Bench.throughput", Mode.Throughput, "size=10", 699, 700, 701),
+                run("gate.Bench.noisy", Mode.AverageTime, null, 129, 130, 131),
+                run("gate.Bench.unit", Mode.AverageTime, null, 999, 1000, 1001),
+                run("gate.Bench.other", Mode.AverageTime, null, 1, 2, 3));
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        
+        assertEquals(gate.check(results, new PrintStream(bytes, true)), 2);
+        assertEquals(bytes.toString().split(System.lineSeparator()).length, 5);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_negativeTolerance() {
+        new RegressionGate(BASELINE, -0.1, CONFIDENCE);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void test_badConfidence() {
+        new RegressionGate(BASELINE, TOLERANCE, 1);
+    }
+    
+    
+    
+    /**
+     * Returns the label and key printed for the only benchmark checked.
+     */
+    private static String check(RegressionGate gate, RunResult result) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        
+        final int regressions = gate.check(
+                Collections.singleton(result), new PrintStream(bytes, true));
+        
+        final String line = bytes.toString().trim();
+        
+        assertEquals(regressions, line.startsWith("REGRESSION") ? 1 : 0);
+        assertTrue(line.indexOf(':') > 0, line);
+        
+        return line.substring(0, line.indexOf(':'));
+    }
+    
+    /**
+     * Returns a run with one iteration per score.
+     * 
+     * @param param  "key=value", or {@code null} if the benchmark has no params
+     */
+    private static RunResult run(String benchmark, Mode mode, String param, double... scores) {
+        WorkloadParams workload = new WorkloadParams();
+        
+        if (param != null) {
+            String[] kv = param.split("=");
+            workload.put(kv[0], kv[1], 0);
+        }
+        
+        IterationParams iteration = new IterationParams(
+                IterationType.MEASUREMENT, scores.length, TimeValue.seconds(1), 1);
+        
+        BenchmarkParams params = new BenchmarkParams(
+                benchmark, benchmark, false, 1, new int[]{1}, 1, 0,
+                iteration, iteration, mode, workload, TimeUnit.NANOSECONDS, 1,
+                "java", Collections.emptyList(), TimeValue.minutes(1));
+        
+        List<IterationResult> iterations = new ArrayList<>();
+        
+        for (double s : scores) {
+            // 1000 operations, the score is what we get per op/second:
+            IterationResult i = new IterationResult(params, iteration,
+                    new IterationResultMetaData(1000, 1000));
+            
+            i.addResult(mode == Mode.Throughput ?
+                    new ThroughputResult(ResultRole.PRIMARY, benchmark,
+                            Math.round(s * 1000), TimeUnit.SECONDS.toNanos(1000), TimeUnit.SECONDS) :
+                    new AverageTimeResult(ResultRole.PRIMARY, benchmark,
+                            1000, Math.round(s * 1000), TimeUnit.NANOSECONDS));
+            
+            iterations.add(i);
+        }
+        
+        return new RunResult(params, Collections.singleton(new BenchmarkResult(params, iterations)));
+    }
+}
\ No newline at end of file